@@ -0,0 +1,100 @@
+package com.sdd.taskmanager.benchmark;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.repository.JdbcTaskRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Embedded H2 database with the application schema, shared by the JMH benchmarks.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+
+    /**
+     * Creates a fresh in-memory database with the tasks table.
+     * @param name The database name, unique per benchmark trial.
+     */
+    BenchmarkDatabase(String name) {
+        this("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", null);
+    }
+
+    private BenchmarkDatabase(String url, Path directory) {
+        this.directory = directory;
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(4);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Creates a fresh database with the tasks table in a temporary directory, deleted on {@link #close()}, for
+     * benchmarks where the cost of committing to storage matters.
+     * @param name The database name.
+     * @return The database.
+     * @throws IOException if the directory cannot be created.
+     */
+    static BenchmarkDatabase onDisk(String name) throws IOException {
+        Path directory = Files.createTempDirectory("benchmark-" + name);
+        return new BenchmarkDatabase("jdbc:h2:file:" + directory.resolve(name), directory);
+    }
+
+    JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    DataSource dataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Inserts tasks through the repository in batches.
+     * @param repository The repository to insert with.
+     * @param rows The number of tasks to insert.
+     * @return The IDs of the inserted tasks, in insertion order.
+     */
+    static UUID[] seed(JdbcTaskRepository repository, int rows) {
+        UUID[] ids = new UUID[rows];
+        int inserted = 0;
+        while (inserted < rows) {
+            List<Task> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = 0; i < Math.min(SEED_BATCH_SIZE, rows - inserted); i++) {
+                batch.add(new Task("Task " + (inserted + i), "Seeded for benchmarking"));
+            }
+            for (Task task : repository.createAll(batch)) {
+                ids[inserted++] = task.getId();
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Drops the database and closes the pool.
+     */
+    @Override
+    public void close() {
+        jdbcTemplate.execute("SHUTDOWN");
+        dataSource.close();
+        if (directory != null) {
+            FileSystemUtils.deleteRecursively(directory.toFile());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sdd.taskmanager.benchmark;
+
+/**
+ * {@code --name=value} command-line options of the HTTP benchmarks.
+ */
+final class BenchmarkOptions {
+
+    private final String[] args;
+
+    BenchmarkOptions(String[] args) {
+        this.args = args;
+    }
+
+    String get(String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
+    int getInt(String name, int defaultValue) {
+        return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.sdd.taskmanager.benchmark;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.repository.BatchingTaskRepository;
+import com.sdd.taskmanager.repository.JdbcTaskRepository;
+import com.sdd.taskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent task creation through {@link JdbcTaskRepository}, one auto-committed insert per call, against
+ * the same repository behind {@link BatchingTaskRepository}, with 32 threads creating at once. Creates per
+ * second are reported for an in-memory and an on-disk H2 database, where each commit writes to the file:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.class=com.sdd.taskmanager.benchmark.JmhBenchmarks \
+ *     -Dbenchmark.args="GroupCommitBenchmark -p storage=disk"
+ * </pre>
+ * {@code maxDelayMicros=-1} is the direct path; other values are the batching delay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(32)
+public class GroupCommitBenchmark {
+
+    private static final int MAX_BATCH_SIZE = 256;
+
+    @Param({"memory", "disk"})
+    private String storage;
+
+    @Param({"-1", "0", "200", "1000"})
+    private int maxDelayMicros;
+
+    private BenchmarkDatabase database;
+    private TaskRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String name = "group-commit-" + storage + "-" + maxDelayMicros;
+        database = storage.equals("disk") ? BenchmarkDatabase.onDisk(name) : new BenchmarkDatabase(name);
+        JdbcTaskRepository engine = new JdbcTaskRepository(database.jdbcTemplate(), 500);
+        if (maxDelayMicros < 0) {
+            repository = engine;
+        } else {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database.dataSource()));
+            repository = new BatchingTaskRepository(engine, transactionTemplate, MAX_BATCH_SIZE,
+                    Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(maxDelayMicros)), new SimpleMeterRegistry());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Task create() {
+        return repository.create(new Task("Benchmark task", "Created by the group commit benchmark"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.sdd.taskmanager.benchmark;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import com.sdd.taskmanager.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of the in-memory storage engine with the number of threads: lookups by ID, creates and pages, run by
+ * 1, 2, 4 and 8 threads sharing one repository. Throughput is the total of all threads, so linear scaling shows
+ * as a score proportional to the thread count, up to the number of cores.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.class=com.sdd.taskmanager.benchmark.JmhBenchmarks \
+ *     -Dbenchmark.args="InMemoryTaskRepositoryBenchmark"
+ * </pre>
+ * The repository is refilled before every iteration, so that creates do not grow it without bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class InMemoryTaskRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"100000"})
+    private int rows;
+
+    private InMemoryTaskRepository repository;
+    private List<Task> seeded;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        repository = new InMemoryTaskRepository();
+        seeded = new ArrayList<>(rows);
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Task("Task " + i, i % 2 == 0 ? "Description " + i : null));
+            if (batch.size() == 10_000 || i == rows - 1) {
+                seeded.addAll(repository.createAll(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return repository.findById(randomTask().getId());
+    }
+
+    @Benchmark
+    public Task create() {
+        return repository.create(new Task("Benchmark task", null));
+    }
+
+    @Benchmark
+    public List<Task> findPage() {
+        return repository.findPage(TaskFilter.NONE, TaskCursor.after(randomTask()), PAGE_SIZE);
+    }
+
+    private Task randomTask() {
+        return seeded.get(ThreadLocalRandom.current().nextInt(seeded.size()));
+    }
+
+    @Threads(1)
+    public static class OneThread extends InMemoryTaskRepositoryBenchmark {
+    }
+
+    @Threads(2)
+    public static class TwoThreads extends InMemoryTaskRepositoryBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends InMemoryTaskRepositoryBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends InMemoryTaskRepositoryBenchmark {
+    }
+}
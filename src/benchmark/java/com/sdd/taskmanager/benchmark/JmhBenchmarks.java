@@ -0,0 +1,42 @@
+package com.sdd.taskmanager.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Runs the JMH benchmarks with the allocation profiler and stores the results as JSON under
+ * {@code target/benchmarks}, so that runs of different releases can be compared, e.g. with JMH Visualizer.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.class=com.sdd.taskmanager.benchmark.JmhBenchmarks \
+ *     -Dbenchmark.args="TaskRepositoryBenchmark -p rows=1000,100000"
+ * </pre>
+ * Arguments are standard JMH options: a benchmark regexp, {@code -p} to pick parameters, {@code -rff} to choose
+ * the result file, and so on.
+ */
+public final class JmhBenchmarks {
+
+    private JmhBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class);
+        if (!commandLine.getResult().hasValue() && !commandLine.getResultFormat().hasValue()) {
+            Path results = Path.of("target", "benchmarks");
+            Files.createDirectories(results);
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.resultFormat(ResultFormatType.JSON)
+                    .result(results.resolve("jmh-" + timestamp + ".json").toString());
+        }
+        new Runner(options.build()).run();
+    }
+}
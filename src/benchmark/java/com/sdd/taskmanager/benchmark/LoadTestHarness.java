@@ -0,0 +1,241 @@
+package com.sdd.taskmanager.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load generator for {@code /api/v1/tasks} using an open model: requests are started at a fixed
+ * arrival rate whether or not earlier ones have completed, as real users would. Latency is measured from
+ * the time a request was due to start, so a server that falls behind is charged for the queueing it causes
+ * instead of silently slowing the load down (coordinated omission).
+ * <p>
+ * The rate is raised in stages. For each stage and endpoint the harness reports the achieved throughput and
+ * p50/p95/p99/p99.9 latency from HDR histograms, and flags the stage as saturated once the application can no
+ * longer keep up with the arrival rate or its p99 exceeds the target. Run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.class=com.sdd.taskmanager.benchmark.LoadTestHarness \
+ *     -Dbenchmark.args="--rates=200,400,800,1600 --mix=create:30,list:60,complete:10"
+ * </pre>
+ * Options:
+ * <ul>
+ *     <li>{@code --rates}: arrival rates in requests per second, one stage each (default {@code 100,200,400,800})</li>
+ *     <li>{@code --mix}: relative weights of the {@code create}, {@code list} and {@code complete} endpoints
+ *     (default {@code create:30,list:60,complete:10})</li>
+ *     <li>{@code --warmup} and {@code --duration}: seconds per stage before and while measuring (defaults 5 and 20)</li>
+ *     <li>{@code --slo-p99}: p99 target in milliseconds (default 100)</li>
+ *     <li>{@code --max-in-flight}: requests in flight beyond which new arrivals are dropped (default 10000)</li>
+ *     <li>{@code --url}: load an application that is already running instead of starting one</li>
+ *     <li>{@code --properties}: comma-separated {@code name=value} properties of the started application,
+ *     e.g. {@code spring.profiles.active=virtual}</li>
+ * </ul>
+ */
+public final class LoadTestHarness {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private LoadTestHarness() {
+    }
+
+    private enum Endpoint {
+        CREATE("POST /api/v1/tasks"),
+        LIST("GET /api/v1/tasks"),
+        COMPLETE("PATCH /api/v1/tasks/{id}/complete");
+
+        private final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        String url = options.get("url", null);
+        if (url != null) {
+            run(url, options);
+            return;
+        }
+        String properties = options.get("properties", "");
+        try (ConfigurableApplicationContext application = TaskApiClient.startApplication("load-test",
+                properties.isBlank() ? new String[0] : properties.split(","))) {
+            run(TaskApiClient.baseUrl(application), options);
+        }
+    }
+
+    private static void run(String url, BenchmarkOptions options) throws Exception {
+        Map<Endpoint, Integer> mix = parseMix(options.get("mix", "create:30,list:60,complete:10"));
+        int warmupSeconds = options.getInt("warmup", 5);
+        int durationSeconds = options.getInt("duration", 20);
+        double sloP99Millis = Double.parseDouble(options.get("slo-p99", "100"));
+        int maxInFlight = options.getInt("max-in-flight", 10_000);
+
+        try (TaskApiClient client = new TaskApiClient(url, Duration.ofSeconds(30))) {
+            AtomicReferenceArray<String> ids = new AtomicReferenceArray<>(1_000);
+            for (int i = 0; i < ids.length(); i++) {
+                ids.set(i, client.create());
+            }
+
+            System.out.printf("%n%-9s %-36s %9s %9s %9s %9s %9s %9s %9s %8s %8s%n", "target/s", "endpoint", "count",
+                    "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "dropped");
+            for (String rate : options.get("rates", "100,200,400,800").split(",")) {
+                Stage stage = new Stage(client, ids, mix, Double.parseDouble(rate.trim()), maxInFlight);
+                stage.run(warmupSeconds, durationSeconds);
+                boolean saturated = stage.print(durationSeconds, sloP99Millis);
+                if (saturated) {
+                    System.out.printf("Saturated at %s requests/s%n", rate.trim());
+                    break;
+                }
+            }
+        }
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * One arrival rate: a dispatcher starts each request on its own virtual thread at its scheduled time.
+     */
+    private static final class Stage {
+        private final TaskApiClient client;
+        private final AtomicReferenceArray<String> ids;
+        private final List<Endpoint> weightedEndpoints = new ArrayList<>();
+        private final double rate;
+        private final int maxInFlight;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Map<Endpoint, Recorder> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, LongAdder> dropped = new EnumMap<>(Endpoint.class);
+
+        Stage(TaskApiClient client, AtomicReferenceArray<String> ids, Map<Endpoint, Integer> mix, double rate, int maxInFlight) {
+            this.client = client;
+            this.ids = ids;
+            this.rate = rate;
+            this.maxInFlight = maxInFlight;
+            mix.forEach((endpoint, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    weightedEndpoints.add(endpoint);
+                }
+            });
+            for (Endpoint endpoint : Endpoint.values()) {
+                latencies.put(endpoint, new Recorder(MAX_LATENCY, 3));
+                errors.put(endpoint, new LongAdder());
+                dropped.put(endpoint, new LongAdder());
+            }
+        }
+
+        void run(int warmupSeconds, int durationSeconds) {
+            long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            long start = System.nanoTime();
+            long measureStart = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long end = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+            try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long i = 0; ; i++) {
+                    long scheduled = start + i * intervalNanos;
+                    if (scheduled >= end) {
+                        break;
+                    }
+                    long delay;
+                    while ((delay = scheduled - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(delay);
+                    }
+                    Endpoint endpoint = weightedEndpoints.get(ThreadLocalRandom.current().nextInt(weightedEndpoints.size()));
+                    boolean measured = scheduled >= measureStart;
+                    if (inFlight.incrementAndGet() > maxInFlight) {
+                        inFlight.decrementAndGet();
+                        if (measured) {
+                            dropped.get(endpoint).increment();
+                        }
+                        continue;
+                    }
+                    requests.submit(() -> {
+                        try {
+                            boolean ok = send(endpoint);
+                            if (measured) {
+                                latencies.get(endpoint).recordValue(Math.min(System.nanoTime() - scheduled, MAX_LATENCY));
+                                if (!ok) {
+                                    errors.get(endpoint).increment();
+                                }
+                            }
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+            }
+        }
+
+        private boolean send(Endpoint endpoint) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                return switch (endpoint) {
+                    case CREATE -> {
+                        ids.set(random.nextInt(ids.length()), client.create());
+                        yield true;
+                    }
+                    case LIST -> client.list(20) == 200;
+                    case COMPLETE -> client.complete(ids.get(random.nextInt(ids.length()))) == 200;
+                };
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        /**
+         * Prints one line per endpoint and a total.
+         * @return Whether the application could not sustain this stage.
+         */
+        boolean print(int durationSeconds, double sloP99Millis) {
+            Histogram total = new Histogram(MAX_LATENCY, 3);
+            long totalErrors = 0;
+            long totalDropped = 0;
+            for (Endpoint endpoint : Endpoint.values()) {
+                Histogram histogram = latencies.get(endpoint).getIntervalHistogram();
+                if (histogram.getTotalCount() == 0 && dropped.get(endpoint).sum() == 0) {
+                    continue;
+                }
+                total.add(histogram);
+                totalErrors += errors.get(endpoint).sum();
+                totalDropped += dropped.get(endpoint).sum();
+                printLine(endpoint.label, histogram, durationSeconds, errors.get(endpoint).sum(), dropped.get(endpoint).sum());
+            }
+            printLine("all", total, durationSeconds, totalErrors, totalDropped);
+
+            double achieved = total.getTotalCount() / (double) durationSeconds;
+            return achieved < rate * 0.95 || millis(total.getValueAtPercentile(99)) > sloP99Millis || totalDropped > 0;
+        }
+
+        private void printLine(String label, Histogram histogram, int durationSeconds, long errorCount, long droppedCount) {
+            System.out.printf("%-9.0f %-36s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d %8d%n", rate, label,
+                    histogram.getTotalCount(), histogram.getTotalCount() / (double) durationSeconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()), errorCount, droppedCount);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,120 @@
+package com.sdd.taskmanager.benchmark;
+
+import com.sdd.taskmanager.TaskManagerApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal client of {@code /api/v1/tasks} for the HTTP benchmarks, on a JDK HTTP client whose callbacks run
+ * on virtual threads.
+ */
+final class TaskApiClient implements AutoCloseable {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+
+    private final URI tasks;
+    private final HttpClient client;
+    private final Duration requestTimeout;
+
+    /**
+     * Constructs a new TaskApiClient.
+     * @param baseUrl The URL of the application, e.g. {@code http://localhost:8080}.
+     * @param requestTimeout How long to wait for a response before counting the request as failed.
+     */
+    TaskApiClient(String baseUrl, Duration requestTimeout) {
+        this.tasks = URI.create(baseUrl + "/api/v1/tasks");
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    /**
+     * Starts the application on a random port with an in-memory database of its own.
+     * @param name The name of the in-memory database.
+     * @param properties Additional {@code name=value} properties.
+     * @return The running application.
+     */
+    static ConfigurableApplicationContext startApplication(String name, String... properties) {
+        // Command-line arguments, which take precedence over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + name,
+                "--management.tracing.enabled=false",
+                "--logging.level.root=WARN"));
+        Arrays.stream(properties).map(property -> "--" + property).forEach(args::add);
+        return new SpringApplicationBuilder(TaskManagerApiApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Returns the URL of a running application.
+     * @param application The application started by {@link #startApplication}.
+     * @return The base URL of the application.
+     */
+    static String baseUrl(ConfigurableApplicationContext application) {
+        return "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+    }
+
+    /**
+     * Creates a task.
+     * @return The ID of the created task.
+     * @throws IOException If the request fails or does not return 201 Created.
+     */
+    String create() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request(tasks)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Benchmark task\",\"description\":\"Created under load\"}")));
+        Matcher matcher = ID.matcher(response.body());
+        if (response.statusCode() != 201 || !matcher.find()) {
+            throw new IOException("Create failed with status " + response.statusCode());
+        }
+        return matcher.group(1);
+    }
+
+    /**
+     * Lists the first page of tasks.
+     * @param limit The page size.
+     * @return The response status.
+     */
+    int list(int limit) throws IOException, InterruptedException {
+        return send(request(URI.create(tasks + "?limit=" + limit)).GET()).statusCode();
+    }
+
+    /**
+     * Completes a task.
+     * @param id The ID of the task.
+     * @return The response status.
+     */
+    int complete(String id) throws IOException, InterruptedException {
+        return send(request(URI.create(tasks + "/" + id + "/complete"))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())).statusCode();
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(requestTimeout);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
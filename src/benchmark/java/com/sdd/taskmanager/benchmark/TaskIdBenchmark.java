@@ -0,0 +1,103 @@
+package com.sdd.taskmanager.benchmark;
+
+import com.sdd.taskmanager.repository.TimeOrderedUuids;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary key layouts of the tasks table: random v4 UUIDs stored as {@code VARCHAR(36)}, as before, against
+ * native UUID columns holding random or time-ordered (v7) UUIDs. Measures inserts into a table that already
+ * holds 100k rows, lookups by key including the mapping of the key, and the generation of IDs alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskIdBenchmark {
+
+    private static final int SEED_ROWS = 100_000;
+
+    @Param({"varchar-random", "uuid-random", "uuid-time-ordered"})
+    private String keyType;
+
+    private BenchmarkDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private boolean nativeUuid;
+    private Object[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase("ids-" + keyType);
+        jdbcTemplate = database.jdbcTemplate();
+        nativeUuid = !keyType.startsWith("varchar");
+        jdbcTemplate.execute("CREATE TABLE keyed_tasks (id " + (nativeUuid ? "UUID" : "VARCHAR(36)")
+                + " PRIMARY KEY, title VARCHAR(255) NOT NULL)");
+        keys = new Object[SEED_ROWS];
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < SEED_ROWS; i++) {
+            keys[i] = nextKey();
+            batch.add(new Object[]{keys[i], "Task " + i});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate("INSERT INTO keyed_tasks (id, title) VALUES (?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        return jdbcTemplate.update("INSERT INTO keyed_tasks (id, title) VALUES (?, ?)", nextKey(), "Benchmark task");
+    }
+
+    @Benchmark
+    public UUID findById() {
+        Object key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT id, title FROM keyed_tasks WHERE id = ?");
+            statement.setObject(1, key);
+            return statement;
+        }, resultSet -> {
+            resultSet.next();
+            return nativeUuid ? resultSet.getObject("id", UUID.class) : UUID.fromString(resultSet.getString("id"));
+        });
+    }
+
+    @Benchmark
+    public Object generateId() {
+        return nextKey();
+    }
+
+    private Object nextKey() {
+        return switch (keyType) {
+            case "varchar-random" -> UUID.randomUUID().toString();
+            case "uuid-random" -> UUID.randomUUID();
+            default -> TimeOrderedUuids.next();
+        };
+    }
+}
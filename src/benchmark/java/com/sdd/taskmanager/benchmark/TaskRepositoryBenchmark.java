@@ -0,0 +1,89 @@
+package com.sdd.taskmanager.benchmark;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskFilter;
+import com.sdd.taskmanager.model.TaskPage;
+import com.sdd.taskmanager.repository.JdbcTaskRepository;
+import com.sdd.taskmanager.repository.TaskStatistics;
+import com.sdd.taskmanager.repository.TaskVersionTracker;
+import com.sdd.taskmanager.service.TaskService;
+import com.sdd.taskmanager.service.TaskServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JdbcTaskRepository} and {@link TaskServiceImpl} against embedded H2 at several table sizes.
+ * Single-row reads map rows through {@code JdbcTaskRepository.mapRowToTask}; {@link #findPage} and {@link #findAll}
+ * read into a columnar {@link com.sdd.taskmanager.model.TaskBatch}, the latter for the whole table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private JdbcTaskRepository repository;
+    private TaskService taskService;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase("repository-" + rows);
+        repository = new JdbcTaskRepository(database.jdbcTemplate(), 500);
+        taskService = new TaskServiceImpl(repository, new TaskVersionTracker(0), new TaskStatistics());
+        ids = BenchmarkDatabase.seed(repository, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Task create() {
+        return repository.create(new Task("Benchmark task", "Created by the benchmark"));
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return repository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<Task> findPage() {
+        return repository.findPage(TaskFilter.NONE, null, 100);
+    }
+
+    @Benchmark
+    public List<Task> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    public TaskPage serviceFindTaskPage() {
+        return taskService.findTaskPage(TaskFilter.NONE, null, 100);
+    }
+}
@@ -0,0 +1,104 @@
+package com.sdd.taskmanager.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.repository.TimeOrderedUuids;
+import com.sdd.taskmanager.serialization.TaskSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of task lists, as done by {@code GET /api/v1/tasks}, and of the NDJSON export, with
+ * Jackson's reflective bean serializer or the application's {@link TaskSerializer}, in JSON and in CBOR.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    @Param({"reflective", "handWritten"})
+    private String serializer;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private ObjectWriter exportWriter;
+    private List<Task> tasks;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Configured like the application's ObjectMapper
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (serializer.equals("handWritten")) {
+            builder.serializerByType(Task.class, new TaskSerializer());
+        }
+        objectMapper = builder.build();
+        cborMapper = builder.factory(new CBORFactory()).build();
+        exportWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator((String) null);
+        tasks = new ArrayList<>(size);
+        ZonedDateTime createdAt = ZonedDateTime.now(ZoneOffset.UTC);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task(TimeOrderedUuids.next(), "Task " + i, i % 2 == 0 ? "Description of task " + i : null,
+                    i % 3 == 0, createdAt.plusNanos(i * 1_000L)));
+        }
+        json = objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] writeList() throws IOException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] writeListCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<Task> readList() throws IOException {
+        return objectMapper.readValue(json, new TypeReference<>() {
+        });
+    }
+
+    @Benchmark
+    public void writeNdjsonExport() throws IOException {
+        try (JsonGenerator generator = exportWriter.createGenerator(OutputStream.nullOutputStream())) {
+            for (Task task : tasks) {
+                exportWriter.writeValue(generator, task);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+}
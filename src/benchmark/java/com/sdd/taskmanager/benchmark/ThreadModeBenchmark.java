@@ -0,0 +1,120 @@
+package com.sdd.taskmanager.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares request handling on platform threads and on virtual threads under a closed-model load: a fixed
+ * number of clients each send a request, wait for the response and immediately send the next one.
+ * <p>
+ * Each mode runs against a fresh application on a random port with its own in-memory database. Clients mix
+ * listing a page of tasks (60%), creating a task (30%) and completing one (10%). Run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="--clients=2000 --duration=60"
+ * </pre>
+ * Options: {@code --clients} (default 1000), {@code --warmup} and {@code --duration} in seconds (defaults 10
+ * and 30), {@code --modes} (default {@code platform,virtual}).
+ */
+public final class ThreadModeBenchmark {
+
+    private ThreadModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        int clients = options.getInt("clients", 1000);
+        int warmupSeconds = options.getInt("warmup", 10);
+        int durationSeconds = options.getInt("duration", 30);
+        String[] modes = options.get("modes", "platform,virtual").split(",");
+
+        List<String> report = new ArrayList<>();
+        for (String mode : modes) {
+            report.add(run(mode.trim(), clients, warmupSeconds, durationSeconds));
+        }
+
+        System.out.printf("%n%-10s %8s %12s %10s %10s %10s %10s%n", "mode", "clients", "requests/s", "p50 ms", "p99 ms",
+                "p99.9 ms", "errors");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, int clients, int warmupSeconds, int durationSeconds) throws Exception {
+        boolean virtual = switch (mode) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        };
+        try (ConfigurableApplicationContext application = TaskApiClient.startApplication("benchmark-" + mode,
+                "spring.threads.virtual.enabled=" + virtual,
+                "server.tomcat.max-connections=" + Math.max(8192, clients * 2),
+                "server.tomcat.accept-count=" + clients);
+             TaskApiClient client = new TaskApiClient(TaskApiClient.baseUrl(application), Duration.ofMinutes(1))) {
+
+            // Tasks to complete: created tasks replace random slots, so completions keep finding open tasks
+            AtomicReferenceArray<String> ids = new AtomicReferenceArray<>(1_000);
+            for (int i = 0; i < ids.length(); i++) {
+                ids.set(i, client.create());
+            }
+
+            Recorder recorder = new Recorder(TimeUnit.MINUTES.toNanos(1), 3);
+            LongAdder errors = new LongAdder();
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+            try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    clientThreads.submit(() -> {
+                        long now;
+                        while ((now = System.nanoTime()) < end) {
+                            boolean ok = sendRandomRequest(client, ids);
+                            long finished = System.nanoTime();
+                            if (now >= warmupEnd) {
+                                recorder.recordValue(Math.min(finished - now, TimeUnit.MINUTES.toNanos(1)));
+                                if (!ok) {
+                                    errors.increment();
+                                }
+                            }
+                        }
+                    });
+                }
+            }
+
+            Histogram histogram = recorder.getIntervalHistogram();
+            return String.format("%-10s %8d %12.0f %10.2f %10.2f %10.2f %10d", mode, clients,
+                    histogram.getTotalCount() / (double) durationSeconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), errors.sum());
+        }
+    }
+
+    private static boolean sendRandomRequest(TaskApiClient client, AtomicReferenceArray<String> ids) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int operation = random.nextInt(10);
+        try {
+            if (operation < 6) {
+                return client.list(20) == 200;
+            } else if (operation < 9) {
+                ids.set(random.nextInt(ids.length()), client.create());
+                return true;
+            } else {
+                return client.complete(ids.get(random.nextInt(ids.length()))) == 200;
+            }
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
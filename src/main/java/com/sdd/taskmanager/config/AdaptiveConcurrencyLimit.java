@@ -0,0 +1,117 @@
+package com.sdd.taskmanager.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of requests in flight, adjusting the limit to the latency observed: additive increase,
+ * multiplicative decrease (AIMD), as TCP does with its congestion window.
+ * <p>
+ * While requests complete within the latency threshold and the limit is in use, it grows by about one for every
+ * limit's worth of requests. A request that exceeds the threshold, or that failed because the server was
+ * overloaded, cuts the limit by the backoff ratio. Requests that were already running when the limit was last cut
+ * do not cut it again, so that a burst of slow requests counts as a single sign of overload.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    /**
+     * Constructs a new AdaptiveConcurrencyLimit.
+     * @param initialLimit The limit until the first requests complete.
+     * @param minLimit The lowest the limit is cut to, at least 1.
+     * @param maxLimit The highest the limit grows to.
+     * @param latencyThreshold The latency beyond which a request is a sign of overload.
+     * @param backoffRatio The factor the limit is multiplied by on overload, between 0 and 1 excluded.
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                                    double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (!(backoffRatio > 0 && backoffRatio < 1)) {
+            throw new IllegalArgumentException("The backoff ratio must be between 0 and 1");
+        }
+        if (latencyThreshold.isNegative() || latencyThreshold.isZero()) {
+            throw new IllegalArgumentException("The latency threshold must be positive");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Admits a request if fewer requests than the limit are in flight.
+     * @return True if the request was admitted and must be {@linkplain #release released}, false if it was
+     *         rejected.
+     */
+    public boolean tryAcquire() {
+        int current = getLimit();
+        while (true) {
+            int running = inFlight.get();
+            if (running >= current) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(running, running + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and adjusts the limit to its outcome.
+     * @param startNanos The {@link System#nanoTime()} at which the request was admitted.
+     * @param endNanos The {@link System#nanoTime()} at which it completed.
+     * @param overloaded Whether the request failed because the server was overloaded, whatever its latency.
+     */
+    public void release(long startNanos, long endNanos, boolean overloaded) {
+        int running = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (overloaded || endNanos - startNanos > latencyThresholdNanos) {
+                if (startNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = endNanos;
+                }
+            } else if (running * 2 >= limit) {
+                // Only grow a limit that is used, or it would drift to the maximum while the server is idle
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     * @return The maximum number of requests in flight.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     * @return The number of requests admitted and not released yet.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of requests rejected so far.
+     * @return The number of calls to {@link #tryAcquire()} that returned false.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
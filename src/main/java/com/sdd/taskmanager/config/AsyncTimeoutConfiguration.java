@@ -0,0 +1,44 @@
+package com.sdd.taskmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Lets a handler give its own request a longer or shorter async timeout than
+ * {@code spring.mvc.async.request-timeout}, for responses such as a {@code StreamingResponseBody} that have no
+ * timeout of their own: the handler stores a {@link Duration} in the {@link #TIMEOUT_ATTRIBUTE} request attribute,
+ * which is applied when async processing starts.
+ */
+@Configuration
+public class AsyncTimeoutConfiguration implements WebMvcConfigurer {
+
+    /**
+     * Request attribute holding the {@link Duration} after which the async processing of the request times out.
+     */
+    public static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutConfiguration.class.getName() + ".timeout";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                // Called before async processing starts, which is when the timeout is handed to the container
+                if (request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Duration timeout
+                        && request instanceof AsyncWebRequest asyncRequest) {
+                    asyncRequest.setTimeout(timeout.toMillis());
+                }
+            }
+        });
+    }
+}
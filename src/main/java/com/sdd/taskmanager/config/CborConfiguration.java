@@ -0,0 +1,26 @@
+package com.sdd.taskmanager.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class CborConfiguration {
+
+    /**
+     * Reads and writes {@code application/cbor} bodies for internal callers that send it in {@code Accept} or
+     * {@code Content-Type}; JSON stays the default. Replaces Spring MVC's default CBOR converter, whose mapper
+     * does not have the application's Jackson configuration, so that CBOR carries the same fields and date
+     * strings as JSON.
+     * @param builder The builder of the application's ObjectMapper, with its modules and features.
+     * @return The CBOR message converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+}
@@ -0,0 +1,24 @@
+package com.sdd.taskmanager.config;
+
+import com.sdd.taskmanager.feed.TaskChangeFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ChangeFeedConfiguration {
+
+    /**
+     * Feed of recent task changes, filled as a {@link com.sdd.taskmanager.repository.TaskChangeListener}.
+     * Waiting consumers are woken on virtual threads, so that a slow client cannot hold up the others.
+     * @param bufferSize The number of recent changes kept; consumers further behind are resynchronized from storage.
+     * @return The empty feed.
+     */
+    @Bean
+    public TaskChangeFeed taskChangeFeed(@Value("${taskmanager.changes.buffer-size:10000}") int bufferSize) {
+        return new TaskChangeFeed(bufferSize,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-changes-", 0).factory()));
+    }
+}
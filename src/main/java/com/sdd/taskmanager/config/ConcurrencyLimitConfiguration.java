@@ -0,0 +1,55 @@
+package com.sdd.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Active unless {@code taskmanager.concurrency-limit.enabled} is false: API requests beyond adaptive limits on
+ * reads and writes in flight are rejected with 503 Service Unavailable.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "taskmanager.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfiguration {
+
+    /**
+     * Limits the reads and the writes in flight, each limit adapting to the latency of its requests.
+     * @param minLimit The lowest either limit is cut to.
+     * @param maxLimit The highest either limit grows to.
+     * @param backoffRatio The factor a limit is multiplied by when its requests are slow or fail for overload.
+     * @param readInitialLimit The limit of reads on startup.
+     * @param readLatencyThreshold The latency beyond which a read is a sign of overload.
+     * @param writeInitialLimit The limit of writes on startup.
+     * @param writeLatencyThreshold The latency beyond which a write is a sign of overload.
+     * @param retryAfter How long rejected clients are asked to wait.
+     * @return The servlet filter, registered by Spring Boot for all requests, and the binder of its meters.
+     */
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            @Value("${taskmanager.concurrency-limit.min-limit:10}") int minLimit,
+            @Value("${taskmanager.concurrency-limit.max-limit:1000}") int maxLimit,
+            @Value("${taskmanager.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${taskmanager.concurrency-limit.reads.initial-limit:100}") int readInitialLimit,
+            @Value("${taskmanager.concurrency-limit.reads.latency-threshold:250ms}") Duration readLatencyThreshold,
+            @Value("${taskmanager.concurrency-limit.writes.initial-limit:50}") int writeInitialLimit,
+            @Value("${taskmanager.concurrency-limit.writes.latency-threshold:500ms}") Duration writeLatencyThreshold,
+            @Value("${taskmanager.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        return new ConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimit(readInitialLimit, minLimit, maxLimit, readLatencyThreshold, backoffRatio),
+                new AdaptiveConcurrencyLimit(writeInitialLimit, minLimit, maxLimit, writeLatencyThreshold, backoffRatio),
+                retryAfter);
+    }
+
+    /**
+     * Exposes the limits, the requests in flight and the rejected requests at {@code /actuator/concurrencylimits}.
+     * @param filter The filter whose limits are exposed.
+     * @return The actuator endpoint.
+     */
+    @Bean
+    public ConcurrencyLimitsEndpoint concurrencyLimitsEndpoint(ConcurrencyLimitFilter filter) {
+        return new ConcurrencyLimitsEndpoint(filter);
+    }
+}
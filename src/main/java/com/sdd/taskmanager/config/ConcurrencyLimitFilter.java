@@ -0,0 +1,123 @@
+package com.sdd.taskmanager.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Sheds the API requests beyond an {@link AdaptiveConcurrencyLimit}, with separate limits for reads and writes, so
+ * that an overloaded database slows neither kind down without bound. Rejected requests are answered at once with
+ * 503 Service Unavailable and a {@code Retry-After} header, before any work is done for them.
+ * <p>
+ * Requests completing asynchronously, i.e. long-polls and event streams of the change feed and exports, count
+ * until their handler returns: they hold no request thread while waiting, and exports stream under the connection
+ * pool's own backpressure.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 15)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String API_PATH = "/api/";
+
+    private final AdaptiveConcurrencyLimit reads;
+    private final AdaptiveConcurrencyLimit writes;
+    private final String retryAfterSeconds;
+
+    /**
+     * Constructs a new ConcurrencyLimitFilter.
+     * @param reads The limit of GET, HEAD and OPTIONS requests.
+     * @param writes The limit of other requests.
+     * @param retryAfter How long rejected clients are asked to wait, rounded up to the second.
+     */
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit reads, AdaptiveConcurrencyLimit writes, Duration retryAfter) {
+        this.reads = reads;
+        this.writes = writes;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + API_PATH);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimit limit = READ_METHODS.contains(request.getMethod()) ? reads : writes;
+        if (!limit.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().print("Too many concurrent requests, retry later");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // 503 is also the status of requests that could not get a database connection in time
+            limit.release(start, System.nanoTime(), response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+
+    /**
+     * Returns the limit of reads.
+     * @return The limit of GET, HEAD and OPTIONS requests.
+     */
+    public AdaptiveConcurrencyLimit getReadLimit() {
+        return reads;
+    }
+
+    /**
+     * Returns the limit of writes.
+     * @return The limit of requests other than reads.
+     */
+    public AdaptiveConcurrencyLimit getWriteLimit() {
+        return writes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "reads", reads);
+        bind(registry, "writes", writes);
+    }
+
+    private static void bind(MeterRegistry registry, String kind, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("taskmanager.http.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Maximum number of API requests in flight")
+                .tag("kind", kind)
+                .register(registry);
+        Gauge.builder("taskmanager.http.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("API requests in flight")
+                .tag("kind", kind)
+                .register(registry);
+        FunctionCounter.builder("taskmanager.http.concurrency.rejected", limit, AdaptiveConcurrencyLimit::getRejected)
+                .description("API requests rejected beyond the concurrency limit")
+                .tag("kind", kind)
+                .register(registry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sdd.taskmanager.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the limits of the {@link ConcurrencyLimitFilter} at {@code /actuator/concurrencylimits}, with the
+ * requests in flight and rejected so far, for reads and writes.
+ */
+@Endpoint(id = "concurrencylimits")
+public class ConcurrencyLimitsEndpoint {
+
+    private final ConcurrencyLimitFilter filter;
+
+    /**
+     * Constructs a new ConcurrencyLimitsEndpoint.
+     * @param filter The filter whose limits are exposed.
+     */
+    public ConcurrencyLimitsEndpoint(ConcurrencyLimitFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Returns the current limits.
+     * @return The limit, the requests in flight and the requests rejected, of reads and of writes.
+     */
+    @ReadOperation
+    public Map<String, Object> limits() {
+        Map<String, Object> limits = new LinkedHashMap<>();
+        limits.put("reads", describe(filter.getReadLimit()));
+        limits.put("writes", describe(filter.getWriteLimit()));
+        return limits;
+    }
+
+    private static Map<String, Object> describe(AdaptiveConcurrencyLimit limit) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("limit", limit.getLimit());
+        description.put("inFlight", limit.getInFlight());
+        description.put("rejected", limit.getRejected());
+        return description;
+    }
+}
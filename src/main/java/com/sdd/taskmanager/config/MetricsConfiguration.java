@@ -0,0 +1,19 @@
+package com.sdd.taskmanager.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Records the size of every response body.
+     * @param meterRegistry The registry the response sizes are recorded to.
+     * @return The servlet filter, registered by Spring Boot for all requests.
+     */
+    @Bean
+    public ResponseSizeMetricsFilter responseSizeMetricsFilter(MeterRegistry meterRegistry) {
+        return new ResponseSizeMetricsFilter(meterRegistry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.sdd.taskmanager.config;
+
+import com.sdd.taskmanager.repository.ReadReplicas;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Active when {@code taskmanager.datasource.replicas.enabled} is set: the JDBC storage engine runs reads outside
+ * transactions on read replicas, while clients that just wrote keep reading from the primary database.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "taskmanager.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    /**
+     * Opens a connection pool per replica, with the credentials of the primary database, behind a
+     * {@link ReplicaDataSource} that balances reads over the healthy ones. Not a {@link DataSource} bean, so that
+     * the primary data source stays the one Spring Boot configures.
+     * @param primary The primary data source, read from when no replica is healthy.
+     * @param urls The JDBC URLs of the replicas.
+     * @param username The user name of the primary database.
+     * @param password The password of the primary database.
+     * @param poolSize The maximum number of connections to each replica.
+     * @param healthCheckInterval The time between two checks of the replicas.
+     * @return The replicas, closed with the application context.
+     */
+    @Bean
+    public ReadReplicas readReplicas(DataSource primary,
+                                     @Value("${taskmanager.datasource.replicas.urls}") List<String> urls,
+                                     @Value("${spring.datasource.username:}") String username,
+                                     @Value("${spring.datasource.password:}") String password,
+                                     @Value("${taskmanager.datasource.replicas.pool-size:10}") int poolSize,
+                                     @Value("${taskmanager.datasource.replicas.health-check-interval:5s}") Duration healthCheckInterval) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("taskmanager.datasource.replicas.urls must list at least one replica");
+        }
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url);
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Open connections on first use, so that an unreachable replica does not prevent startup
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName() + " (" + url + ")", replica);
+        }
+        return new ReadReplicas(new ReplicaDataSource(primary, replicas, healthCheckInterval));
+    }
+
+    /**
+     * Keeps each client's reads on the primary database during and right after its writes.
+     * @param window How long the reads of a client stay on the primary after its last write.
+     * @param maximumClients The maximum number of recently writing clients tracked.
+     * @return The servlet filter, registered by Spring Boot for all requests.
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${taskmanager.datasource.replicas.read-your-writes-window:2s}") Duration window,
+            @Value("${taskmanager.datasource.replicas.max-tracked-clients:100000}") long maximumClients) {
+        return new ReadYourWritesFilter(window, maximumClients);
+    }
+
+    /**
+     * Publishes the number of healthy replicas and the connections handed out for reads.
+     * @param readReplicas The replicas.
+     * @return The binder of the replica meters.
+     */
+    @Bean
+    public MeterBinder readReplicaMetrics(ReadReplicas readReplicas) {
+        return registry -> {
+            if (readReplicas.getDataSource() instanceof ReplicaDataSource replicaDataSource) {
+                replicaDataSource.bindTo(registry);
+            }
+        };
+    }
+}
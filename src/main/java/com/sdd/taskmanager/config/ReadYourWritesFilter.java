@@ -0,0 +1,143 @@
+package com.sdd.taskmanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sdd.taskmanager.repository.ReadReplicas;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+
+/**
+ * Keeps the reads of a client on the primary data source while it writes and for a short window after, so that
+ * it sees its own writes even though read replicas lag behind. Clients are told apart by their
+ * {@value #CLIENT_ID_HEADER} header when they send one, else by their address.
+ * <p>
+ * Other clients read from replicas even right after a write, and may not see it yet. Their conditional requests
+ * are then answered in full and without an ETag: the version an ETag is built from counts every write on the
+ * primary, so a replica's response could otherwise be cached under the version of a write it does not show.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /**
+     * Header identifying a client across connections, e.g. behind a proxy.
+     */
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Cache<String, Boolean> recentWriters;
+    private final long windowNanos;
+    private volatile long lastWriteNanos;
+
+    /**
+     * Constructs a new ReadYourWritesFilter.
+     * @param window How long the reads of a client stay on the primary after its last write, at least the
+     *               replication lag.
+     * @param maximumClients The maximum number of recently writing clients tracked; beyond it, the clients that
+     *                       wrote least recently may read from replicas early.
+     */
+    public ReadYourWritesFilter(Duration window, long maximumClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maximumClients)
+                .build();
+        this.windowNanos = window.toNanos();
+        this.lastWriteNanos = System.nanoTime() - windowNanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write) {
+            // Recorded before the write runs, so that concurrent reads of the same client already use the primary
+            recentWriters.put(client, Boolean.TRUE);
+            lastWriteNanos = System.nanoTime();
+        }
+        if (write || recentWriters.getIfPresent(client) != null) {
+            try (ReadReplicas.PrimaryScope primary = ReadReplicas.usePrimary()) {
+                filterChain.doFilter(request, response);
+            }
+        } else if (System.nanoTime() - lastWriteNanos < windowNanos) {
+            filterChain.doFilter(new UnconditionalRequest(request), new UntaggedResponse(response));
+        } else {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+
+    /**
+     * Hides the conditional headers of a request.
+     */
+    private static final class UnconditionalRequest extends HttpServletRequestWrapper {
+
+        UnconditionalRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isConditional(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isConditional(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public long getDateHeader(String name) {
+            return isConditional(name) ? -1 : super.getDateHeader(name);
+        }
+
+        private static boolean isConditional(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) || HttpHeaders.IF_MODIFIED_SINCE.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Drops the ETag of a response.
+     */
+    private static final class UntaggedResponse extends HttpServletResponseWrapper {
+
+        UntaggedResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.sdd.taskmanager.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections to read replicas, taking healthy replicas in turn, and to the primary data source when
+ * none is healthy.
+ * <p>
+ * Every replica is checked periodically by validating one of its connections. A replica whose check fails, or
+ * that fails to hand out a connection, is skipped until a later check succeeds. Replication lag is not measured:
+ * replicas are expected to follow the primary closely.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+    private volatile Counter replicaReads;
+    private volatile Counter primaryReads;
+
+    /**
+     * Constructs a new ReplicaDataSource and starts checking the replicas.
+     * @param primary The data source used when no replica is healthy.
+     * @param replicas The replica data sources by name, closed with this data source if they can be.
+     * @param healthCheckInterval The time between two checks of the replicas, or zero not to check them, in which
+     *                            case a replica that failed is never used again.
+     */
+    public ReplicaDataSource(DataSource primary, Map<String, DataSource> replicas, Duration healthCheckInterval) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = healthCheckInterval.toMillis();
+        if (intervalMillis > 0) {
+            healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * A replica and whether it is used.
+     */
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                count(replicaReads);
+                return connection;
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+        count(primaryReads);
+        return primary.getConnection();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Replica connections use the credentials of their pool");
+    }
+
+    /**
+     * Checks every replica, marking it healthy or not.
+     */
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (!replica.healthy) {
+                    logger.info("Read replica {} is healthy again", replica.name);
+                    replica.healthy = true;
+                }
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of replicas in use.
+     * @return The number of replicas whose last check succeeded.
+     */
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("taskmanager.datasource.replicas.healthy", this, ReplicaDataSource::healthyReplicas)
+                .description("Read replicas in use")
+                .register(registry);
+        replicaReads = Counter.builder("taskmanager.datasource.replica.connections")
+                .description("Connections handed out for reads, by data source")
+                .tag("target", "replica")
+                .register(registry);
+        primaryReads = Counter.builder("taskmanager.datasource.replica.connections")
+                .description("Connections handed out for reads, by data source")
+                .tag("target", "primary")
+                .register(registry);
+    }
+
+    /**
+     * Stops checking the replicas and closes them.
+     */
+    @Override
+    public void close() throws Exception {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void markUnhealthy(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            logger.warn("Read replica {} is unhealthy, reading from other replicas or the primary", replica.name, cause);
+            replica.healthy = false;
+        }
+    }
+
+    private static void count(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.sdd.taskmanager.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records the size of response bodies under {@value #METRIC_NAME}, tagged like {@code http.server.requests}
+ * with the method, URI template and status. Bodies are counted as they are written, so streamed responses
+ * without a {@code Content-Length} are measured too, once their asynchronous processing completes.
+ * <p>
+ * Summaries are kept by method, URI template and status once registered, so recording a size costs a map lookup
+ * rather than building tags and looking the meter up in the registry.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ResponseSizeMetricsFilter extends OncePerRequestFilter {
+
+    /**
+     * Name of the distribution summary of response body sizes.
+     */
+    public static final String METRIC_NAME = "taskmanager.http.response.size";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<SummaryKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new ResponseSizeMetricsFilter.
+     * @param meterRegistry The registry the response sizes are recorded to.
+     */
+    public ResponseSizeMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, countingResponse.bytesWritten);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response, countingResponse.bytesWritten);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long bytes) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Unmatched requests are grouped to keep the number of time series bounded
+        SummaryKey key = new SummaryKey(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN",
+                response.getStatus());
+        DistributionSummary summary = summaries.get(key);
+        if (summary == null) {
+            summary = summaries.computeIfAbsent(key, this::register);
+        }
+        summary.record(bytes);
+    }
+
+    private DistributionSummary register(SummaryKey key) {
+        return DistributionSummary.builder(METRIC_NAME)
+                .description("Size of HTTP response bodies")
+                .baseUnit("bytes")
+                .tag("method", key.method())
+                .tag("uri", key.uri())
+                .tag("status", String.valueOf(key.status()))
+                .register(meterRegistry);
+    }
+
+    /**
+     * The tags of a summary.
+     */
+    private record SummaryKey(String method, String uri, int status) {
+    }
+
+    /**
+     * Counts what is written to the response, whether through its output stream or its writer.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private volatile long bytesWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                // PrintWriter does not buffer, so everything reaches the container's writer. Characters are
+                // counted rather than encoded bytes, which is exact for the ASCII error bodies written this way.
+                writer = new PrintWriter(super.getWriter()) {
+                    @Override
+                    public void write(int c) {
+                        super.write(c);
+                        bytesWritten++;
+                    }
+
+                    @Override
+                    public void write(char[] buf, int off, int len) {
+                        super.write(buf, off, len);
+                        bytesWritten += len;
+                    }
+
+                    @Override
+                    public void write(String s, int off, int len) {
+                        super.write(s, off, len);
+                        bytesWritten += len;
+                    }
+                };
+            }
+            return writer;
+        }
+
+        private final class CountingOutputStream extends ServletOutputStream {
+            private final ServletOutputStream delegate;
+
+            CountingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                delegate.write(b);
+                bytesWritten++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                delegate.write(b, off, len);
+                bytesWritten += len;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.sdd.taskmanager.config;
+
+import com.sdd.taskmanager.search.TaskSearchIndex;
+import com.sdd.taskmanager.service.TaskSearchService;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SearchConfiguration {
+
+    /**
+     * Full-text index of task titles and descriptions, kept up to date as a {@link com.sdd.taskmanager.repository.TaskChangeListener}.
+     * @return The empty index.
+     */
+    @Bean
+    public TaskSearchIndex taskSearchIndex() {
+        return new TaskSearchIndex();
+    }
+
+    /**
+     * Fills the search index from storage on startup, before the application reports itself ready.
+     * @param taskSearchService The service rebuilding the index.
+     * @return The startup runner.
+     */
+    @Bean
+    public ApplicationRunner taskSearchIndexLoader(TaskSearchService taskSearchService) {
+        return args -> taskSearchService.rebuildIndex();
+    }
+}
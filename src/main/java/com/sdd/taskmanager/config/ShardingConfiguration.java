@@ -0,0 +1,133 @@
+package com.sdd.taskmanager.config;
+
+import com.sdd.taskmanager.repository.ShardLayout;
+import com.sdd.taskmanager.repository.ShardRebalancer;
+import com.sdd.taskmanager.repository.ShardedTaskRepository;
+import com.sdd.taskmanager.repository.ShardsEndpoint;
+import com.sdd.taskmanager.repository.StorageEngine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active when {@value StorageEngine#PROPERTY} is {@code sharded}: tasks are spread over the databases listed in
+ * {@code taskmanager.sharding.urls}, and {@code /actuator/shards} rebalances them after that list changed. The list
+ * of the last completed rebalance is kept in the primary database, and shards removed since must be listed in
+ * {@code taskmanager.sharding.retired-urls} until a rebalance drains them.
+ */
+@Configuration
+@ConditionalOnProperty(name = StorageEngine.PROPERTY, havingValue = "sharded")
+public class ShardingConfiguration {
+
+    /**
+     * Opens a connection pool per shard, with the credentials of the primary database, and creates their
+     * schema like Spring Boot does for the primary database when {@code spring.sql.init.mode} is {@code always}.
+     * Not {@link DataSource} beans, so that the primary data source stays the one Spring Boot configures.
+     * @param urls The JDBC URLs of the shards; a task's shard is its position in this list.
+     * @param retiredUrls The JDBC URLs of former shards, read until a rebalance has drained them.
+     * @param username The user name of the primary database.
+     * @param password The password of the primary database.
+     * @param poolSize The maximum number of connections to each shard.
+     * @param streamFetchSize The number of rows fetched per round trip when streaming all tasks.
+     * @param initMode When to create the schema, as for the primary database.
+     * @param schemaLocations The scripts creating the schema.
+     * @param resourceLoader The loader of the scripts.
+     * @param meterRegistry The registry the per-shard timers are registered with.
+     * @return The sharded storage engine, closing the pools with the application context.
+     */
+    @Bean
+    @StorageEngine
+    public ShardedTaskRepository shardedTaskRepository(
+            @Value("${taskmanager.sharding.urls}") List<String> urls,
+            @Value("${taskmanager.sharding.retired-urls:}") List<String> retiredUrls,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${taskmanager.sharding.pool-size:10}") int poolSize,
+            @Value("${taskmanager.export.fetch-size:500}") int streamFetchSize,
+            @Value("${spring.sql.init.mode:embedded}") String initMode,
+            @Value("${spring.sql.init.schema-locations:classpath:schema.sql}") List<String> schemaLocations,
+            ResourceLoader resourceLoader,
+            MeterRegistry meterRegistry) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("taskmanager.sharding.urls must list at least one shard");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : urls) {
+            shards.add(shard("shard-" + shards.size(), url, username, password, poolSize));
+        }
+        if ("always".equalsIgnoreCase(initMode)) {
+            // Not the retired shards, whose tasks are still to be moved
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+            schemaLocations.forEach(location -> populator.addScript(resourceLoader.getResource(location)));
+            shards.forEach(populator::execute);
+        }
+        List<DataSource> retired = new ArrayList<>();
+        for (String url : retiredUrls) {
+            retired.add(shard("retired-shard-" + retired.size(), url, username, password, poolSize));
+        }
+        return new ShardedTaskRepository(shards, retired, streamFetchSize, meterRegistry);
+    }
+
+    /**
+     * Records the shard URLs of the last completed rebalance in the primary database.
+     * @param primary The primary database.
+     * @param urls The JDBC URLs of the shards.
+     * @param retiredUrls The JDBC URLs of former shards, read until a rebalance has drained them.
+     * @return The shard layout, checked against the recorded one.
+     */
+    @Bean
+    public ShardLayout shardLayout(DataSource primary,
+                                   @Value("${taskmanager.sharding.urls}") List<String> urls,
+                                   @Value("${taskmanager.sharding.retired-urls:}") List<String> retiredUrls) {
+        return new ShardLayout(primary, urls, retiredUrls);
+    }
+
+    /**
+     * Moves tasks to the shard they hash to, on demand or right after startup.
+     * @param repository The sharded storage engine.
+     * @param layout The shard layout, recorded once a rebalance completes.
+     * @param batchSize The number of tasks read and moved at once.
+     * @param rebalanceOnStartup Whether to start rebalancing when the application starts, if the shard URLs
+     *                           changed since the last rebalance.
+     * @return The rebalancer, with lookups searching every shard until it completes if the shard URLs changed.
+     */
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardedTaskRepository repository, ShardLayout layout,
+                                           @Value("${taskmanager.sharding.rebalance-batch-size:1000}") int batchSize,
+                                           @Value("${taskmanager.sharding.rebalance-on-startup:false}") boolean rebalanceOnStartup) {
+        ShardRebalancer rebalancer = new ShardRebalancer(repository, batchSize, layout);
+        if (rebalanceOnStartup && layout.isChanged()) {
+            rebalancer.start();
+        }
+        return rebalancer;
+    }
+
+    /**
+     * Exposes the rebalancer at {@code /actuator/shards}.
+     * @param rebalancer The rebalancer.
+     * @return The actuator endpoint.
+     */
+    @Bean
+    public ShardsEndpoint shardsEndpoint(ShardRebalancer rebalancer) {
+        return new ShardsEndpoint(rebalancer);
+    }
+
+    private static HikariDataSource shard(String poolName, String url, String username, String password, int poolSize) {
+        HikariDataSource shard = new HikariDataSource();
+        shard.setPoolName(poolName);
+        shard.setJdbcUrl(url);
+        shard.setUsername(username);
+        shard.setPassword(password);
+        shard.setMaximumPoolSize(poolSize);
+        return shard;
+    }
+}
@@ -0,0 +1,34 @@
+package com.sdd.taskmanager.config;
+
+import com.sdd.taskmanager.repository.TaskStatistics;
+import com.sdd.taskmanager.service.TaskService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class StatisticsConfiguration {
+
+    /**
+     * Counts of the stored tasks, kept up to date as a {@link com.sdd.taskmanager.repository.TaskChangeListener}.
+     * @return The empty counts.
+     */
+    @Bean
+    public TaskStatistics taskStatistics() {
+        return new TaskStatistics();
+    }
+
+    /**
+     * Reconciles the task counts with storage on startup and every {@code reconcile-interval} after.
+     * @param taskService The service reconciling the counts.
+     * @param interval The time between two reconciliations, or zero to only reconcile on startup.
+     * @return The startup runner, which stops reconciling with the application context.
+     */
+    @Bean
+    public TaskStatsReconciler taskStatsReconciler(TaskService taskService,
+                                                   @Value("${taskmanager.stats.reconcile-interval:10m}") Duration interval) {
+        return new TaskStatsReconciler(taskService, interval);
+    }
+}
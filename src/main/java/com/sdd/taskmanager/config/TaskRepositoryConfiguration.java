@@ -0,0 +1,147 @@
+package com.sdd.taskmanager.config;
+
+import com.sdd.taskmanager.repository.BatchingTaskRepository;
+import com.sdd.taskmanager.repository.CachingTaskRepository;
+import com.sdd.taskmanager.repository.ChangeNotifyingTaskRepository;
+import com.sdd.taskmanager.repository.CoalescingTaskRepository;
+import com.sdd.taskmanager.repository.MeteredTaskRepository;
+import com.sdd.taskmanager.repository.StorageEngine;
+import com.sdd.taskmanager.repository.TaskChangeListener;
+import com.sdd.taskmanager.repository.TaskRepository;
+import com.sdd.taskmanager.repository.TaskRepositoryDecorator;
+import com.sdd.taskmanager.repository.TaskVersionTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class TaskRepositoryConfiguration {
+
+    /**
+     * Exposes the repository used by the rest of the application: the storage engine wrapped by every
+     * enabled {@link TaskRepositoryDecorator}.
+     * @param engine The storage engine selected by {@value StorageEngine#PROPERTY}.
+     * @param decorators The enabled decorators.
+     * @return The decorated repository.
+     */
+    @Bean
+    @Primary
+    public TaskRepository taskRepository(@StorageEngine TaskRepository engine, ObjectProvider<TaskRepositoryDecorator> decorators) {
+        TaskRepository repository = engine;
+        for (TaskRepositoryDecorator decorator : decorators.orderedStream().toList()) {
+            repository = decorator.decorate(repository);
+        }
+        return repository;
+    }
+
+    /**
+     * Times the operations of the storage engine, right around it so that cache hits are not counted as
+     * storage latency. Disabled by setting {@code taskmanager.metrics.repository.enabled} to false.
+     * @param meterRegistry The registry the repository meters are registered with.
+     * @return The metering decorator.
+     */
+    @Bean
+    @Order(0)
+    @ConditionalOnProperty(prefix = "taskmanager.metrics.repository", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TaskRepositoryDecorator meteredTaskRepositoryDecorator(MeterRegistry meterRegistry) {
+        return delegate -> new MeteredTaskRepository(delegate, meterRegistry);
+    }
+
+    /**
+     * Group-commits concurrent task creations when {@code taskmanager.batching.enabled} is set: creates arriving
+     * within {@code max-delay} of each other are written as one batch, in one transaction on the JDBC engine. On
+     * the other engines, a failed batch fails all its creates.
+     * Sits above the metering decorator, so that storage timers measure whole batches.
+     * @param meterRegistry The registry the batch size distribution is registered with.
+     * @param transactionManager The transaction manager, used with the JDBC engine only.
+     * @param engine The name of the storage engine.
+     * @param maxBatchSize The maximum number of tasks written at once.
+     * @param maxDelay How long the first create of a batch waits for others, none by default: under load, batches
+     *                 form while the previous one is written.
+     * @return The batching decorator.
+     */
+    @Bean
+    @Order(50)
+    @ConditionalOnProperty(prefix = "taskmanager.batching", name = "enabled", havingValue = "true")
+    public TaskRepositoryDecorator batchingTaskRepositoryDecorator(
+            MeterRegistry meterRegistry,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            @Value("${" + StorageEngine.PROPERTY + ":jdbc}") String engine,
+            @Value("${taskmanager.batching.max-batch-size:256}") int maxBatchSize,
+            @Value("${taskmanager.batching.max-delay:0}") Duration maxDelay) {
+        // Only a batch written in one transaction is known to be all or nothing, and may be retried task by task:
+        // the other engines do not use the data source, and the sharded engine commits each shard on its own
+        TransactionTemplate transactionTemplate = "jdbc".equals(engine)
+                ? new TransactionTemplate(transactionManager.getObject())
+                : null;
+        return delegate -> new BatchingTaskRepository(delegate, transactionTemplate, maxBatchSize, maxDelay, meterRegistry);
+    }
+
+    /**
+     * Shares the result of a read with identical reads arriving while it is in flight, unless a write completed
+     * in between. Sits under the cache, so that only cache misses are coalesced, and above the batching decorator,
+     * so that creates count as written once their batch is. Disabled by setting
+     * {@code taskmanager.coalescing.enabled} to false.
+     * @param meterRegistry The registry the coalesced read counters are registered with.
+     * @return The coalescing decorator.
+     */
+    @Bean
+    @Order(75)
+    @ConditionalOnProperty(prefix = "taskmanager.coalescing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TaskRepositoryDecorator coalescingTaskRepositoryDecorator(MeterRegistry meterRegistry) {
+        return delegate -> new CoalescingTaskRepository(delegate, meterRegistry);
+    }
+
+    /**
+     * Tells the {@link TaskChangeListener} beans, such as the search index, about every committed write.
+     * @param listeners The listeners, in {@link Order} order.
+     * @return The notifying decorator, which leaves the repository as is when there are no listeners.
+     */
+    @Bean
+    @Order(200)
+    public TaskRepositoryDecorator changeNotifyingTaskRepositoryDecorator(ObjectProvider<TaskChangeListener> listeners) {
+        return delegate -> {
+            List<TaskChangeListener> ordered = listeners.orderedStream().toList();
+            return ordered.isEmpty() ? delegate : new ChangeNotifyingTaskRepository(delegate, ordered);
+        };
+    }
+
+    /**
+     * Versions the tasks for conditional requests, as a {@link TaskChangeListener} of every committed write.
+     * @param maximumTrackedTasks The maximum number of recently written tasks whose own version is kept.
+     * @return The version tracker.
+     */
+    @Bean
+    public TaskVersionTracker taskVersionTracker(@Value("${taskmanager.etag.max-tracked-tasks:100000}") int maximumTrackedTasks) {
+        return new TaskVersionTracker(maximumTrackedTasks);
+    }
+
+    /**
+     * Caches {@code findById} lookups in front of the storage engine when {@code taskmanager.cache.enabled} is set.
+     * @param meterRegistry The registry the cache hit, miss and eviction metrics are bound to.
+     * @param maximumSize The maximum number of cached lookups.
+     * @param ttl How long a found task stays cached.
+     * @param negativeTtl How long a lookup that found nothing stays cached.
+     * @return The caching decorator.
+     */
+    @Bean
+    @Order(100)
+    @ConditionalOnProperty(prefix = "taskmanager.cache", name = "enabled", havingValue = "true")
+    public TaskRepositoryDecorator cachingTaskRepositoryDecorator(
+            MeterRegistry meterRegistry,
+            @Value("${taskmanager.cache.maximum-size:10000}") long maximumSize,
+            @Value("${taskmanager.cache.ttl:5m}") Duration ttl,
+            @Value("${taskmanager.cache.negative-ttl:5s}") Duration negativeTtl) {
+        return delegate -> new CachingTaskRepository(delegate, maximumSize, ttl, negativeTtl, meterRegistry);
+    }
+}
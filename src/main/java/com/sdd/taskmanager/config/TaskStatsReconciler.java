@@ -0,0 +1,68 @@
+package com.sdd.taskmanager.config;
+
+import com.sdd.taskmanager.service.TaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconciles the task counts with storage on startup, before the application reports itself ready, then
+ * periodically in the background.
+ */
+public class TaskStatsReconciler implements ApplicationRunner, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatsReconciler.class);
+
+    private final TaskService taskService;
+    private final Duration interval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-stats-reconciler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a new TaskStatsReconciler.
+     * @param taskService The service reconciling the counts.
+     * @param interval The time between two reconciliations after startup, or zero to only reconcile on startup.
+     */
+    public TaskStatsReconciler(TaskService taskService, Duration interval) {
+        this.taskService = taskService;
+        this.interval = interval;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        taskService.reconcileTaskStats();
+        long intervalMillis = interval.toMillis();
+        if (intervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::reconcile, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops reconciling.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void reconcile() {
+        try {
+            taskService.reconcileTaskStats();
+        } catch (RuntimeException e) {
+            // Keep the schedule: the counts stay up to date with the writes meanwhile
+            logger.warn("Task statistics reconciliation failed", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.sdd.taskmanager.config;
+
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import com.sdd.taskmanager.tracing.LoggingSpanHandler;
+import com.sdd.taskmanager.tracing.TailSamplingSpanHandler;
+import com.sdd.taskmanager.tracing.TraceSamplingEndpoint;
+import com.sdd.taskmanager.tracing.TraceSamplingPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import zipkin2.reporter.brave.AsyncZipkinSpanHandler;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class TracingConfiguration {
+
+    /**
+     * Samples traces when they start within a budget of traces per second, replacing the probability sampler
+     * of Spring Boot.
+     * @param tracesPerSecond The maximum number of traces sampled per second when they start.
+     * @param slowThreshold The duration beyond which a trace is always reported.
+     * @param endpointRates Comma-separated {@code METHOD /uri=rate} probabilities of reporting other traces.
+     * @param meterRegistry The registry the sampling decisions are counted in.
+     * @return The sampling policy, which is also the head sampler.
+     */
+    @Bean
+    public TraceSamplingPolicy traceSamplingPolicy(
+            @Value("${taskmanager.tracing.sampling.traces-per-second:10}") int tracesPerSecond,
+            @Value("${taskmanager.tracing.sampling.slow-threshold:500ms}") Duration slowThreshold,
+            @Value("${taskmanager.tracing.sampling.endpoint-rates:}") String endpointRates,
+            MeterRegistry meterRegistry) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(endpointRates)) {
+            int separator = entry.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected METHOD /uri=rate but got " + entry);
+            }
+            rates.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+        }
+        return new TraceSamplingPolicy(tracesPerSecond, slowThreshold, rates, meterRegistry);
+    }
+
+    /**
+     * Records spans that were not sampled when they started, so that tail sampling can still keep them.
+     * Unsampled spans are never encoded nor sent unless kept.
+     * @return The customizer of the Brave tracing.
+     */
+    @Bean
+    public TracingCustomizer alwaysSampleLocalTracingCustomizer() {
+        return builder -> builder.alwaysSampleLocal();
+    }
+
+    /**
+     * Reports the unsampled traces kept by the sampling policy once they end, to Zipkin when span export is
+     * enabled and to the log otherwise.
+     * @param policy The sampling policy.
+     * @param zipkinSpanHandler The reporter of sampled spans to Zipkin, if span export is enabled.
+     * @param maxPendingTraces The maximum number of traces whose child spans are buffered at a time.
+     * @return The tail sampling span handler.
+     */
+    @Bean
+    public TailSamplingSpanHandler tailSamplingSpanHandler(TraceSamplingPolicy policy,
+            ObjectProvider<AsyncZipkinSpanHandler> zipkinSpanHandler,
+            @Value("${taskmanager.tracing.sampling.max-pending-traces:10000}") int maxPendingTraces) {
+        AsyncZipkinSpanHandler zipkin = zipkinSpanHandler.getIfAvailable();
+        SpanHandler reporter = zipkin != null
+                ? zipkin.toBuilder().alwaysReportSpans(true).build()
+                : new LoggingSpanHandler();
+        return new TailSamplingSpanHandler(policy, reporter, maxPendingTraces);
+    }
+
+    /**
+     * Exposes the sampling settings at {@code /actuator/tracesampling}.
+     * @param policy The sampling policy.
+     * @return The actuator endpoint.
+     */
+    @Bean
+    public TraceSamplingEndpoint traceSamplingEndpoint(TraceSamplingPolicy policy) {
+        return new TraceSamplingEndpoint(policy);
+    }
+}
@@ -0,0 +1,72 @@
+package com.sdd.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Active when requests run on virtual threads ({@code spring.threads.virtual.enabled=true}, see the
+ * {@code virtual} profile): bounds access to the connection pool, which is now the only limit on concurrency.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    // HikariCP leaves the pool size unset until the pool starts, then defaults it to 10
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Wraps the data source in a {@link ConnectionLimitingDataSource}.
+     * @param maxConnections The number of connections that can be held at once, or 0 to use the pool size.
+     * @param acquireTimeout How long a request waits for a connection before it is rejected.
+     * @return The post-processor wrapping the data source.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${taskmanager.datasource.max-connections:0}") int maxConnections,
+            @Value("${taskmanager.datasource.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                int limit = maxConnections;
+                if (limit <= 0) {
+                    limit = bean instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0
+                            ? hikari.getMaximumPoolSize()
+                            : DEFAULT_POOL_SIZE;
+                }
+                return new ConnectionLimitingDataSource(dataSource, limit, acquireTimeout);
+            }
+        };
+    }
+
+    /**
+     * Publishes the available permits and the waiting threads of the {@link ConnectionLimitingDataSource}.
+     * @param dataSource The data source.
+     * @return The binder of the connection limit gauges.
+     */
+    @Bean
+    public MeterBinder connectionLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                Gauge.builder("taskmanager.datasource.permits.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Connections that can be obtained without waiting")
+                        .register(registry);
+                Gauge.builder("taskmanager.datasource.permits.waiting", limiter, ConnectionLimitingDataSource::getWaitingThreads)
+                        .description("Threads waiting for a connection")
+                        .register(registry);
+            }
+        };
+    }
+}
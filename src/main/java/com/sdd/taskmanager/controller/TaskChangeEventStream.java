@@ -0,0 +1,108 @@
+package com.sdd.taskmanager.controller;
+
+import com.sdd.taskmanager.feed.TaskChangeFeed;
+import com.sdd.taskmanager.model.TaskChange;
+import com.sdd.taskmanager.model.TaskChangeBatch;
+import com.sdd.taskmanager.model.TaskChangeCursor;
+import com.sdd.taskmanager.service.TaskChangeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sends the change feed to one Server-Sent Events client. Between changes the stream only holds a callback
+ * registered with the feed, not a thread. Each change is an event named after its type with the task as data;
+ * the last event of every batch carries the cursor as its ID, which browsers send back in {@code Last-Event-ID}
+ * when they reconnect, so a reconnecting client may receive the end of a batch again.
+ */
+final class TaskChangeEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskChangeEventStream.class);
+
+    private final TaskChangeService taskChangeService;
+    private final SseEmitter emitter;
+    private final int batchSize;
+    private TaskChangeCursor cursor;
+    private volatile TaskChangeFeed.Waiter waiter;
+    private volatile boolean closed;
+
+    TaskChangeEventStream(TaskChangeService taskChangeService, SseEmitter emitter, int batchSize) {
+        this.taskChangeService = taskChangeService;
+        this.emitter = emitter;
+        this.batchSize = batchSize;
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(() -> {
+            close();
+            emitter.complete();
+        });
+        emitter.onError(error -> close());
+    }
+
+    /**
+     * Starts sending changes from a cursor.
+     * @param since The cursor to start from, or null to start from the next change.
+     */
+    void start(TaskChangeCursor since) {
+        cursor = since != null ? since : taskChangeService.readChanges(null, batchSize).getNextCursor();
+        await();
+    }
+
+    /**
+     * Sends every change available, then waits for the next one. Only one call runs at a time, since the next
+     * callback is only registered once this one is done.
+     */
+    private void send() {
+        try {
+            List<TaskChange> changes;
+            do {
+                TaskChangeBatch batch = taskChangeService.readChanges(cursor, batchSize);
+                changes = batch.getChanges();
+                for (int i = 0; i < changes.size(); i++) {
+                    TaskChange change = changes.get(i);
+                    SseEmitter.SseEventBuilder event = SseEmitter.event()
+                            .name(change.getType().name().toLowerCase(Locale.ROOT))
+                            .data(change.getTask(), MediaType.APPLICATION_JSON);
+                    if (i == changes.size() - 1) {
+                        event.id(batch.getNextCursor().encode());
+                    }
+                    emitter.send(event);
+                }
+                cursor = batch.getNextCursor();
+            } while (!changes.isEmpty() && !closed);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter timed out; the container completes the request
+            logger.debug("Stopped streaming task changes", e);
+            close();
+            return;
+        } catch (RuntimeException e) {
+            close();
+            emitter.completeWithError(e);
+            return;
+        }
+        await();
+    }
+
+    private void await() {
+        if (closed) {
+            return;
+        }
+        waiter = taskChangeService.awaitChanges(cursor, this::send);
+        // The client may have gone away while registering, after close() looked for a waiter to cancel
+        if (closed) {
+            waiter.cancel();
+        }
+    }
+
+    private void close() {
+        closed = true;
+        TaskChangeFeed.Waiter current = waiter;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+}
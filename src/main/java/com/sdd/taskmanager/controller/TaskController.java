@@ -1,14 +1,62 @@
 package com.sdd.taskmanager.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sdd.taskmanager.config.AsyncTimeoutConfiguration;
+import com.sdd.taskmanager.dto.CompleteTasksRequest;
+import com.sdd.taskmanager.dto.CompleteTasksResponse;
 import com.sdd.taskmanager.dto.CreateTaskRequest;
+import com.sdd.taskmanager.dto.ImportFormat;
+import com.sdd.taskmanager.dto.ImportSummary;
+import com.sdd.taskmanager.exception.InvalidCursorException;
 import com.sdd.taskmanager.exception.TaskNotFoundException;
+import com.sdd.taskmanager.feed.TaskChangeFeed;
+import com.sdd.taskmanager.model.CompletionResult;
 import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskChange;
+import com.sdd.taskmanager.model.TaskChangeBatch;
+import com.sdd.taskmanager.model.TaskChangeCursor;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import com.sdd.taskmanager.model.TaskPage;
+import com.sdd.taskmanager.model.TaskStats;
+import com.sdd.taskmanager.service.TaskChangeService;
+import com.sdd.taskmanager.service.TaskImportService;
+import com.sdd.taskmanager.service.TaskSearchService;
 import com.sdd.taskmanager.service.TaskService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,14 +64,52 @@ import java.util.UUID;
 @RequestMapping("/api/v1/tasks")
 public class TaskController {
 
+    /**
+     * Response header carrying the opaque cursor of the next page, absent on the last page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+    static final int DEFAULT_CHANGES_LIMIT = 100;
+    static final int DEFAULT_STATS_DAYS = 30;
+    static final int MAX_STATS_DAYS = 3660;
+
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
+    private final TaskSearchService taskSearchService;
+    private final TaskChangeService taskChangeService;
+    private final Duration changesPollTimeout;
+    private final Duration exportTimeout;
+    private final ObjectWriter exportWriter;
 
     /**
      * Constructs a new TaskController with the given TaskService.
      * @param taskService The service responsible for task operations.
+     * @param taskImportService The service responsible for bulk imports.
+     * @param taskSearchService The service responsible for full-text search.
+     * @param taskChangeService The service responsible for the change feed.
+     * @param changesPollTimeout How long a long-poll of the change feed waits for a change.
+     * @param exportTimeout How long an export may stream before it times out.
+     * @param objectMapper The application ObjectMapper, used to write streamed exports.
      */
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskImportService taskImportService,
+                          TaskSearchService taskSearchService, TaskChangeService taskChangeService,
+                          @Value("${taskmanager.changes.poll-timeout:30s}") Duration changesPollTimeout,
+                          @Value("${taskmanager.export.timeout:30m}") Duration exportTimeout,
+                          ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.taskImportService = taskImportService;
+        this.taskSearchService = taskSearchService;
+        this.taskChangeService = taskChangeService;
+        this.changesPollTimeout = changesPollTimeout;
+        this.exportTimeout = exportTimeout;
+        // Let the generator buffer rows instead of flushing the response after every task, and terminate
+        // each row with a newline ourselves rather than letting Jackson insert a space between root values
+        this.exportWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator((String) null);
     }
 
     /**
@@ -39,13 +125,181 @@ public class TaskController {
     }
 
     /**
-     * Retrieves a list of all tasks.
-     * @return A ResponseEntity containing a list of Tasks and HTTP status 200 (OK).
+     * Imports tasks in bulk from an NDJSON or CSV body. The body is read as a stream and tasks are inserted
+     * in batches, so uploads of any size are processed with bounded memory.
+     * @param contentType The content type of the body, {@code application/x-ndjson} or {@code text/csv}.
+     * @param body The raw request body.
+     * @return A ResponseEntity containing the ImportSummary and HTTP status 200 (OK).
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ImportFormat.TEXT_CSV_VALUE})
+    public ResponseEntity<ImportSummary> importTasks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                     InputStream body) throws IOException {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+        ImportSummary summary = taskImportService.importTasks(reader, ImportFormat.fromMediaType(contentType));
+        return ResponseEntity.ok(summary);
+    }
+
+    /**
+     * Retrieves tasks. Without paging or filter parameters every task is returned; otherwise a single page of
+     * the matching tasks is returned in creation order, and the cursor of the following page is sent in the
+     * {@value #NEXT_CURSOR_HEADER} header. Filtered requests pass the same filters with each cursor.
+     * @param limit The maximum number of tasks in the page (1 to 1000).
+     * @param after The opaque cursor returned with the previous page.
+     * @param completed Only return completed tasks if true, open tasks if false.
+     * @param createdFrom Only return tasks created at or after this ISO-8601 date-time.
+     * @param createdTo Only return tasks created before this ISO-8601 date-time.
+     * @param titlePrefix Only return tasks whose title starts with this text (case-sensitive).
+     * @param request The request, checked for an {@code If-None-Match} header.
+     * @return A ResponseEntity containing a list of Tasks, the ETag of the task collection and HTTP status 200
+     *         (OK), or null once HTTP status 304 (Not Modified) is set if no task changed since the client's ETag.
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        List<Task> tasks = taskService.findAllTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<Task>> getAllTasks(
+            @RequestParam(required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime createdTo,
+            @RequestParam(required = false) @Size(max = 255) String titlePrefix,
+            WebRequest request) {
+        // Read the version before the tasks: a write committed in between then only costs the client a refetch
+        String etag = etag(taskService.getTasksVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        TaskFilter filter = new TaskFilter(completed, createdFrom, createdTo, titlePrefix);
+        if (limit == null && after == null && filter.isEmpty()) {
+            List<Task> tasks = taskService.findAllTasks();
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(tasks);
+        }
+        TaskCursor cursor = after != null ? TaskCursor.decode(after) : null;
+        TaskPage page = taskService.findTaskPage(filter, cursor, limit != null ? limit : DEFAULT_PAGE_SIZE);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        page.getNextCursor().ifPresent(next -> response.header(NEXT_CURSOR_HEADER, next.encode()));
+        return response.body(page.getTasks());
+    }
+
+    /**
+     * Retrieves a task by its ID.
+     * @param id The UUID of the task.
+     * @param request The request, checked for an {@code If-None-Match} header.
+     * @return A ResponseEntity containing the Task, its ETag and HTTP status 200 (OK), or null once HTTP status
+     *         304 (Not Modified) is set if the task did not change since the client's ETag.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Task> getTask(@PathVariable UUID id, WebRequest request) {
+        String etag = etag(taskService.getTaskVersion(id));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Task task = taskService.findTaskById(id)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " not found"));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(task);
+    }
+
+    /**
+     * Searches task titles and descriptions. Tasks containing any word of the query are returned, most
+     * relevant first; words found in the title weigh more than words found in the description.
+     * @param q The words to look for, matched case-insensitively.
+     * @param limit The maximum number of tasks returned (1 to 100).
+     * @return A ResponseEntity containing the matching Tasks and HTTP status 200 (OK).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(
+            @RequestParam @NotBlank @Size(max = 1000) String q,
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) @Min(1) @Max(MAX_SEARCH_LIMIT) int limit) {
+        return ResponseEntity.ok(taskSearchService.search(q, limit));
+    }
+
+    /**
+     * Counts the tasks, completed and pending, overall and by creation day, without querying storage. The counts
+     * follow the writes made through the application and are reconciled with storage periodically.
+     * @param days The maximum number of days in the histogram, the most recent ones with tasks (0 to 3660).
+     * @return A ResponseEntity containing the TaskStats and HTTP status 200 (OK).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getTaskStats(
+            @RequestParam(defaultValue = "" + DEFAULT_STATS_DAYS) @Min(0) @Max(MAX_STATS_DAYS) int days) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(taskService.getTaskStats(days));
+    }
+
+    /**
+     * Long-polls the change feed: returns the tasks created, updated or completed after the cursor, waiting up
+     * to {@code taskmanager.changes.poll-timeout} for one if there is none yet. The cursor of the following
+     * changes is always sent in the {@value #NEXT_CURSOR_HEADER} header. If the cursor is too old for its
+     * changes to be replayed, the current state of every task is sent first, as {@code SNAPSHOT} changes.
+     * No thread is held while waiting.
+     * @param since The cursor returned by the previous call; without it, changes are followed from now on.
+     * @param limit The maximum number of changes returned (1 to 1000).
+     * @return A DeferredResult completed with a list of TaskChanges, possibly empty, and HTTP status 200 (OK).
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ResponseEntity<List<TaskChange>>> pollChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + DEFAULT_CHANGES_LIMIT) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        TaskChangeCursor cursor = since != null ? TaskChangeCursor.decode(since) : null;
+        TaskChangeBatch batch = taskChangeService.readChanges(cursor, limit);
+        DeferredResult<ResponseEntity<List<TaskChange>>> result =
+                new DeferredResult<>(changesPollTimeout.toMillis(), changesResponse(batch));
+        if (!batch.getChanges().isEmpty()) {
+            result.setResult(changesResponse(batch));
+            return result;
+        }
+        TaskChangeFeed.Waiter waiter = taskChangeService.awaitChanges(batch.getNextCursor(), () -> {
+            try {
+                result.setResult(changesResponse(taskChangeService.readChanges(batch.getNextCursor(), limit)));
+            } catch (RuntimeException e) {
+                result.setErrorResult(e);
+            }
+        });
+        result.onCompletion(waiter::cancel);
+        return result;
+    }
+
+    /**
+     * Streams the change feed as Server-Sent Events: one event per created, updated or completed task, named
+     * {@code created}, {@code updated} or {@code snapshot}, with the task as data. The last event of each batch
+     * has the cursor as its ID. No thread is held between changes.
+     * @param since The cursor to start after; without it, changes are streamed from now on.
+     * @param lastEventId The ID of the last event received, sent by clients reconnecting; overrides {@code since}.
+     * @return The SseEmitter the events are sent through.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) String since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        String token = lastEventId != null ? lastEventId : since;
+        TaskChangeCursor cursor = token != null ? TaskChangeCursor.decode(token) : null;
+        SseEmitter emitter = new SseEmitter();
+        new TaskChangeEventStream(taskChangeService, emitter, DEFAULT_CHANGES_LIMIT).start(cursor);
+        return emitter;
+    }
+
+    /**
+     * Exports every task as newline-delimited JSON. Rows are written to the response as they are read
+     * from the database, so memory use does not grow with the number of tasks. Exports of large tables outlive
+     * the default async request timeout, and get their own.
+     * @param request The current request, given the export timeout.
+     * @return A ResponseEntity streaming one JSON task per line and HTTP status 200 (OK).
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(WebRequest request) {
+        request.setAttribute(AsyncTimeoutConfiguration.TIMEOUT_ATTRIBUTE, exportTimeout,
+                RequestAttributes.SCOPE_REQUEST);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = exportWriter.createGenerator(outputStream)) {
+                taskService.exportTasks(task -> {
+                    try {
+                        exportWriter.writeValue(generator, task);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
@@ -59,6 +313,31 @@ public class TaskController {
         return ResponseEntity.ok(completedTask);
     }
 
+    /**
+     * Marks several tasks as completed. Tasks that are already completed are left untouched.
+     * @param request The request body containing the IDs of the tasks to complete.
+     * @return A ResponseEntity containing the number of tasks completed and the IDs that matched no task,
+     *         and HTTP status 200 (OK).
+     */
+    @PatchMapping("/complete")
+    public ResponseEntity<CompleteTasksResponse> completeTasks(@Valid @RequestBody CompleteTasksRequest request) {
+        CompletionResult result = taskService.completeTasks(request.getIds());
+        return ResponseEntity.ok(new CompleteTasksResponse(result.getCompleted().size(), result.getNotFound()));
+    }
+
+    private static ResponseEntity<List<TaskChange>> changesResponse(TaskChangeBatch batch) {
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, batch.getNextCursor().encode())
+                .body(batch.getChanges());
+    }
+
+    /**
+     * Formats a change version as a weak ETag, since the same tasks may be served in different encodings.
+     */
+    private static String etag(long version) {
+        return "W/\"" + Long.toHexString(version) + "\"";
+    }
+
     /**
      * Handles TaskNotFoundException and returns a 404 Not Found response.
      * @param ex The TaskNotFoundException that was thrown.
@@ -69,4 +348,30 @@ public class TaskController {
     public ResponseEntity<String> handleTaskNotFoundException(TaskNotFoundException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
-}
\ No newline at end of file
+
+    /**
+     * Handles InvalidCursorException and returns a 400 Bad Request response.
+     * @param ex The InvalidCursorException that was thrown.
+     * @return A ResponseEntity containing the exception message and HTTP status 400 (Bad Request).
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles failures to obtain a database connection in time and returns a 503 Service Unavailable response,
+     * asking the client to retry shortly.
+     * @param ex The exception that was thrown.
+     * @return A ResponseEntity containing the exception message, a Retry-After header and HTTP status 503.
+     */
+    @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class,
+            TransientDataAccessResourceException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<String> handleConnectionUnavailable(Exception ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+}
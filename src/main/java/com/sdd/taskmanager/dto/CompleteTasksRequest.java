@@ -0,0 +1,31 @@
+package com.sdd.taskmanager.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class CompleteTasksRequest {
+
+    @NotEmpty(message = "At least one task id is required")
+    @Size(max = 1000, message = "Cannot complete more than 1000 tasks at once")
+    private List<@NotNull(message = "Task ids cannot be null") UUID> ids;
+
+    // Constructors, getters, and setters
+    public CompleteTasksRequest(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    public CompleteTasksRequest() {
+    }
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+}
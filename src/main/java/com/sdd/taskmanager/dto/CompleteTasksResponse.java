@@ -0,0 +1,28 @@
+package com.sdd.taskmanager.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class CompleteTasksResponse {
+
+    private final int completed;
+    private final List<UUID> notFound;
+
+    /**
+     * Constructs a new CompleteTasksResponse.
+     * @param completed The number of tasks completed by the request, excluding those already completed.
+     * @param notFound The requested IDs that matched no task.
+     */
+    public CompleteTasksResponse(int completed, List<UUID> notFound) {
+        this.completed = completed;
+        this.notFound = List.copyOf(notFound);
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public List<UUID> getNotFound() {
+        return notFound;
+    }
+}
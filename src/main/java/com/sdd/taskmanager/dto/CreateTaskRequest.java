@@ -5,11 +5,21 @@ import jakarta.validation.constraints.Size;
 
 public class CreateTaskRequest {
 
+    /**
+     * The maximum number of characters of a title.
+     */
+    public static final int MAX_TITLE_LENGTH = 255;
+
+    /**
+     * The maximum number of characters of a description.
+     */
+    public static final int MAX_DESCRIPTION_LENGTH = 1000;
+
     @NotBlank(message = "Title cannot be empty")
-    @Size(max = 255, message = "Title cannot exceed 255 characters")
+    @Size(max = MAX_TITLE_LENGTH, message = "Title cannot exceed 255 characters")
     private String title;
 
-    @Size(max = 1000, message = "Description cannot exceed 1000 characters")
+    @Size(max = MAX_DESCRIPTION_LENGTH, message = "Description cannot exceed 1000 characters")
     private String description;
 
     // Constructors, getters, and setters
@@ -0,0 +1,28 @@
+package com.sdd.taskmanager.dto;
+
+/**
+ * A rejected line of a bulk import.
+ */
+public class ImportError {
+
+    private final long line;
+    private final String message;
+
+    /**
+     * Constructs a new ImportError.
+     * @param line The 1-based line number in the uploaded body.
+     * @param message Why the line was rejected.
+     */
+    public ImportError(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,39 @@
+package com.sdd.taskmanager.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Line-oriented formats accepted by the bulk import endpoint.
+ */
+public enum ImportFormat {
+    /**
+     * One JSON {@link CreateTaskRequest} object per line.
+     */
+    NDJSON,
+    /**
+     * One {@code title,description} record per line, RFC 4180 quoting, optional header row.
+     * Quoted fields may not span several lines.
+     */
+    CSV;
+
+    /**
+     * Media type of CSV uploads.
+     */
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    /**
+     * Resolves the import format matching a request content type.
+     * @param mediaType The content type of the upload.
+     * @return The matching import format.
+     * @throws IllegalArgumentException if the media type is not supported.
+     */
+    public static ImportFormat fromMediaType(MediaType mediaType) {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)) {
+            return NDJSON;
+        }
+        if (MediaType.valueOf(TEXT_CSV_VALUE).isCompatibleWith(mediaType)) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Unsupported import media type: " + mediaType);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sdd.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first rejected lines are detailed in {@code errors};
+ * {@code errorsTruncated} tells whether more were rejected than listed.
+ */
+public class ImportSummary {
+
+    private final long accepted;
+    private final long rejected;
+    private final List<ImportError> errors;
+    private final boolean errorsTruncated;
+
+    /**
+     * Constructs a new ImportSummary.
+     * @param accepted The number of tasks created.
+     * @param rejected The number of lines rejected.
+     * @param errors The details of the first rejected lines.
+     * @param errorsTruncated Whether some rejected lines are not detailed in {@code errors}.
+     */
+    public ImportSummary(long accepted, long rejected, List<ImportError> errors, boolean errorsTruncated) {
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.errors = List.copyOf(errors);
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+}
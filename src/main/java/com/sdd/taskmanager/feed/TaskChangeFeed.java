@@ -0,0 +1,174 @@
+package com.sdd.taskmanager.feed;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskChange;
+import com.sdd.taskmanager.repository.TaskChangeListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The most recent committed task changes, numbered in commit order and kept in a ring buffer of fixed capacity.
+ * <p>
+ * Consumers read from a sequence number and, once they have caught up, register a callback to be run when the
+ * next change arrives. Callbacks run on the given executor rather than on the writing thread, and a waiting
+ * consumer holds no thread, so any number of idle consumers can wait at once.
+ * <p>
+ * Sequence numbers restart from 0 on every run; the generation, taken from the startup time, tells runs apart.
+ */
+public class TaskChangeFeed implements TaskChangeListener, MeterBinder, AutoCloseable {
+
+    private final long generation;
+    private final TaskChange[] ring;
+    private final ExecutorService notifier;
+    private final Set<Waiter> waiters = new LinkedHashSet<>();
+    private long head;
+
+    /**
+     * Constructs a new, empty TaskChangeFeed.
+     * @param capacity The number of changes kept.
+     * @param notifier The executor running the callbacks of waiting consumers, shut down with the feed.
+     */
+    public TaskChangeFeed(int capacity, ExecutorService notifier) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The change feed capacity must be positive");
+        }
+        this.generation = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.ring = new TaskChange[capacity];
+        this.notifier = notifier;
+    }
+
+    /**
+     * A callback registered by {@link #awaitChanges(long, Runnable)}.
+     */
+    public final class Waiter {
+        private final Runnable callback;
+
+        private Waiter(Runnable callback) {
+            this.callback = callback;
+        }
+
+        /**
+         * Unregisters the callback, e.g. when the consumer disconnects. Does nothing if it already ran.
+         */
+        public void cancel() {
+            synchronized (TaskChangeFeed.this) {
+                waiters.remove(this);
+            }
+        }
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the sequence number the next change will get.
+     * @return The number of changes since startup.
+     */
+    public synchronized long head() {
+        return head;
+    }
+
+    /**
+     * Reads the changes from a sequence number.
+     * @param from The sequence number of the first change to read.
+     * @param limit The maximum number of changes to read.
+     * @return The changes, possibly none if the feed has no change past {@code from} yet, or empty if the
+     *         changes from {@code from} are no longer kept or {@code from} is past the head.
+     */
+    public synchronized Optional<List<TaskChange>> read(long from, int limit) {
+        if (from < head - ring.length || from > head) {
+            return Optional.empty();
+        }
+        int count = (int) Math.min(limit, head - from);
+        List<TaskChange> changes = new ArrayList<>(count);
+        for (long sequence = from; sequence < from + count; sequence++) {
+            changes.add(ring[(int) (sequence % ring.length)]);
+        }
+        return Optional.of(changes);
+    }
+
+    /**
+     * Runs a callback once the feed has a change numbered {@code sequence} or more, right away if it already
+     * has or if {@code sequence} is not the head, which includes sequence numbers no longer kept. The callback
+     * runs at most once; to keep following the feed, register again.
+     * @param sequence The sequence number of the next change the consumer expects.
+     * @param callback The callback, run on the notifier executor.
+     * @return The registration, to cancel it.
+     */
+    public synchronized Waiter awaitChanges(long sequence, Runnable callback) {
+        Waiter waiter = new Waiter(callback);
+        if (sequence != head) {
+            notifier.execute(callback);
+        } else {
+            waiters.add(waiter);
+        }
+        return waiter;
+    }
+
+    /**
+     * Returns the number of consumers waiting for the next change.
+     * @return The number of registered callbacks.
+     */
+    public synchronized int waiting() {
+        return waiters.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tasksCreated(List<Task> tasks) {
+        append(TaskChange.Type.CREATED, tasks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tasksUpdated(List<Task> tasks) {
+        append(TaskChange.Type.UPDATED, tasks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("taskmanager.changes.waiting", this, TaskChangeFeed::waiting)
+                .description("Change feed consumers waiting for the next change")
+                .register(registry);
+    }
+
+    /**
+     * Stops running callbacks; consumers still waiting are left to time out.
+     */
+    @Override
+    public void close() {
+        notifier.shutdownNow();
+    }
+
+    private void append(TaskChange.Type type, List<Task> tasks) {
+        List<Waiter> woken;
+        synchronized (this) {
+            for (Task task : tasks) {
+                ring[(int) (head % ring.length)] = new TaskChange(type, task);
+                head++;
+            }
+            woken = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        for (Waiter waiter : woken) {
+            notifier.execute(waiter.callback);
+        }
+    }
+}
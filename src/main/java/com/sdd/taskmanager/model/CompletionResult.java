@@ -0,0 +1,30 @@
+package com.sdd.taskmanager.model;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of completing several tasks at once. Tasks that were already completed appear in neither list.
+ */
+public class CompletionResult {
+    private final List<Task> completed;
+    private final List<UUID> notFound;
+
+    /**
+     * Constructs a new CompletionResult.
+     * @param completed The tasks completed by this operation, in their new state.
+     * @param notFound The requested IDs that matched no task.
+     */
+    public CompletionResult(List<Task> completed, List<UUID> notFound) {
+        this.completed = List.copyOf(completed);
+        this.notFound = List.copyOf(notFound);
+    }
+
+    public List<Task> getCompleted() {
+        return completed;
+    }
+
+    public List<UUID> getNotFound() {
+        return notFound;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sdd.taskmanager.model;
+
+import java.time.LocalDate;
+
+/**
+ * The number of tasks created on a day, in UTC, and how many of them are completed.
+ */
+public class DailyTaskCounts {
+    private final LocalDate date;
+    private final long created;
+    private final long completed;
+
+    /**
+     * Constructs a new DailyTaskCounts.
+     * @param date The day, in UTC.
+     * @param created The number of tasks created that day.
+     * @param completed The number of those tasks that are completed.
+     */
+    public DailyTaskCounts(LocalDate date, long created, long completed) {
+        this.date = date;
+        this.created = created;
+        this.completed = completed;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyTaskCounts{" +
+               "date=" + date +
+               ", created=" + created +
+               ", completed=" + completed +
+               "}";
+    }
+}
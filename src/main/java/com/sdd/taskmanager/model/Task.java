@@ -1,85 +1,145 @@
 package com.sdd.taskmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
-public class Task {
-    private UUID id;
-    private String title;
-    private String description;
-    private boolean completed;
-    private ZonedDateTime createdAt;
+/**
+ * A task. Instances are immutable, so they can be shared between callers, caches and storage engines without
+ * copying.
+ * <p>
+ * The ID is held as two longs and the creation time as an epoch second and a nanosecond, instead of a
+ * {@link UUID} and a {@link ZonedDateTime} with its date, time and zone objects; {@link #getId()} and
+ * {@link #getCreatedAt()} build those on each call. Creation times are returned in UTC, which is how every
+ * storage engine records them.
+ */
+public final class Task {
+    // Creation time nanosecond of a task without a creation time
+    private static final int NO_CREATED_AT = -1;
+
+    private final long idMostSigBits;
+    private final long idLeastSigBits;
+    private final boolean hasId;
+    private final String title;
+    private final String description;
+    private final boolean completed;
+    private final long createdAtEpochSecond;
+    private final int createdAtNano;
 
     // Constructor for creating a new task (ID and createdAt are auto-generated)
     public Task(String title, String description) {
-        this.title = title;
-        this.description = description;
-        this.completed = false; // Default to false
-        this.createdAt = ZonedDateTime.now(); // Set current time, will be overwritten by DB
+        this(null, title, description, false, ZonedDateTime.now(ZoneOffset.UTC)); // createdAt will be overwritten by the repository
     }
 
     // Constructor for retrieving a task from the database
+    @JsonCreator
     public Task(UUID id, String title, String description, boolean completed, ZonedDateTime createdAt) {
-        this.id = id;
+        this.hasId = id != null;
+        this.idMostSigBits = hasId ? id.getMostSignificantBits() : 0;
+        this.idLeastSigBits = hasId ? id.getLeastSignificantBits() : 0;
         this.title = title;
         this.description = description;
         this.completed = completed;
-        this.createdAt = createdAt;
+        this.createdAtEpochSecond = createdAt != null ? createdAt.toEpochSecond() : 0;
+        this.createdAtNano = createdAt != null ? createdAt.getNano() : NO_CREATED_AT;
     }
 
-    // Default constructor
-    public Task() {
+    // Constructor for reading a task from a columnar batch or a row without intermediate objects
+    public Task(long idMostSigBits, long idLeastSigBits, String title, String description, boolean completed,
+                long createdAtEpochSecond, int createdAtNano) {
+        this.hasId = true;
+        this.idMostSigBits = idMostSigBits;
+        this.idLeastSigBits = idLeastSigBits;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.createdAtEpochSecond = createdAtEpochSecond;
+        this.createdAtNano = createdAtNano;
     }
 
-    // Getters and Setters
-    public UUID getId() {
-        return id;
+    /**
+     * Returns a copy of this task with another completion status.
+     * @param completed The completion status of the copy.
+     * @return This task if its status already is {@code completed}, or the copy.
+     */
+    public Task withCompleted(boolean completed) {
+        if (completed == this.completed) {
+            return this;
+        }
+        return new Task(idMostSigBits, idLeastSigBits, hasId, title, description, completed,
+                createdAtEpochSecond, createdAtNano);
     }
 
-    public void setId(UUID id) {
-        this.id = id;
+    private Task(long idMostSigBits, long idLeastSigBits, boolean hasId, String title, String description,
+                 boolean completed, long createdAtEpochSecond, int createdAtNano) {
+        this.idMostSigBits = idMostSigBits;
+        this.idLeastSigBits = idLeastSigBits;
+        this.hasId = hasId;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.createdAtEpochSecond = createdAtEpochSecond;
+        this.createdAtNano = createdAtNano;
     }
 
-    public String getTitle() {
-        return title;
+    // Getters
+    public UUID getId() {
+        return hasId ? new UUID(idMostSigBits, idLeastSigBits) : null;
     }
 
-    public void setTitle(String title) {
-        this.title = title;
+    public String getTitle() {
+        return title;
     }
 
     public String getDescription() {
         return description;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
     public boolean isCompleted() {
         return completed;
     }
 
-    public void setCompleted(boolean completed) {
-        this.completed = completed;
+    public ZonedDateTime getCreatedAt() {
+        if (createdAtNano == NO_CREATED_AT) {
+            return null;
+        }
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(createdAtEpochSecond, createdAtNano), ZoneOffset.UTC);
     }
 
-    public ZonedDateTime getCreatedAt() {
-        return createdAt;
+    // Primitive views of the ID and creation time, to order tasks without building a UUID or date per comparison
+
+    @JsonIgnore
+    public long getIdMostSigBits() {
+        return idMostSigBits;
+    }
+
+    @JsonIgnore
+    public long getIdLeastSigBits() {
+        return idLeastSigBits;
+    }
+
+    @JsonIgnore
+    public long getCreatedAtEpochSecond() {
+        return createdAtEpochSecond;
     }
 
-    public void setCreatedAt(ZonedDateTime createdAt) {
-        this.createdAt = createdAt;
+    @JsonIgnore
+    public int getCreatedAtNano() {
+        return createdAtNano;
     }
 
     @Override
     public String toString() {
         return "Task{" +
-               "id=" + id +
+               "id=" + getId() +
                ", title='" + title + "'" +
                ", description='" + description + "'" +
                ", completed=" + completed +
-               ", createdAt=" + createdAt +
+               ", createdAt=" + getCreatedAt() +
                "}";
     }
 }
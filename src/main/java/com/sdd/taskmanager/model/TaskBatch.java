@@ -0,0 +1,159 @@
+package com.sdd.taskmanager.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of tasks stored column by column, for bulk reads such as full listings.
+ * <p>
+ * Rows are kept in chunks of {@value #CHUNK_SIZE}, each holding one primitive or string array per column, so a
+ * batch takes about 37 bytes per task besides the titles and descriptions and a few objects per chunk, instead
+ * of one {@link Task} per row. Chunks are filled in place and never copied once full, so reading a batch of
+ * unknown size allocates little more than the batch itself. {@link #get(int)} creates the {@link Task} of a row
+ * on each call; callers iterating once, such as response serialization, only create short-lived instances.
+ */
+public final class TaskBatch extends AbstractList<Task> implements RandomAccess {
+
+    static final int CHUNK_SIZE = 1024;
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(CHUNK_SIZE);
+
+    // Every chunk but the last holds CHUNK_SIZE rows
+    private final Chunk[] chunks;
+    private final int size;
+
+    private TaskBatch(Chunk[] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * The columns of up to {@value #CHUNK_SIZE} consecutive rows.
+     */
+    private static final class Chunk {
+        private final long[] idMostSigBits;
+        private final long[] idLeastSigBits;
+        private final String[] titles;
+        private final String[] descriptions;
+        private final boolean[] completed;
+        private final long[] createdAtEpochSeconds;
+        private final int[] createdAtNanos;
+
+        Chunk(int capacity) {
+            idMostSigBits = new long[capacity];
+            idLeastSigBits = new long[capacity];
+            titles = new String[capacity];
+            descriptions = new String[capacity];
+            completed = new boolean[capacity];
+            createdAtEpochSeconds = new long[capacity];
+            createdAtNanos = new int[capacity];
+        }
+
+        private Chunk(Chunk chunk, int capacity) {
+            idMostSigBits = Arrays.copyOf(chunk.idMostSigBits, capacity);
+            idLeastSigBits = Arrays.copyOf(chunk.idLeastSigBits, capacity);
+            titles = Arrays.copyOf(chunk.titles, capacity);
+            descriptions = Arrays.copyOf(chunk.descriptions, capacity);
+            completed = Arrays.copyOf(chunk.completed, capacity);
+            createdAtEpochSeconds = Arrays.copyOf(chunk.createdAtEpochSeconds, capacity);
+            createdAtNanos = Arrays.copyOf(chunk.createdAtNanos, capacity);
+        }
+
+        int capacity() {
+            return titles.length;
+        }
+
+        Chunk resized(int capacity) {
+            return new Chunk(this, capacity);
+        }
+
+        Task task(int row) {
+            return new Task(idMostSigBits[row], idLeastSigBits[row], titles[row], descriptions[row], completed[row],
+                    createdAtEpochSeconds[row], createdAtNanos[row]);
+        }
+    }
+
+    /**
+     * Collects the rows of a batch.
+     */
+    public static final class Builder {
+        private final List<Chunk> full = new ArrayList<>();
+        private Chunk current;
+        private int currentSize;
+        private int size;
+
+        /**
+         * Constructs a new Builder.
+         * @param expectedSize The number of rows expected, or 0 if unknown, used to size the first chunk.
+         */
+        public Builder(int expectedSize) {
+            current = new Chunk(Math.min(Math.max(expectedSize, 16), CHUNK_SIZE));
+        }
+
+        /**
+         * Appends a row.
+         * @param idMostSigBits The most significant bits of the task ID.
+         * @param idLeastSigBits The least significant bits of the task ID.
+         * @param title The title.
+         * @param description The description, or null.
+         * @param completed The completion status.
+         * @param createdAtEpochSecond The creation time, in seconds since the epoch.
+         * @param createdAtNano The nanosecond within that second.
+         * @return This builder.
+         */
+        public Builder add(long idMostSigBits, long idLeastSigBits, String title, String description,
+                           boolean completed, long createdAtEpochSecond, int createdAtNano) {
+            if (currentSize == current.capacity()) {
+                if (current.capacity() < CHUNK_SIZE) {
+                    current = current.resized(Math.min(current.capacity() * 2, CHUNK_SIZE));
+                } else {
+                    full.add(current);
+                    current = new Chunk(CHUNK_SIZE);
+                    currentSize = 0;
+                }
+            }
+            int row = currentSize++;
+            current.idMostSigBits[row] = idMostSigBits;
+            current.idLeastSigBits[row] = idLeastSigBits;
+            current.titles[row] = title;
+            current.descriptions[row] = description;
+            current.completed[row] = completed;
+            current.createdAtEpochSeconds[row] = createdAtEpochSecond;
+            current.createdAtNanos[row] = createdAtNano;
+            size++;
+            return this;
+        }
+
+        /**
+         * Creates the batch of the rows added so far, with its last chunk trimmed to its rows.
+         * @return The batch.
+         */
+        public TaskBatch build() {
+            Chunk[] chunks = full.toArray(new Chunk[full.size() + 1]);
+            // A full chunk is never written again, so it can be shared with the batch
+            chunks[full.size()] = currentSize == current.capacity() ? current : current.resized(currentSize);
+            return new TaskBatch(chunks, size);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return chunks[index >>> CHUNK_SHIFT].task(index & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+}
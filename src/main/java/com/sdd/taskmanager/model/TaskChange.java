@@ -0,0 +1,50 @@
+package com.sdd.taskmanager.model;
+
+import java.util.Objects;
+
+/**
+ * A task as it was right after a change, delivered by the change feed.
+ */
+public final class TaskChange {
+
+    /**
+     * What happened to the task.
+     */
+    public enum Type {
+        /** The task was created. */
+        CREATED,
+        /** The task was updated or completed. */
+        UPDATED,
+        /** The current state of the task, sent while resynchronizing a cursor too old to replay its changes. */
+        SNAPSHOT
+    }
+
+    private final Type type;
+    private final Task task;
+
+    /**
+     * Constructs a new TaskChange.
+     * @param type What happened to the task.
+     * @param task The task in its new state.
+     */
+    public TaskChange(Type type, Task task) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.task = Objects.requireNonNull(task, "task");
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChange{" +
+               "type=" + type +
+               ", task=" + task +
+               "}";
+    }
+}
@@ -0,0 +1,29 @@
+package com.sdd.taskmanager.model;
+
+import java.util.List;
+
+/**
+ * Consecutive changes read from the change feed, with the cursor to read the following ones.
+ */
+public class TaskChangeBatch {
+    private final List<TaskChange> changes;
+    private final TaskChangeCursor nextCursor;
+
+    /**
+     * Constructs a new batch.
+     * @param changes The changes, oldest first.
+     * @param nextCursor The cursor to read the changes after these.
+     */
+    public TaskChangeBatch(List<TaskChange> changes, TaskChangeCursor nextCursor) {
+        this.changes = List.copyOf(changes);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TaskChange> getChanges() {
+        return changes;
+    }
+
+    public TaskChangeCursor getNextCursor() {
+        return nextCursor;
+    }
+}
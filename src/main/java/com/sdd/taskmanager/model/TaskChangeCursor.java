@@ -0,0 +1,133 @@
+package com.sdd.taskmanager.model;
+
+import com.sdd.taskmanager.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position of a consumer in the change feed. Clients only ever see the opaque token produced by {@link #encode()}.
+ * <p>
+ * A cursor names a sequence number in the feed of one application run, its generation. While a consumer whose
+ * cursor is too old is being resynchronized from storage, the cursor also holds the position reached in the
+ * task listing, and the sequence number the feed is replayed from once the listing is done.
+ */
+public final class TaskChangeCursor {
+    private final long generation;
+    private final long sequence;
+    private final boolean resync;
+    private final TaskCursor resyncAfter;
+
+    private TaskChangeCursor(long generation, long sequence, boolean resync, TaskCursor resyncAfter) {
+        this.generation = generation;
+        this.sequence = sequence;
+        this.resync = resync;
+        this.resyncAfter = resyncAfter;
+    }
+
+    /**
+     * Builds a cursor positioned in the feed.
+     * @param generation The generation of the feed.
+     * @param sequence The sequence number of the next change to deliver.
+     * @return The cursor.
+     */
+    public static TaskChangeCursor at(long generation, long sequence) {
+        return new TaskChangeCursor(generation, sequence, false, null);
+    }
+
+    /**
+     * Builds a cursor resynchronizing from storage.
+     * @param generation The generation of the feed.
+     * @param sequence The sequence number the feed is replayed from once every task was sent.
+     * @param after The last task sent, or null if none was sent yet.
+     * @return The cursor.
+     */
+    public static TaskChangeCursor resyncing(long generation, long sequence, TaskCursor after) {
+        return new TaskChangeCursor(generation, sequence, true, after);
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     * @param token The opaque cursor token.
+     * @return The decoded cursor.
+     * @throws InvalidCursorException if the token is malformed.
+     */
+    public static TaskChangeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            boolean wellFormed = parts.length == 2
+                    || parts.length > 2 && parts[2].equals("R") && (parts.length == 3 || !parts[3].isEmpty());
+            if (!wellFormed) {
+                throw new InvalidCursorException("Malformed cursor: " + token);
+            }
+            long generation = Long.parseLong(parts[0]);
+            long sequence = Long.parseLong(parts[1]);
+            if (sequence < 0) {
+                throw new InvalidCursorException("Malformed cursor: " + token);
+            }
+            if (parts.length == 2) {
+                return at(generation, sequence);
+            }
+            return resyncing(generation, sequence, parts.length == 4 ? TaskCursor.decode(parts[3]) : null);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor: " + token);
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe token.
+     * @return The encoded token.
+     */
+    public String encode() {
+        String raw = generation + ":" + sequence;
+        if (resync) {
+            raw += ":R" + (resyncAfter != null ? ":" + resyncAfter.encode() : "");
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+
+    public TaskCursor getResyncAfter() {
+        return resyncAfter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskChangeCursor other)) {
+            return false;
+        }
+        return generation == other.generation && sequence == other.sequence && resync == other.resync
+               && Objects.equals(resyncAfter, other.resyncAfter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(generation, sequence, resync, resyncAfter);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChangeCursor{" +
+               "generation=" + generation +
+               ", sequence=" + sequence +
+               ", resync=" + resync +
+               ", resyncAfter=" + resyncAfter +
+               "}";
+    }
+}
@@ -0,0 +1,101 @@
+package com.sdd.taskmanager.model;
+
+import com.sdd.taskmanager.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Position of a task in the {@code (createdAt, id)} ordering used for keyset pagination.
+ * Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+public final class TaskCursor {
+    private final ZonedDateTime createdAt;
+    private final UUID id;
+
+    /**
+     * Constructs a cursor pointing at the given position.
+     * @param createdAt The creation timestamp of the last task returned.
+     * @param id The ID of the last task returned, used to break ties on equal timestamps.
+     */
+    public TaskCursor(ZonedDateTime createdAt, UUID id) {
+        this.createdAt = Objects.requireNonNull(createdAt, "createdAt");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Builds a cursor positioned right after the given task.
+     * @param task The last task of a page.
+     * @return A cursor pointing at that task.
+     */
+    public static TaskCursor after(Task task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     * @param token The opaque cursor token.
+     * @return The decoded cursor.
+     * @throws InvalidCursorException if the token is malformed.
+     */
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) {
+                throw new InvalidCursorException("Malformed cursor: " + token);
+            }
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new TaskCursor(instant.atZone(ZoneOffset.UTC), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new InvalidCursorException("Malformed cursor: " + token);
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe token.
+     * @return The encoded token.
+     */
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskCursor other)) {
+            return false;
+        }
+        return createdAt.toInstant().equals(other.createdAt.toInstant()) && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt.toInstant(), id);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskCursor{" +
+               "createdAt=" + createdAt +
+               ", id=" + id +
+               "}";
+    }
+}
@@ -0,0 +1,104 @@
+package com.sdd.taskmanager.model;
+
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * Conditions a listed task must meet. Every condition is optional and they are combined with AND.
+ * Each supported combination is served by an index of the {@code tasks} table (see {@code schema.sql}).
+ */
+public final class TaskFilter {
+
+    /**
+     * Filter matching every task.
+     */
+    public static final TaskFilter NONE = new TaskFilter(null, null, null, null);
+
+    private final Boolean completed;
+    private final ZonedDateTime createdFrom;
+    private final ZonedDateTime createdTo;
+    private final String titlePrefix;
+
+    /**
+     * Constructs a new TaskFilter.
+     * @param completed The completion status of matching tasks, or null for both.
+     * @param createdFrom The earliest creation time of matching tasks, inclusive, or null for no lower bound.
+     * @param createdTo The creation time matching tasks were created before, exclusive, or null for no upper bound.
+     * @param titlePrefix The case-sensitive start of the title of matching tasks, or null for any title.
+     */
+    public TaskFilter(Boolean completed, ZonedDateTime createdFrom, ZonedDateTime createdTo, String titlePrefix) {
+        this.completed = completed;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+        this.titlePrefix = titlePrefix == null || titlePrefix.isEmpty() ? null : titlePrefix;
+    }
+
+    /**
+     * Tells whether a task meets every condition of this filter.
+     * @param task The task to test.
+     * @return True if the task matches.
+     */
+    public boolean matches(Task task) {
+        return (completed == null || completed == task.isCompleted())
+                && (createdFrom == null || !task.getCreatedAt().isBefore(createdFrom))
+                && (createdTo == null || task.getCreatedAt().isBefore(createdTo))
+                && (titlePrefix == null || task.getTitle().startsWith(titlePrefix));
+    }
+
+    /**
+     * Tells whether this filter matches every task.
+     * @return True if no condition is set.
+     */
+    public boolean isEmpty() {
+        return completed == null && createdFrom == null && createdTo == null && titlePrefix == null;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public ZonedDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public ZonedDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public String getTitlePrefix() {
+        return titlePrefix;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskFilter other)) {
+            return false;
+        }
+        return Objects.equals(completed, other.completed)
+                && Objects.equals(instant(createdFrom), instant(other.createdFrom))
+                && Objects.equals(instant(createdTo), instant(other.createdTo))
+                && Objects.equals(titlePrefix, other.titlePrefix);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(completed, instant(createdFrom), instant(createdTo), titlePrefix);
+    }
+
+    private static Object instant(ZonedDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toInstant();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskFilter{" +
+               "completed=" + completed +
+               ", createdFrom=" + createdFrom +
+               ", createdTo=" + createdTo +
+               ", titlePrefix='" + titlePrefix + '\'' +
+               "}";
+    }
+}
@@ -0,0 +1,31 @@
+package com.sdd.taskmanager.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A page of tasks in {@code (createdAt, id)} order, with the cursor of the next page if there is one.
+ */
+public class TaskPage {
+    private final List<Task> tasks;
+    private final TaskCursor nextCursor;
+
+    /**
+     * Constructs a new page.
+     * @param tasks The tasks of this page.
+     * @param nextCursor The cursor to fetch the following page, or null if this is the last page.
+     */
+    public TaskPage(List<Task> tasks, TaskCursor nextCursor) {
+        // A batch is already immutable, and copying it would create every task
+        this.tasks = tasks instanceof TaskBatch ? tasks : List.copyOf(tasks);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public Optional<TaskCursor> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+}
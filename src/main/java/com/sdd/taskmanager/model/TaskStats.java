@@ -0,0 +1,48 @@
+package com.sdd.taskmanager.model;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Counts of the stored tasks, overall and by creation day.
+ */
+public class TaskStats {
+    private final long total;
+    private final long completed;
+    private final List<DailyTaskCounts> days;
+    private final ZonedDateTime reconciledAt;
+
+    /**
+     * Constructs a new TaskStats.
+     * @param total The number of tasks.
+     * @param completed The number of completed tasks.
+     * @param days The counts of the most recent days with tasks, oldest first.
+     * @param reconciledAt When the counts were last checked against storage, or null if they never were.
+     */
+    public TaskStats(long total, long completed, List<DailyTaskCounts> days, ZonedDateTime reconciledAt) {
+        this.total = total;
+        this.completed = completed;
+        this.days = List.copyOf(days);
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getPending() {
+        return total - completed;
+    }
+
+    public List<DailyTaskCounts> getDays() {
+        return days;
+    }
+
+    public ZonedDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+}
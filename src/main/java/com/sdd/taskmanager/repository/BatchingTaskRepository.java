@@ -0,0 +1,271 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Group commit of concurrent {@code create} calls: they are collected into batches that are written with one
+ * {@code createAll}, in one transaction when a {@link TransactionTemplate} is given, and each call returns once
+ * its batch is committed.
+ * <p>
+ * There is no background thread. The first caller to find no batch in progress leads the next one: it waits up
+ * to {@code maxDelay}, or until {@code maxBatchSize} tasks are queued, then writes the queued tasks. Calls made
+ * meanwhile queue behind it, and once the batch is written the oldest of them leads the following batch. Under
+ * load, batches therefore grow with the time it takes to write one, while a lone call waits at most
+ * {@code maxDelay}.
+ * <p>
+ * Calls made inside a transaction are not batched, as their insert must belong to that transaction. If a batch
+ * written in a transaction fails, nothing of it was written, and its tasks are created again one by one so that only
+ * the calls whose own task fails get the error. Without a transaction, a failed batch may have been partly written,
+ * as on the sharded engine, and every call of the batch gets the error rather than risk creating a task twice.
+ */
+public class BatchingTaskRepository implements TaskRepository {
+
+    private final TaskRepository delegate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final DistributionSummary batchSizes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchFull = lock.newCondition();
+    private final ArrayDeque<PendingCreate> queue = new ArrayDeque<>();
+    private boolean batchInProgress;
+
+    /**
+     * Constructs a new BatchingTaskRepository.
+     * @param delegate The repository the operations are delegated to.
+     * @param transactionTemplate The template each batch is written in, or null to write batches as is, in which
+     *                            case a failed batch is not retried.
+     * @param maxBatchSize The maximum number of tasks written at once.
+     * @param maxDelay How long the first task of a batch waits for others.
+     * @param meterRegistry The registry the batch size distribution is registered with.
+     */
+    public BatchingTaskRepository(TaskRepository delegate, TransactionTemplate transactionTemplate,
+                                  int maxBatchSize, Duration maxDelay, MeterRegistry meterRegistry) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("The maximum batch size must be positive");
+        }
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("The maximum batch delay must not be negative");
+        }
+        this.delegate = delegate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.batchSizes = DistributionSummary.builder("taskmanager.repository.batch.size")
+                .description("Tasks written per group-committed batch of creates")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A queued call to {@code create}.
+     */
+    private static final class PendingCreate {
+        private final Task task;
+        private final CompletableFuture<Task> created = new CompletableFuture<>();
+        private final CompletableFuture<Void> leading = new CompletableFuture<>();
+
+        PendingCreate(Task task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task create(Task task) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return delegate.create(task);
+        }
+        PendingCreate pending = new PendingCreate(task);
+        lock.lock();
+        try {
+            queue.add(pending);
+            if (!batchInProgress) {
+                batchInProgress = true;
+                pending.leading.complete(null);
+            } else if (queue.size() >= maxBatchSize) {
+                batchFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Wait until the task is written or this call has to write the next batch; a failure is rethrown below
+        CompletableFuture.anyOf(pending.created, pending.leading).exceptionally(failure -> null).join();
+        if (!pending.created.isDone()) {
+            writeNextBatch();
+        }
+        try {
+            return pending.created.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Collects and writes one batch, which contains the caller's own task since it is the oldest queued, then
+     * hands the lead to the oldest task still queued.
+     */
+    private void writeNextBatch() {
+        List<PendingCreate> batch = new ArrayList<>();
+        lock.lock();
+        try {
+            long remaining = maxDelayNanos;
+            while (queue.size() < maxBatchSize && remaining > 0) {
+                remaining = batchFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            while (batch.size() < maxBatchSize && !queue.isEmpty()) {
+                batch.add(queue.poll());
+            }
+            lock.unlock();
+        }
+
+        try {
+            write(batch);
+        } finally {
+            lock.lock();
+            try {
+                PendingCreate next = queue.peek();
+                if (next == null) {
+                    batchInProgress = false;
+                } else {
+                    next.leading.complete(null);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(List<PendingCreate> batch) {
+        batchSizes.record(batch.size());
+        List<Task> tasks = batch.stream().map(pending -> pending.task).toList();
+        try {
+            List<Task> created = transactionTemplate != null
+                    ? transactionTemplate.execute(status -> delegate.createAll(tasks))
+                    : delegate.createAll(tasks);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).created.complete(created.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1 || transactionTemplate == null) {
+                for (PendingCreate pending : batch) {
+                    pending.created.completeExceptionally(e);
+                }
+                return;
+            }
+            for (PendingCreate pending : batch) {
+                try {
+                    pending.created.complete(delegate.create(pending.task));
+                } catch (RuntimeException taskFailure) {
+                    pending.created.completeExceptionally(taskFailure);
+                }
+            }
+        } finally {
+            // Never leave a caller waiting, whatever was thrown
+            for (PendingCreate pending : batch) {
+                pending.created.completeExceptionally(new IllegalStateException("Batch of created tasks was not written"));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> createAll(List<Task> tasks) {
+        return delegate.createAll(tasks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return delegate.findById(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        return delegate.findPage(filter, after, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void streamAll(Consumer<Task> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(Task task) {
+        delegate.update(task);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> complete(UUID id) {
+        return delegate.complete(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionResult completeAll(Collection<UUID> ids) {
+        return delegate.completeAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DailyTaskCounts> countByCreationDay() {
+        return delegate.countByCreationDay();
+    }
+}
\ No newline at end of file
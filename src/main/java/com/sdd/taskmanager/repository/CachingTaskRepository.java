@@ -0,0 +1,195 @@
+package com.sdd.taskmanager.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of {@link #findById} lookups, including lookups that found nothing.
+ * List queries always go to the delegate.
+ * <p>
+ * Writes made outside a transaction are already durable when the delegate returns, so the cache is refreshed
+ * with the written state. Writes made inside a transaction only evict, and evict again once the transaction
+ * completes: other threads may cache the previous committed state in the meantime, and a rollback must not
+ * leave uncommitted state behind. Loads and writes of the same key are serialized by the cache, so a load
+ * that started before a write can never overwrite it.
+ * <p>
+ * The cache is shared by every client, so misses are loaded from the primary database even where reads
+ * otherwise run on a {@linkplain ReadReplicas replica}: a lagging replica would leave a stale task, or a miss,
+ * cached for every client, including the one that just wrote it.
+ */
+public class CachingTaskRepository implements TaskRepository {
+
+    /**
+     * Name of the cache in the {@code cache.*} metrics.
+     */
+    public static final String CACHE_NAME = "tasks";
+
+    private final TaskRepository delegate;
+    private final Cache<UUID, Optional<Task>> cache;
+
+    /**
+     * Constructs a new CachingTaskRepository.
+     * @param delegate The repository the lookups are delegated to.
+     * @param maximumSize The maximum number of cached lookups.
+     * @param ttl How long a found task stays cached.
+     * @param negativeTtl How long a lookup that found nothing stays cached.
+     * @param meterRegistry The registry the cache metrics are bound to.
+     */
+    public CachingTaskRepository(TaskRepository delegate, long maximumSize, Duration ttl, Duration negativeTtl,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<UUID, Optional<Task>>writing((id, task) -> task.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task create(Task task) {
+        Task createdTask = delegate.create(task);
+        refresh(List.of(createdTask));
+        return createdTask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> createAll(List<Task> tasks) {
+        List<Task> createdTasks = delegate.createAll(tasks);
+        refresh(createdTasks);
+        return createdTasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return cache.get(id, this::load);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        return delegate.findPage(filter, after, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void streamAll(Consumer<Task> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(Task task) {
+        delegate.update(task);
+        // The caller's object may not reflect what was stored (e.g. createdAt), so never cache it
+        evict(Set.of(task.getId()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> complete(UUID id) {
+        Optional<Task> completedTask = delegate.complete(id);
+        if (completedTask.isPresent()) {
+            refresh(List.of(completedTask.get()));
+        } else {
+            // Nothing matched: the task is missing or already completed, possibly by another instance
+            evict(Set.of(id));
+        }
+        return completedTask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionResult completeAll(Collection<UUID> ids) {
+        CompletionResult result = delegate.completeAll(ids);
+        refresh(result.getCompleted());
+        Set<UUID> untouched = new HashSet<>(ids);
+        result.getCompleted().forEach(task -> untouched.remove(task.getId()));
+        evict(untouched);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DailyTaskCounts> countByCreationDay() {
+        return delegate.countByCreationDay();
+    }
+
+    private Optional<Task> load(UUID id) {
+        try (ReadReplicas.PrimaryScope primary = ReadReplicas.usePrimary()) {
+            return delegate.findById(id);
+        }
+    }
+
+    private void refresh(Collection<Task> tasks) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(tasks.stream().map(Task::getId).collect(Collectors.toSet()));
+        } else {
+            tasks.forEach(task -> cache.put(task.getId(), Optional.of(task)));
+        }
+    }
+
+    private void evict(Set<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Tells {@link TaskChangeListener}s about every task written through it. Writes made inside a transaction are
+ * announced once it commits and not at all if it rolls back, so listeners only ever see committed state.
+ */
+public class ChangeNotifyingTaskRepository implements TaskRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeNotifyingTaskRepository.class);
+
+    private final TaskRepository delegate;
+    private final List<TaskChangeListener> listeners;
+
+    /**
+     * Constructs a new ChangeNotifyingTaskRepository.
+     * @param delegate The repository the operations are delegated to.
+     * @param listeners The listeners to notify, in order.
+     */
+    public ChangeNotifyingTaskRepository(TaskRepository delegate, List<TaskChangeListener> listeners) {
+        this.delegate = delegate;
+        this.listeners = List.copyOf(listeners);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task create(Task task) {
+        Task createdTask = delegate.create(task);
+        notify(TaskChangeListener::tasksCreated, List.of(createdTask));
+        return createdTask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> createAll(List<Task> tasks) {
+        List<Task> createdTasks = delegate.createAll(tasks);
+        notify(TaskChangeListener::tasksCreated, createdTasks);
+        return createdTasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return delegate.findById(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        return delegate.findPage(filter, after, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void streamAll(Consumer<Task> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(Task task) {
+        delegate.update(task);
+        // The update does not return the stored row, so listeners get the new state as the caller sent it
+        notify(TaskChangeListener::tasksUpdated, List.of(task));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> complete(UUID id) {
+        Optional<Task> completed = delegate.complete(id);
+        completed.ifPresent(task -> notify(TaskChangeListener::tasksUpdated, List.of(task)));
+        return completed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionResult completeAll(Collection<UUID> ids) {
+        CompletionResult result = delegate.completeAll(ids);
+        if (!result.getCompleted().isEmpty()) {
+            notify(TaskChangeListener::tasksUpdated, result.getCompleted());
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DailyTaskCounts> countByCreationDay() {
+        return delegate.countByCreationDay();
+    }
+
+    private void notify(BiConsumer<TaskChangeListener, List<Task>> event, List<Task> tasks) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // Rather than afterCommit, so that the cache decorator underneath, which registered its
+                // synchronization first, has evicted the written tasks before listeners are told about them
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        dispatch(event, tasks);
+                    }
+                }
+            });
+        } else {
+            dispatch(event, tasks);
+        }
+    }
+
+    private void dispatch(BiConsumer<TaskChangeListener, List<Task>> event, List<Task> tasks) {
+        for (TaskChangeListener listener : listeners) {
+            try {
+                event.accept(listener, tasks);
+            } catch (RuntimeException e) {
+                logger.warn("Task change listener {} failed", listener, e);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,261 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads ({@link #findById}, {@link #findAll} and {@link #findPage}): a read that
+ * arrives while the same read is in flight waits for it and shares its result instead of querying the delegate
+ * again. Shared results are returned to every caller as is, and must not be modified.
+ * <p>
+ * A read only joins a read that started after every write that had completed when it arrived, so it never sees
+ * an older state than a read of its own would. To tell, writes bump a generation once they complete, or once
+ * their transaction does. Writes of other instances are not known, as with reads of the storage itself. Reads
+ * inside a transaction, which may see its uncommitted writes, are never coalesced, and reads routed to the
+ * primary database only join reads routed there too.
+ */
+public class CoalescingTaskRepository implements TaskRepository {
+
+    /**
+     * Counter of reads served by an identical read in flight rather than by the delegate, tagged with
+     * {@code operation}.
+     */
+    public static final String COALESCED_NAME = "taskmanager.repository.coalesced";
+
+    private final TaskRepository delegate;
+    private final ConcurrentMap<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final Counter findByIdCoalesced;
+    private final Counter findAllCoalesced;
+    private final Counter findPageCoalesced;
+
+    /**
+     * Constructs a new CoalescingTaskRepository.
+     * @param delegate The repository the reads and writes are delegated to.
+     * @param meterRegistry The registry the coalesced read counters are registered with.
+     */
+    public CoalescingTaskRepository(TaskRepository delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.findByIdCoalesced = coalesced("findById", meterRegistry);
+        this.findAllCoalesced = coalesced("findAll", meterRegistry);
+        this.findPageCoalesced = coalesced("findPage", meterRegistry);
+    }
+
+    /**
+     * Identifies a read: its operation and arguments, and whether it must run on the primary database.
+     */
+    private record Key(String operation, Object arguments, boolean primary) {
+    }
+
+    /**
+     * The arguments of a {@link #findPage} read.
+     */
+    private record PageQuery(TaskFilter filter, TaskCursor after, int limit) {
+    }
+
+    /**
+     * A read in flight and the write generation it started in.
+     */
+    private static final class Flight {
+        private final long generation;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Flight(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task create(Task task) {
+        try {
+            return delegate.create(task);
+        } finally {
+            written();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> createAll(List<Task> tasks) {
+        try {
+            return delegate.createAll(tasks);
+        } finally {
+            written();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return coalesce("findById", id, findByIdCoalesced, () -> delegate.findById(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findAll() {
+        return coalesce("findAll", null, findAllCoalesced, delegate::findAll);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        return coalesce("findPage", new PageQuery(filter, after, limit), findPageCoalesced,
+                () -> delegate.findPage(filter, after, limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void streamAll(Consumer<Task> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(Task task) {
+        try {
+            delegate.update(task);
+        } finally {
+            written();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> complete(UUID id) {
+        try {
+            return delegate.complete(id);
+        } finally {
+            written();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionResult completeAll(Collection<UUID> ids) {
+        try {
+            return delegate.completeAll(ids);
+        } finally {
+            written();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DailyTaskCounts> countByCreationDay() {
+        return delegate.countByCreationDay();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String operation, Object arguments, Counter coalesced, Supplier<T> read) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return read.get();
+        }
+        // Read before looking for a flight: a flight of this generation or a later one started after every write
+        // completed so far
+        long generation = writeGeneration.get();
+        Key key = new Key(operation, arguments, ReadReplicas.isPrimaryRequired());
+        Flight flight = new Flight(generation);
+        while (true) {
+            Flight current = flights.putIfAbsent(key, flight);
+            if (current == null) {
+                break;
+            }
+            if (current.generation >= generation) {
+                coalesced.increment();
+                return (T) await(current);
+            }
+            // A write completed since the current flight started: supersede it, its callers still get its result
+            if (flights.replace(key, current, flight)) {
+                break;
+            }
+        }
+        try {
+            T result = read.get();
+            flight.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private static Object await(Flight flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            // Rethrown as is, so that joiners fail the way the read they joined did
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Ends the flights started before a write, once the write is visible to other reads.
+     */
+    private void written() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    writeGeneration.incrementAndGet();
+                }
+            });
+        } else {
+            writeGeneration.incrementAndGet();
+        }
+    }
+
+    private static Counter coalesced(String operation, MeterRegistry meterRegistry) {
+        return Counter.builder(COALESCED_NAME)
+                .description("Reads served by an identical read in flight instead of the storage")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
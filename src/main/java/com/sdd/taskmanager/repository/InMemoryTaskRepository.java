@@ -0,0 +1,288 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Non-durable storage engine keeping tasks in concurrent maps, for edge deployments and load tests.
+ * <p>
+ * Each task lives in one {@link AtomicReference} shared by a hash index keyed by ID and a skip-list index
+ * ordered by {@code (createdAt, id)}, so a state change is a single compare-and-set that both indexes observe
+ * at once. Neither reads nor writes take locks. Tasks are immutable, so stored instances are handed out as is.
+ */
+@Repository
+@StorageEngine
+@ConditionalOnProperty(name = StorageEngine.PROPERTY, havingValue = "memory")
+public class InMemoryTaskRepository implements TaskRepository {
+
+    // Smallest ID in index order, to bound ranges by creation time alone
+    private static final UUID MIN_ID = new UUID(0, 0);
+
+    private final Map<UUID, AtomicReference<Task>> byId = new ConcurrentHashMap<>();
+    private final NavigableMap<IndexKey, AtomicReference<Task>> byCreatedAt = new ConcurrentSkipListMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task create(Task task) {
+        // Truncated to the precision of the JDBC engine so both engines return identical timestamps
+        ZonedDateTime createdAt = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        Task createdTask = new Task(TimeOrderedUuids.next(), task.getTitle(), task.getDescription(), false, createdAt);
+        store(createdTask);
+        return createdTask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> createAll(List<Task> tasks) {
+        List<Task> createdTasks = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            createdTasks.add(create(task));
+        }
+        return createdTasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> findById(UUID id) {
+        AtomicReference<Task> entry = byId.get(id);
+        return entry == null ? Optional.empty() : Optional.of(entry.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findAll() {
+        List<Task> tasks = new ArrayList<>(byId.size());
+        for (AtomicReference<Task> entry : byCreatedAt.values()) {
+            tasks.add(entry.get());
+        }
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        // The cursor and the creation time range narrow the skip list; other conditions are checked on each task
+        IndexKey from = null;
+        boolean fromInclusive = false;
+        if (after != null) {
+            from = new IndexKey(after.getCreatedAt().toInstant(), after.getId());
+        }
+        if (filter.getCreatedFrom() != null) {
+            IndexKey createdFrom = new IndexKey(filter.getCreatedFrom().toInstant(), MIN_ID);
+            if (from == null || createdFrom.compareTo(from) > 0) {
+                from = createdFrom;
+                fromInclusive = true;
+            }
+        }
+        IndexKey to = filter.getCreatedTo() != null ? new IndexKey(filter.getCreatedTo().toInstant(), MIN_ID) : null;
+        NavigableMap<IndexKey, AtomicReference<Task>> range = byCreatedAt;
+        if (from != null && to != null) {
+            if (from.compareTo(to) >= 0) {
+                return new ArrayList<>();
+            }
+            range = byCreatedAt.subMap(from, fromInclusive, to, false);
+        } else if (from != null) {
+            range = byCreatedAt.tailMap(from, fromInclusive);
+        } else if (to != null) {
+            range = byCreatedAt.headMap(to, false);
+        }
+        List<Task> page = new ArrayList<>(Math.min(limit, 1024));
+        Iterator<AtomicReference<Task>> entries = range.values().iterator();
+        while (page.size() < limit && entries.hasNext()) {
+            Task task = entries.next().get();
+            if (filter.matches(task)) {
+                page.add(task);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void streamAll(Consumer<Task> consumer) {
+        for (AtomicReference<Task> entry : byCreatedAt.values()) {
+            consumer.accept(entry.get());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(Task task) {
+        AtomicReference<Task> entry = byId.get(task.getId());
+        if (entry != null) {
+            // Like the SQL UPDATE, only the mutable columns change
+            entry.updateAndGet(current -> new Task(current.getId(), task.getTitle(), task.getDescription(),
+                    task.isCompleted(), current.getCreatedAt()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> complete(UUID id) {
+        AtomicReference<Task> entry = byId.get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        while (true) {
+            Task current = entry.get();
+            if (current.isCompleted()) {
+                return Optional.empty();
+            }
+            Task completed = current.withCompleted(true);
+            if (entry.compareAndSet(current, completed)) {
+                return Optional.of(completed);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionResult completeAll(Collection<UUID> ids) {
+        List<Task> completed = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            if (!byId.containsKey(id)) {
+                notFound.add(id);
+            } else {
+                complete(id).ifPresent(completed::add);
+            }
+        }
+        return new CompletionResult(completed, notFound);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Walks the creation time index, where the tasks of a day are consecutive.
+     */
+    @Override
+    public List<DailyTaskCounts> countByCreationDay() {
+        List<DailyTaskCounts> days = new ArrayList<>();
+        LocalDate day = null;
+        long created = 0;
+        long completed = 0;
+        for (AtomicReference<Task> entry : byCreatedAt.values()) {
+            Task task = entry.get();
+            LocalDate taskDay = task.getCreatedAt().withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+            if (!taskDay.equals(day)) {
+                if (day != null) {
+                    days.add(new DailyTaskCounts(day, created, completed));
+                }
+                day = taskDay;
+                created = 0;
+                completed = 0;
+            }
+            created++;
+            if (task.isCompleted()) {
+                completed++;
+            }
+        }
+        if (day != null) {
+            days.add(new DailyTaskCounts(day, created, completed));
+        }
+        return days;
+    }
+
+    /**
+     * Stores a task with its ID and creation timestamp as given, replacing any task with the same ID.
+     * Used to load tasks that were created elsewhere, e.g. when replaying a log.
+     * @param task The task to store.
+     */
+    void store(Task task) {
+        AtomicReference<Task> existing = byId.get(task.getId());
+        if (existing != null) {
+            existing.set(task);
+            return;
+        }
+        AtomicReference<Task> entry = new AtomicReference<>(task);
+        // Index first, so a task visible by ID is always visible to listings too
+        byCreatedAt.put(IndexKey.of(task), entry);
+        byId.put(task.getId(), entry);
+    }
+
+    /**
+     * Returns the number of stored tasks.
+     * @return The number of stored tasks.
+     */
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Position of a task in the {@code (createdAt, id)} order. IDs compare as unsigned 128-bit numbers, which
+     * is the byte order databases use for UUID columns.
+     */
+    private static final class IndexKey implements Comparable<IndexKey> {
+        private final long epochSecond;
+        private final int nano;
+        private final long mostSigBits;
+        private final long leastSigBits;
+
+        IndexKey(Instant createdAt, UUID id) {
+            this.epochSecond = createdAt.getEpochSecond();
+            this.nano = createdAt.getNano();
+            this.mostSigBits = id.getMostSignificantBits();
+            this.leastSigBits = id.getLeastSignificantBits();
+        }
+
+        static IndexKey of(Task task) {
+            return new IndexKey(task.getCreatedAt().toInstant(), task.getId());
+        }
+
+        @Override
+        public int compareTo(IndexKey other) {
+            int result = Long.compare(epochSecond, other.epochSecond);
+            if (result == 0) {
+                result = Integer.compare(nano, other.nano);
+            }
+            if (result == 0) {
+                result = Long.compareUnsigned(mostSigBits, other.mostSigBits);
+            }
+            if (result == 0) {
+                result = Long.compareUnsigned(leastSigBits, other.leastSigBits);
+            }
+            return result;
+        }
+    }
+}
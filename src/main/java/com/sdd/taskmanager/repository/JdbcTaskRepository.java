@@ -1,28 +1,84 @@
 package com.sdd.taskmanager.repository;
 
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
 import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskBatch;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
+@StorageEngine
+@ConditionalOnProperty(name = StorageEngine.PROPERTY, havingValue = "jdbc", matchIfMissing = true)
 public class JdbcTaskRepository implements TaskRepository {
 
+    // Upper bound on IN-list size so statements stay within driver parameter limits and plan caches stay small
+    private static final int MAX_IDS_PER_STATEMENT = 500;
+    private static final ResultSetExtractor<TaskBatch> TASK_BATCH_EXTRACTOR = rs -> extractTaskBatch(rs, 0);
+
     private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final TransactionTemplate replicaTransactionTemplate;
+    private final int streamFetchSize;
 
     /**
-     * Constructs a new JdbcTaskRepository with the given JdbcTemplate.
+     * Constructs a new JdbcTaskRepository with the given JdbcTemplate, used for reads and writes.
      * @param jdbcTemplate The JdbcTemplate to use for database operations.
+     * @param streamFetchSize The number of rows fetched per round trip when streaming all tasks.
+     */
+    public JdbcTaskRepository(JdbcTemplate jdbcTemplate, int streamFetchSize) {
+        this(jdbcTemplate, null, streamFetchSize);
+    }
+
+    /**
+     * Constructs a new JdbcTaskRepository reading from replicas when there are some.
+     * @param jdbcTemplate The JdbcTemplate of the primary database, used for writes and reads in transactions.
+     * @param readReplicas The replicas other reads, and streams in read-only transactions, run on, or null to run
+     *                     them on the primary database.
+     * @param streamFetchSize The number of rows fetched per round trip when streaming all tasks.
      */
-    public JdbcTaskRepository(JdbcTemplate jdbcTemplate) {
+    @Autowired
+    public JdbcTaskRepository(JdbcTemplate jdbcTemplate,
+                              @Nullable ReadReplicas readReplicas,
+                              @Value("${taskmanager.export.fetch-size:500}") int streamFetchSize) {
         this.jdbcTemplate = jdbcTemplate;
+        this.replicaJdbcTemplate = readReplicas != null ? new JdbcTemplate(readReplicas.getDataSource()) : null;
+        this.replicaTransactionTemplate = readReplicas != null
+                ? new TransactionTemplate(new DataSourceTransactionManager(readReplicas.getDataSource()))
+                : null;
+        if (replicaTransactionTemplate != null) {
+            replicaTransactionTemplate.setReadOnly(true);
+        }
+        this.streamFetchSize = streamFetchSize;
     }
 
     /**
@@ -30,12 +86,12 @@ public class JdbcTaskRepository implements TaskRepository {
      */
     @Override
     public Task create(Task task) {
-        UUID id = UUID.randomUUID();
+        UUID id = TimeOrderedUuids.next();
         ZonedDateTime createdAt = ZonedDateTime.now(ZoneOffset.UTC); // Use UTC for consistency
 
         String sql = "INSERT INTO tasks (id, title, description, completed, created_at) VALUES (?, ?, ?, ?, ?)";
         jdbcTemplate.update(sql,
-                id.toString(),
+                id,
                 task.getTitle(),
                 task.getDescription(),
                 false, // Always false on creation as per data-model.md
@@ -47,6 +103,69 @@ public class JdbcTaskRepository implements TaskRepository {
         return createdTask;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> createAll(List<Task> tasks) {
+        ZonedDateTime createdAt = ZonedDateTime.now(ZoneOffset.UTC);
+        List<Task> createdTasks = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            createdTasks.add(new Task(TimeOrderedUuids.next(), task.getTitle(), task.getDescription(), false, createdAt));
+        }
+        insertAll(createdTasks);
+        return createdTasks;
+    }
+
+    /**
+     * Inserts tasks that already have their ID and creation time, such as tasks routed to this database by
+     * {@link ShardedTaskRepository}.
+     * @param tasks The tasks to insert.
+     */
+    void insertAll(List<Task> tasks) {
+        writeAll("INSERT INTO tasks (id, title, description, completed, created_at) VALUES (?, ?, ?, ?, ?)", tasks);
+    }
+
+    /**
+     * Inserts tasks copied from another database, or overwrites them if a previous copy left them here.
+     * @param tasks The tasks to copy.
+     */
+    void copyAll(List<Task> tasks) {
+        writeAll("MERGE INTO tasks (id, title, description, completed, created_at) KEY (id) VALUES (?, ?, ?, ?, ?)", tasks);
+    }
+
+    /**
+     * Deletes tasks copied to another database, except those that changed since they were read.
+     * @param tasks The tasks as they were read.
+     * @return The tasks that were not deleted, because they changed or no longer exist.
+     */
+    List<Task> deleteAllIfUnchanged(List<Task> tasks) {
+        String sql = "DELETE FROM tasks WHERE id = ? AND title = ? AND description IS NOT DISTINCT FROM ? AND completed = ?";
+        int[][] counts = jdbcTemplate.batchUpdate(sql, tasks, tasks.size(), (ps, task) -> {
+            ps.setObject(1, task.getId());
+            ps.setString(2, task.getTitle());
+            ps.setString(3, task.getDescription());
+            ps.setBoolean(4, task.isCompleted());
+        });
+        List<Task> kept = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (counts[0][i] == 0) {
+                kept.add(tasks.get(i));
+            }
+        }
+        return kept;
+    }
+
+    private void writeAll(String sql, List<Task> tasks) {
+        jdbcTemplate.batchUpdate(sql, tasks, tasks.size(), (ps, task) -> {
+            ps.setObject(1, task.getId());
+            ps.setString(2, task.getTitle());
+            ps.setString(3, task.getDescription());
+            ps.setBoolean(4, task.isCompleted());
+            ps.setObject(5, task.getCreatedAt().toOffsetDateTime());
+        });
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -54,7 +173,7 @@ public class JdbcTaskRepository implements TaskRepository {
     public Optional<Task> findById(UUID id) {
         String sql = "SELECT id, title, description, completed, created_at FROM tasks WHERE id = ?";
         try {
-            return Optional.ofNullable(jdbcTemplate.queryForObject(sql, this::mapRowToTask, id.toString()));
+            return Optional.ofNullable(reads().queryForObject(sql, this::mapRowToTask, id));
         } catch (org.springframework.dao.EmptyResultDataAccessException e) {
             return Optional.empty();
         }
@@ -66,7 +185,88 @@ public class JdbcTaskRepository implements TaskRepository {
     @Override
     public List<Task> findAll() {
         String sql = "SELECT id, title, description, completed, created_at FROM tasks";
-        return jdbcTemplate.query(sql, this::mapRowToTask);
+        return reads().query(sql, TASK_BATCH_EXTRACTOR);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        PageQuery query = pageQuery(filter, after, limit);
+        ResultSetExtractor<TaskBatch> extractor = rs -> extractTaskBatch(rs, Math.min(limit, 1024));
+        return reads().query(query.sql, extractor, query.params);
+    }
+
+    /**
+     * Builds the parameterized statement reading a filtered page. Conditions only appear when their filter
+     * is set, so each combination gets its own plan, served by one of the indexes of {@code schema.sql}.
+     * @param filter The conditions the tasks must meet.
+     * @param after The position to start after, or null to start from the oldest task.
+     * @param limit The maximum number of tasks to return.
+     * @return The statement and its parameters.
+     */
+    static PageQuery pageQuery(TaskFilter filter, TaskCursor after, int limit) {
+        // With a fixed completion status, (completed, created_at, id) is the page order itself: spelling it that
+        // way lets the database return rows in completed index order instead of sorting every open task
+        String order = filter.getCompleted() != null ? "completed, created_at, id" : "created_at, id";
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (filter.getCompleted() != null) {
+            conditions.add("completed = ?");
+            params.add(filter.getCompleted());
+        }
+        if (filter.getCreatedFrom() != null) {
+            conditions.add("created_at >= ?");
+            params.add(filter.getCreatedFrom().toOffsetDateTime());
+        }
+        if (filter.getCreatedTo() != null) {
+            conditions.add("created_at < ?");
+            params.add(filter.getCreatedTo().toOffsetDateTime());
+        }
+        if (filter.getTitlePrefix() != null) {
+            // A pattern without a leading wildcard becomes a range scan of the title index
+            conditions.add("title LIKE ? ESCAPE '\\'");
+            params.add(filter.getTitlePrefix().replaceAll("[\\\\%_]", "\\\\$0") + "%");
+        }
+        if (after != null) {
+            // Row-value comparison lets the index seek straight to the cursor instead of scanning
+            conditions.add("(created_at, id) > (?, ?)");
+            params.add(after.getCreatedAt().toOffsetDateTime());
+            params.add(after.getId());
+        }
+        params.add(limit);
+        String sql = "SELECT id, title, description, completed, created_at FROM tasks " +
+                (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ") +
+                "ORDER BY " + order + " LIMIT ?";
+        return new PageQuery(sql, params.toArray());
+    }
+
+    /**
+     * {@inheritDoc}
+     * A read-only transaction does not keep the stream on the primary database: it only exists so that drivers
+     * use a server-side cursor, so the stream runs on a replica, in a read-only transaction of its own there.
+     */
+    @Override
+    public void streamAll(Consumer<Task> consumer) {
+        if (replicaJdbcTemplate != null && !ReadReplicas.isPrimaryRequired()
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replicaTransactionTemplate.executeWithoutResult(status -> stream(replicaJdbcTemplate, consumer));
+        } else {
+            stream(reads(), consumer);
+        }
+    }
+
+    private void stream(JdbcTemplate template, Consumer<Task> consumer) {
+        String sql = "SELECT id, title, description, completed, created_at FROM tasks";
+        try (Stream<Task> tasks = template.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(streamFetchSize);
+            return ps;
+        }, this::mapRowToTask)) {
+            tasks.forEach(consumer);
+        }
     }
 
     /**
@@ -79,10 +279,95 @@ public class JdbcTaskRepository implements TaskRepository {
                 task.getTitle(),
                 task.getDescription(),
                 task.isCompleted(),
-                task.getId().toString()
+                task.getId()
         );
     }
 
+    /**
+     * {@inheritDoc}
+     * Uses a data change delta table so the update and the read of the updated row take one round trip.
+     */
+    @Override
+    public Optional<Task> complete(UUID id) {
+        String sql = "SELECT id, title, description, completed, created_at FROM FINAL TABLE " +
+                "(UPDATE tasks SET completed = TRUE WHERE id = ? AND completed = FALSE)";
+        return jdbcTemplate.query(sql, this::mapRowToTask, id).stream().findFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionResult completeAll(Collection<UUID> ids) {
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Task> completed = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += MAX_IDS_PER_STATEMENT) {
+            List<UUID> chunk = distinctIds.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, distinctIds.size()));
+            Object[] params = chunk.toArray();
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+
+            String sql = "SELECT id, title, description, completed, created_at FROM FINAL TABLE " +
+                    "(UPDATE tasks SET completed = TRUE WHERE id IN (" + placeholders + ") AND completed = FALSE)";
+            List<Task> chunkCompleted = jdbcTemplate.query(sql, this::mapRowToTask, params);
+            completed.addAll(chunkCompleted);
+            if (chunkCompleted.size() == chunk.size()) {
+                continue;
+            }
+
+            // Only ids that did not match need a second look: they are either already completed or missing
+            Set<UUID> matched = new HashSet<>();
+            chunkCompleted.forEach(task -> matched.add(task.getId()));
+            List<UUID> unmatched = chunk.stream().filter(id -> !matched.contains(id)).toList();
+            String existingSql = "SELECT id FROM tasks WHERE id IN (" +
+                    String.join(", ", Collections.nCopies(unmatched.size(), "?")) + ")";
+            Set<UUID> existing = new HashSet<>(jdbcTemplate.query(existingSql,
+                    (rs, rowNum) -> rs.getObject("id", UUID.class),
+                    unmatched.toArray()));
+            unmatched.stream().filter(id -> !existing.contains(id)).forEach(notFound::add);
+        }
+        return new CompletionResult(completed, notFound);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Grouped by the database, whose {@code (completed, created_at, id)} index covers the query.
+     */
+    @Override
+    public List<DailyTaskCounts> countByCreationDay() {
+        String createdOn = "CAST(created_at AT TIME ZONE 'UTC' AS DATE)";
+        String sql = "SELECT " + createdOn + " AS created_on, COUNT(*) AS created, " +
+                "SUM(CASE WHEN completed THEN 1 ELSE 0 END) AS completed FROM tasks " +
+                "GROUP BY " + createdOn + " ORDER BY created_on";
+        return reads().query(sql, (rs, rowNum) -> new DailyTaskCounts(
+                rs.getObject("created_on", LocalDate.class), rs.getLong("created"), rs.getLong("completed")));
+    }
+
+    /**
+     * Returns the template reads run with: the replicas', unless there are none, the caller must read from the
+     * primary, or a transaction is active, whose connection only the primary's template uses.
+     */
+    private JdbcTemplate reads() {
+        if (replicaJdbcTemplate == null || ReadReplicas.isPrimaryRequired()
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return jdbcTemplate;
+        }
+        return replicaJdbcTemplate;
+    }
+
+    /**
+     * A statement and its parameters.
+     */
+    static final class PageQuery {
+        final String sql;
+        final Object[] params;
+
+        PageQuery(String sql, Object[] params) {
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
     /**
      * Maps a row from the ResultSet to a Task object.
      * @param rs The ResultSet to map.
@@ -91,12 +376,34 @@ public class JdbcTaskRepository implements TaskRepository {
      * @throws SQLException if a SQL error occurs.
      */
     private Task mapRowToTask(ResultSet rs, int rowNum) throws SQLException {
+        UUID id = rs.getObject("id", UUID.class);
+        OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
         return new Task(
-                UUID.fromString(rs.getString("id")),
+                id.getMostSignificantBits(),
+                id.getLeastSignificantBits(),
                 rs.getString("title"),
                 rs.getString("description"),
                 rs.getBoolean("completed"),
-                rs.getObject("created_at", ZonedDateTime.class)
+                createdAt.toEpochSecond(),
+                createdAt.getNano()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads all rows of a ResultSet into a columnar batch, for listings that may hold many tasks.
+     * @param rs The ResultSet to read.
+     * @param expectedSize The number of rows expected, or 0 if unknown.
+     * @return The tasks of all rows.
+     * @throws SQLException if a SQL error occurs.
+     */
+    private static TaskBatch extractTaskBatch(ResultSet rs, int expectedSize) throws SQLException {
+        TaskBatch.Builder batch = new TaskBatch.Builder(expectedSize);
+        while (rs.next()) {
+            UUID id = rs.getObject("id", UUID.class);
+            OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+            batch.add(id.getMostSignificantBits(), id.getLeastSignificantBits(), rs.getString("title"),
+                    rs.getString("description"), rs.getBoolean("completed"), createdAt.toEpochSecond(), createdAt.getNano());
+        }
+        return batch.build();
+    }
+}
@@ -0,0 +1,773 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Durable embedded storage engine: writes are appended to a memory-mapped log and reads are served by an
+ * {@link InMemoryTaskRepository} index rebuilt on startup.
+ * <p>
+ * The log is a sequence of numbered segment files holding one full-state record per write (see
+ * {@link TaskLogCodec}). Appends are serialized by a lock, but flushing is shared: a writer waits until the
+ * segment has been forced past its record, and whichever writer forces the segment does it for every record
+ * appended so far (group commit). Writes only reach the index once they are durable, in log order, so readers
+ * never see a write that a crash could still lose. Once enough has been appended, a snapshot of the index is
+ * written next to the log, after which the older segments are deleted, bounding restart time.
+ * <p>
+ * Recovery loads the snapshot, then replays the segments it does not cover in order. Replay stops at the first
+ * record whose length or checksum is invalid, which is how a record torn by a crash shows up. Pages of a mapping
+ * reach storage in no particular order, so records appended after the torn one may have survived it, although
+ * none of them was acknowledged: everything from the torn record to the end of the segment is zeroed, so that
+ * later appends can neither be mistaken for a continuation of it nor bring those records back.
+ */
+@Repository
+@StorageEngine
+@ConditionalOnProperty(name = StorageEngine.PROPERTY, havingValue = "log")
+public class LogTaskRepository implements TaskRepository, AutoCloseable {
+
+    static final String SNAPSHOT_FILE = "tasks.snapshot";
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTaskRepository.class);
+    private static final Pattern SEGMENT_FILE = Pattern.compile("tasks-(\\d{20})\\.log");
+    private static final int SEGMENT_MAGIC = 0x544C4F47; // "TLOG"
+    private static final int SNAPSHOT_MAGIC = 0x54534E50; // "TSNP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 16;
+    // Mapped buffers are indexed by int
+    private static final int MAX_SEGMENT_SIZE = Integer.MAX_VALUE & ~0xFFFF;
+    private static final int ZEROING_CHUNK_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long snapshotThreshold;
+    private final boolean fsync;
+    private final InMemoryTaskRepository index = new InMemoryTaskRepository();
+    private final ScheduledExecutorService snapshotScheduler;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+
+    // Guarded by appendLock
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private boolean closed;
+    // Guarded by appendLock: writes appended but not yet in the index, in log order, and the latest state they
+    // give each task, which writers read through
+    private final Deque<PendingWrite> pendingWrites = new ArrayDeque<>();
+    private final Map<UUID, Task> pendingTasks = new HashMap<>();
+    // Written under appendLock, read without it by the snapshot scheduler and tests
+    private volatile Segment segment;
+    private volatile long appended;
+    private volatile long appendedAtSnapshot;
+    // Guarded by syncLock
+    private long durable;
+    private boolean syncing;
+
+    /**
+     * Tasks appended up to a log position.
+     */
+    private record PendingWrite(long end, List<Task> tasks) {
+    }
+
+    /**
+     * Opens the log in the given directory, creating it if needed, and replays it into the index.
+     * @param directory The directory holding the log segments and the snapshot.
+     * @param segmentSize The size segments are preallocated to; they grow as needed.
+     * @param snapshotThreshold How much must be appended to the log before a snapshot is taken.
+     * @param snapshotInterval How often the snapshot threshold is checked.
+     * @param fsync Whether writes wait for the log to be forced to storage. Without it, writes survive a crash
+     *              of the process but not of the machine.
+     * @throws IOException If the log cannot be read or created.
+     */
+    public LogTaskRepository(@Value("${taskmanager.log.directory:data/tasks}") Path directory,
+                             @Value("${taskmanager.log.segment-size:64MB}") DataSize segmentSize,
+                             @Value("${taskmanager.log.snapshot-threshold:256MB}") DataSize snapshotThreshold,
+                             @Value("${taskmanager.log.snapshot-interval:1m}") Duration snapshotInterval,
+                             @Value("${taskmanager.log.fsync:true}") boolean fsync) throws IOException {
+        this.directory = directory;
+        this.segmentSize = (int) Math.min(Math.max(segmentSize.toBytes(), SEGMENT_HEADER_SIZE + 4096), MAX_SEGMENT_SIZE);
+        this.snapshotThreshold = snapshotThreshold.toBytes();
+        this.fsync = fsync;
+
+        Files.createDirectories(directory);
+        this.segment = recover();
+
+        this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-log-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = snapshotInterval.toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(this::snapshotIfNeeded, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task create(Task task) {
+        return createAll(List.of(task)).get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> createAll(List<Task> tasks) {
+        // Truncated to the precision of the JDBC engine so every engine returns identical timestamps
+        ZonedDateTime createdAt = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        List<Task> createdTasks = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            createdTasks.add(new Task(TimeOrderedUuids.next(), task.getTitle(), task.getDescription(), false, createdAt));
+        }
+        write(createdTasks);
+        return createdTasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return index.findById(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findAll() {
+        return index.findAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        return index.findPage(filter, after, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void streamAll(Consumer<Task> consumer) {
+        index.streamAll(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(Task task) {
+        appendLock.lock();
+        long end;
+        try {
+            Optional<Task> current = current(task.getId());
+            if (current.isEmpty()) {
+                return;
+            }
+            // Like the SQL UPDATE, only the mutable columns change
+            end = append(List.of(new Task(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(),
+                    current.get().getCreatedAt())));
+        } finally {
+            appendLock.unlock();
+        }
+        commit(end);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> complete(UUID id) {
+        List<Task> completed = completeAll(List.of(id)).getCompleted();
+        return completed.isEmpty() ? Optional.empty() : Optional.of(completed.get(0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionResult completeAll(Collection<UUID> ids) {
+        List<Task> completed = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        long end;
+        appendLock.lock();
+        try {
+            // Appends are serialized, so reading the current state under the lock is enough to complete each task once
+            for (UUID id : new LinkedHashSet<>(ids)) {
+                Optional<Task> current = current(id);
+                if (current.isEmpty()) {
+                    notFound.add(id);
+                } else if (!current.get().isCompleted()) {
+                    Task task = current.get();
+                    completed.add(task.withCompleted(true));
+                }
+            }
+            end = append(completed);
+        } finally {
+            appendLock.unlock();
+        }
+        commit(end);
+        return new CompletionResult(completed, notFound);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DailyTaskCounts> countByCreationDay() {
+        return index.countByCreationDay();
+    }
+
+    /**
+     * Writes a snapshot of every task and deletes the log segments it covers. New writes go to a fresh segment
+     * and are not blocked while the snapshot is written.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long firstUncovered;
+            long appendedBefore;
+            appendLock.lock();
+            try {
+                ensureOpen();
+                appendedBefore = appended;
+                firstUncovered = rotate();
+            } finally {
+                appendLock.unlock();
+            }
+
+            // The index keeps changing while it is copied. That is harmless: every record of the segments replayed
+            // after the snapshot holds the full state of its task and is replayed in order, so the last one wins.
+            Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeSnapshot(Channels.newOutputStream(channel), firstUncovered);
+                channel.force(true);
+            }
+            Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
+            appendedAtSnapshot = appendedBefore;
+
+            for (long number : segmentNumbers()) {
+                if (number < firstUncovered) {
+                    Files.deleteIfExists(segmentPath(number));
+                }
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes appended to the log since it was opened.
+     * @return The number of bytes appended.
+     */
+    long appendedBytes() {
+        return appended;
+    }
+
+    /**
+     * Returns the offset at which the next record will be appended in the current segment.
+     * @return The append offset.
+     */
+    int appendOffset() {
+        return segment.position;
+    }
+
+    /**
+     * Returns the path of the segment currently appended to.
+     * @return The path of the current segment.
+     */
+    Path currentSegmentPath() {
+        return segmentPath(segment.number);
+    }
+
+    /**
+     * Stops the snapshot scheduler, forces the log and closes it. Further writes fail.
+     */
+    @Override
+    public void close() {
+        snapshotScheduler.shutdownNow();
+        try {
+            snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            segment.force();
+            publish(appended);
+            segment.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void write(List<Task> tasks) {
+        long end;
+        appendLock.lock();
+        try {
+            end = append(tasks);
+        } finally {
+            appendLock.unlock();
+        }
+        commit(end);
+    }
+
+    /**
+     * Returns the latest state of a task, including writes not durable yet. Must be called with the append lock
+     * held.
+     */
+    private Optional<Task> current(UUID id) {
+        Task pending = pendingTasks.get(id);
+        return pending != null ? Optional.of(pending) : index.findById(id);
+    }
+
+    /**
+     * Appends the tasks to the log. They are applied to the index at once without fsync, else once durable.
+     * Must be called with the append lock held.
+     * @return The log position the caller must wait for before acknowledging the write.
+     */
+    private long append(List<Task> tasks) {
+        ensureOpen();
+        if (tasks.isEmpty()) {
+            return appended;
+        }
+        scratch.clear();
+        for (Task task : tasks) {
+            scratch = TaskLogCodec.writeRecord(scratch, task);
+        }
+        scratch.flip();
+        int size = scratch.remaining();
+        try {
+            if (!segment.ensureCapacity(size)) {
+                rotate();
+                if (!segment.ensureCapacity(size)) {
+                    throw new IllegalArgumentException("Batch of " + tasks.size() + " tasks does not fit in a log segment");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segment.append(scratch, size);
+        appended += size;
+        if (fsync) {
+            pendingWrites.add(new PendingWrite(appended, tasks));
+            tasks.forEach(task -> pendingTasks.put(task.getId(), task));
+        } else {
+            tasks.forEach(index::store);
+        }
+        return appended;
+    }
+
+    /**
+     * Waits until the log is durable past the given position, then applies the writes it covers to the index.
+     * If forcing the log fails, the write stays out of the index, unless a later force covers it.
+     */
+    private void commit(long end) {
+        awaitDurable(end);
+        if (fsync) {
+            appendLock.lock();
+            try {
+                publish(end);
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies the pending writes up to a durable position to the index, in log order, whichever writer they
+     * belong to. Must be called with the append lock held.
+     */
+    private void publish(long durablePosition) {
+        while (!pendingWrites.isEmpty() && pendingWrites.peekFirst().end() <= durablePosition) {
+            for (Task task : pendingWrites.pollFirst().tasks()) {
+                index.store(task);
+                // Unless a later pending write changed the task again
+                if (pendingTasks.get(task.getId()) == task) {
+                    pendingTasks.remove(task.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Forces the current segment and starts a new one. Must be called with the append lock held.
+     * @return The number of the new segment.
+     */
+    private long rotate() throws IOException {
+        Segment previous = segment;
+        if (fsync) {
+            previous.force();
+            markDurable(appended);
+            // A snapshot copies the index after rotating, and must find every record of the segments it replaces
+            publish(appended);
+        }
+        segment = Segment.create(segmentPath(previous.number + 1), previous.number + 1, segmentSize);
+        previous.close();
+        return segment.number;
+    }
+
+    /**
+     * Waits until the log has been forced past the given position, forcing it unless another writer is
+     * already doing so. One force covers every record appended before it started.
+     */
+    private void awaitDurable(long position) {
+        if (!fsync) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (durable < position) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = 0;
+                boolean forced = false;
+                syncLock.unlock();
+                try {
+                    // Read together, so that the segment holds every record up to the position, or earlier ones were
+                    // forced by the rotation that started it
+                    Segment current;
+                    appendLock.lock();
+                    try {
+                        target = appended;
+                        current = segment;
+                    } finally {
+                        appendLock.unlock();
+                    }
+                    current.force();
+                    forced = true;
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    if (forced) {
+                        durable = Math.max(durable, target);
+                    }
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void markDurable(long position) {
+        syncLock.lock();
+        try {
+            durable = Math.max(durable, position);
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Task log in " + directory + " is closed");
+        }
+    }
+
+    private void snapshotIfNeeded() {
+        if (appended - appendedAtSnapshot < snapshotThreshold) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            // The log is still complete, so the next attempt can catch up
+            logger.error("Failed to snapshot task log in {}", directory, e);
+        }
+    }
+
+    private Segment recover() throws IOException {
+        long firstUncovered = loadSnapshot();
+        List<Long> numbers = segmentNumbers();
+        Segment last = null;
+        for (long number : numbers) {
+            if (number < firstUncovered) {
+                // Left behind by a crash between writing a snapshot and cleaning up
+                Files.deleteIfExists(segmentPath(number));
+                continue;
+            }
+            if (last != null) {
+                last.close();
+            }
+            last = Segment.open(segmentPath(number), number, segmentSize);
+            int replayed = last.replay(index::store);
+            logger.info("Replayed {} records from {}", replayed, segmentPath(number));
+        }
+        return last != null ? last : Segment.create(segmentPath(firstUncovered), firstUncovered, segmentSize);
+    }
+
+    /**
+     * Loads the snapshot into the index, if there is one.
+     * @return The number of the first segment the snapshot does not cover.
+     */
+    private long loadSnapshot() throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException(path + " is not a task snapshot");
+            }
+            long firstUncovered = in.readLong();
+            long count = 0;
+            int length;
+            while ((length = in.readInt()) >= 0) {
+                int crc = in.readInt();
+                ByteBuffer payload = ByteBuffer.wrap(in.readNBytes(length));
+                // Snapshots are renamed into place once complete, so any damage is not a torn write
+                if (payload.limit() != length || TaskLogCodec.checksum(payload, 0, length) != crc) {
+                    throw new IOException("Corrupted record in " + path);
+                }
+                index.store(TaskLogCodec.readPayload(payload, 0));
+                count++;
+            }
+            if (in.readLong() != count) {
+                throw new IOException("Truncated snapshot " + path);
+            }
+            logger.info("Loaded {} tasks from {}", count, path);
+            return firstUncovered;
+        }
+    }
+
+    private void writeSnapshot(OutputStream stream, long firstUncovered) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(firstUncovered);
+        long[] count = new long[1];
+        ByteBuffer[] buffer = {ByteBuffer.allocate(4096)};
+        try {
+            index.streamAll(task -> {
+                buffer[0].clear();
+                buffer[0] = TaskLogCodec.writeRecord(buffer[0], task);
+                try {
+                    out.write(buffer[0].array(), 0, buffer[0].position());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.writeInt(-1);
+        out.writeLong(count[0]);
+        out.flush();
+    }
+
+    private List<Long> segmentNumbers() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_FILE.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("tasks-%020d.log", number));
+    }
+
+    private void forceDirectory() {
+        // Makes the rename durable; not supported on every platform, where the rename is durable on its own
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Could not force directory {}", directory, e);
+        }
+    }
+
+    /**
+     * One memory-mapped log file: a header holding the segment number, then records up to {@link #position}.
+     * The file is preallocated, so the bytes after the last record are zeros.
+     */
+    private static final class Segment {
+        final long number;
+        private final FileChannel channel;
+        private volatile MappedByteBuffer buffer;
+        // Guarded by the append lock of the repository
+        int position = SEGMENT_HEADER_SIZE;
+
+        private Segment(long number, FileChannel channel, MappedByteBuffer buffer) {
+            this.number = number;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path path, long number, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, SEGMENT_MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putLong(8, number);
+            buffer.force();
+            return new Segment(number, channel, buffer);
+        }
+
+        static Segment open(Path path, long number, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long mappedSize = Math.min(Math.max(size, channel.size()), MAX_SEGMENT_SIZE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+            if (buffer.getInt(0) != SEGMENT_MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getLong(8) != number) {
+                channel.close();
+                throw new IOException(path + " is not segment " + number + " of a task log");
+            }
+            return new Segment(number, channel, buffer);
+        }
+
+        /**
+         * Reads every valid record, leaving {@link #position} after the last one and zeroing the rest of the
+         * segment, torn record included.
+         * @return The number of records read.
+         */
+        int replay(Consumer<Task> consumer) {
+            MappedByteBuffer mapped = buffer;
+            int records = 0;
+            while (position + TaskLogCodec.RECORD_HEADER_SIZE <= mapped.capacity()) {
+                int length = mapped.getInt(position);
+                if (length == 0) {
+                    break;
+                }
+                int payloadOffset = position + TaskLogCodec.RECORD_HEADER_SIZE;
+                if (length < 0 || length > mapped.capacity() - payloadOffset
+                        || TaskLogCodec.checksum(mapped, payloadOffset, length) != mapped.getInt(position + 4)) {
+                    logger.warn("Discarded torn record at offset {} of segment {}", position, number);
+                    break;
+                }
+                consumer.accept(TaskLogCodec.readPayload(mapped, payloadOffset));
+                position = payloadOffset + length;
+                records++;
+            }
+            // Even after a zero length: the header of a torn record may be all that did not reach storage
+            if (zeroFrom(mapped, position)) {
+                logger.warn("Discarded unacknowledged bytes after offset {} of segment {}", position, number);
+            }
+            return records;
+        }
+
+        /**
+         * Zeroes the mapping from an offset to its end, writing only the chunks that are not zeros already, so that
+         * the clean tail of a preallocated segment is only read.
+         * @return true if anything was zeroed.
+         */
+        private static boolean zeroFrom(MappedByteBuffer mapped, int offset) {
+            ByteBuffer zeros = ByteBuffer.allocate(ZEROING_CHUNK_SIZE);
+            boolean zeroed = false;
+            for (int start = offset; start < mapped.capacity(); start += ZEROING_CHUNK_SIZE) {
+                int length = Math.min(ZEROING_CHUNK_SIZE, mapped.capacity() - start);
+                if (mapped.slice(start, length).mismatch(zeros.slice(0, length)) != -1) {
+                    mapped.put(start, zeros, 0, length);
+                    zeroed = true;
+                }
+            }
+            if (zeroed) {
+                mapped.force();
+            }
+            return zeroed;
+        }
+
+        /**
+         * Grows the mapping so that {@code size} more bytes fit.
+         * @return false if the segment cannot grow that much.
+         */
+        boolean ensureCapacity(int size) throws IOException {
+            MappedByteBuffer mapped = buffer;
+            long required = (long) position + size;
+            if (required <= mapped.capacity()) {
+                return true;
+            }
+            if (required > MAX_SEGMENT_SIZE) {
+                return false;
+            }
+            // Changes are only guaranteed to be forced through the mapping they were made with
+            mapped.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.min(Math.max(required, 2L * mapped.capacity()), MAX_SEGMENT_SIZE));
+            return true;
+        }
+
+        void append(ByteBuffer records, int size) {
+            buffer.put(position, records, 0, size);
+            position += size;
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Times every operation of the storage engine and records how many rows list queries return and how many
+ * lookups find nothing.
+ * <p>
+ * Meters are registered once, up front, so recording costs a clock read and a histogram update, without
+ * building tags or looking meters up on each call. Percentile histograms are enabled by the
+ * {@code management.metrics.distribution.percentiles-histogram.taskmanager} property.
+ */
+public class MeteredTaskRepository implements TaskRepository {
+
+    /**
+     * Timer of repository operations, tagged with {@code operation} and {@code outcome}.
+     */
+    public static final String TIMER_NAME = "taskmanager.repository";
+    /**
+     * Distribution of the number of tasks returned by list operations, tagged with {@code operation}.
+     */
+    public static final String ROWS_NAME = "taskmanager.repository.rows";
+    /**
+     * Counter of IDs that matched no task, tagged with {@code operation}.
+     */
+    public static final String NOT_FOUND_NAME = "taskmanager.repository.not.found";
+
+    private final TaskRepository delegate;
+    private final Operation create;
+    private final Operation createAll;
+    private final Operation findById;
+    private final Operation findAll;
+    private final Operation findPage;
+    private final Operation streamAll;
+    private final Operation update;
+    private final Operation complete;
+    private final Operation completeAll;
+    private final Operation countByCreationDay;
+    private final DistributionSummary findAllRows;
+    private final DistributionSummary findPageRows;
+    private final DistributionSummary streamAllRows;
+    private final Counter findByIdNotFound;
+    private final Counter completeAllNotFound;
+
+    /**
+     * Constructs a new MeteredTaskRepository.
+     * @param delegate The repository whose operations are measured.
+     * @param meterRegistry The registry the meters are registered with.
+     */
+    public MeteredTaskRepository(TaskRepository delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.create = new Operation("create", meterRegistry);
+        this.createAll = new Operation("createAll", meterRegistry);
+        this.findById = new Operation("findById", meterRegistry);
+        this.findAll = new Operation("findAll", meterRegistry);
+        this.findPage = new Operation("findPage", meterRegistry);
+        this.streamAll = new Operation("streamAll", meterRegistry);
+        this.update = new Operation("update", meterRegistry);
+        this.complete = new Operation("complete", meterRegistry);
+        this.completeAll = new Operation("completeAll", meterRegistry);
+        this.countByCreationDay = new Operation("countByCreationDay", meterRegistry);
+        this.findAllRows = rows("findAll", meterRegistry);
+        this.findPageRows = rows("findPage", meterRegistry);
+        this.streamAllRows = rows("streamAll", meterRegistry);
+        this.findByIdNotFound = notFound("findById", meterRegistry);
+        this.completeAllNotFound = notFound("completeAll", meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task create(Task task) {
+        return create.record(() -> delegate.create(task));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> createAll(List<Task> tasks) {
+        return createAll.record(() -> delegate.createAll(tasks));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> findById(UUID id) {
+        Optional<Task> task = findById.record(() -> delegate.findById(id));
+        if (task.isEmpty()) {
+            findByIdNotFound.increment();
+        }
+        return task;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findAll() {
+        List<Task> tasks = findAll.record(delegate::findAll);
+        findAllRows.record(tasks.size());
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        List<Task> tasks = findPage.record(() -> delegate.findPage(filter, after, limit));
+        findPageRows.record(tasks.size());
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void streamAll(Consumer<Task> consumer) {
+        // The consumer runs while rows are read, so this timer includes the time spent writing them out
+        long[] rows = new long[1];
+        streamAll.record(() -> {
+            delegate.streamAll(task -> {
+                rows[0]++;
+                consumer.accept(task);
+            });
+            return null;
+        });
+        streamAllRows.record(rows[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(Task task) {
+        update.record(() -> {
+            delegate.update(task);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> complete(UUID id) {
+        return complete.record(() -> delegate.complete(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionResult completeAll(Collection<UUID> ids) {
+        CompletionResult result = completeAll.record(() -> delegate.completeAll(ids));
+        completeAllNotFound.increment(result.getNotFound().size());
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DailyTaskCounts> countByCreationDay() {
+        return countByCreationDay.record(delegate::countByCreationDay);
+    }
+
+    private static DistributionSummary rows(String operation, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder(ROWS_NAME)
+                .description("Tasks returned by repository list operations")
+                .baseUnit("rows")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Counter notFound(String operation, MeterRegistry meterRegistry) {
+        return Counter.builder(NOT_FOUND_NAME)
+                .description("Task IDs that matched no task")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The success and error timers of one operation.
+     */
+    private static final class Operation {
+        private final Timer success;
+        private final Timer error;
+
+        Operation(String name, MeterRegistry meterRegistry) {
+            this.success = timer(name, "success", meterRegistry);
+            this.error = timer(name, "error", meterRegistry);
+        }
+
+        private static Timer timer(String operation, String outcome, MeterRegistry meterRegistry) {
+            return Timer.builder(TIMER_NAME)
+                    .description("Time spent in storage engine operations")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        <T> T record(Supplier<T> call) {
+            long start = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                T result = call.get();
+                succeeded = true;
+                return result;
+            } finally {
+                (succeeded ? success : error).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.sdd.taskmanager.repository;
+
+import javax.sql.DataSource;
+
+/**
+ * The read replicas {@link JdbcTaskRepository} may run reads on. Writes, and reads inside a transaction, which
+ * must see its writes, always run on the primary data source, except for streams in read-only transactions,
+ * such as the export, which run in a read-only transaction on a replica.
+ * <p>
+ * Replicas may lag behind the primary. Code that must read what was just written elsewhere, such as a client
+ * reading its own writes, runs its reads within {@link #usePrimary()}. So do reads whose result outlives the
+ * request: cache loads, shared by every client, and the reconciliation of the task counts.
+ */
+public final class ReadReplicas implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = ThreadLocal.withInitial(() -> false);
+
+    private final DataSource dataSource;
+
+    /**
+     * Constructs a new ReadReplicas.
+     * @param dataSource The data source handing out replica connections, closed with this object if it can be.
+     */
+    public ReadReplicas(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * A span of code whose reads run on the primary data source, ended by {@link #close()}.
+     */
+    public static final class PrimaryScope implements AutoCloseable {
+        private final boolean previous;
+
+        private PrimaryScope(boolean previous) {
+            this.previous = previous;
+        }
+
+        /**
+         * Ends the scope, restoring the routing of the enclosing code.
+         */
+        @Override
+        public void close() {
+            PRIMARY_REQUIRED.set(previous);
+        }
+    }
+
+    /**
+     * Routes the reads of the current thread to the primary data source until the returned scope is closed.
+     * @return The scope, to close in a try-with-resources statement.
+     */
+    public static PrimaryScope usePrimary() {
+        PrimaryScope scope = new PrimaryScope(PRIMARY_REQUIRED.get());
+        PRIMARY_REQUIRED.set(true);
+        return scope;
+    }
+
+    /**
+     * Tells whether the reads of the current thread must run on the primary data source.
+     * @return True within {@link #usePrimary()}.
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get();
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
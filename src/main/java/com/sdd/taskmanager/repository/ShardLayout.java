@@ -0,0 +1,86 @@
+package com.sdd.taskmanager.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The shard URLs of a {@link ShardedTaskRepository} as of its last completed rebalance, kept in the
+ * {@code shard_layout} table of a database outside the shards, so that a change of {@code taskmanager.sharding.urls}
+ * is noticed when the application restarts.
+ * <p>
+ * While the configured URLs differ from the recorded ones, tasks may be on another shard than the one they hash to.
+ * A shard dropped from the list must then be kept as a retired shard until a rebalance drains it: a layout that
+ * drops a recorded shard without retiring it is rejected, since its tasks could no longer be found.
+ */
+public class ShardLayout {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<String> urls;
+    private volatile boolean changed;
+
+    /**
+     * Constructs a new ShardLayout, recording the configured URLs if no layout was recorded yet.
+     * @param store The database the layout is kept in, with its {@code shard_layout} table created if missing.
+     * @param urls The configured shard URLs, in order.
+     * @param retiredUrls The configured URLs of the shards being drained.
+     * @throws IllegalStateException If a recorded shard is neither configured nor retired.
+     */
+    public ShardLayout(DataSource store, List<String> urls, List<String> retiredUrls) {
+        this.jdbcTemplate = new JdbcTemplate(store);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(store));
+        this.urls = List.copyOf(urls);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS shard_layout ("
+                + "position INT PRIMARY KEY, url VARCHAR(2000) NOT NULL)");
+
+        List<String> recorded = jdbcTemplate.queryForList(
+                "SELECT url FROM shard_layout ORDER BY position", String.class);
+        if (recorded.isEmpty()) {
+            // Nothing is known of former layouts: retired shards may still hold tasks
+            changed = !retiredUrls.isEmpty();
+            if (!changed) {
+                record();
+            }
+            return;
+        }
+        Set<String> lost = new LinkedHashSet<>(recorded);
+        lost.removeAll(urls);
+        lost.removeAll(retiredUrls);
+        if (!lost.isEmpty()) {
+            throw new IllegalStateException("Shards removed from taskmanager.sharding.urls must be listed in "
+                    + "taskmanager.sharding.retired-urls until a rebalance has drained them: " + lost);
+        }
+        changed = !recorded.equals(this.urls);
+    }
+
+    /**
+     * Tells whether the configured URLs differ from the recorded ones, i.e. whether tasks may be misplaced until
+     * a rebalance completes.
+     * @return True if the layout changed since the last completed rebalance.
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * Records the configured URLs as the layout every task is placed by, once a rebalance completed.
+     */
+    public void record() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM shard_layout");
+            List<Object[]> rows = new ArrayList<>(urls.size());
+            for (int i = 0; i < urls.size(); i++) {
+                rows.add(new Object[] {i, urls.get(i)});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO shard_layout (position, url) VALUES (?, ?)", rows);
+        });
+        changed = false;
+    }
+}
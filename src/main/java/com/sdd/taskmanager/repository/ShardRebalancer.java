@@ -0,0 +1,206 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves the tasks of a {@link ShardedTaskRepository} to the shard they hash to, after shards were added or
+ * retired. Only misplaced tasks move: growing from N to N + 1 shards moves about one task in N + 1, and every task
+ * of a retired shard moves.
+ * <p>
+ * Each shard is read in pages, in keyset order, so that deleting moved tasks does not shift the pages. A task is
+ * copied to its shard before it is deleted from the former one, and only deleted if it did not change in the
+ * meantime; otherwise its latest state is copied again. The repository keeps looking tasks up on every shard
+ * until a rebalance completes, from startup on if the {@link ShardLayout} changed since the last one.
+ */
+public class ShardRebalancer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+    // A task updated more often than it can be copied is left in place for a later rebalance
+    private static final int MAX_COPY_ATTEMPTS = 10;
+
+    private final ShardedTaskRepository repository;
+    private final int batchSize;
+    private final ShardLayout layout;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-rebalancer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong moved = new AtomicLong();
+    private volatile String failure;
+
+    /**
+     * Constructs a new ShardRebalancer.
+     * @param repository The repository whose tasks are moved.
+     * @param batchSize The number of tasks read and moved at once.
+     */
+    public ShardRebalancer(ShardedTaskRepository repository, int batchSize) {
+        this(repository, batchSize, null);
+    }
+
+    /**
+     * Constructs a new ShardRebalancer recording the layout once a rebalance completes. If the layout changed
+     * since the last one, the repository searches every shard from now on.
+     * @param repository The repository whose tasks are moved.
+     * @param batchSize The number of tasks read and moved at once.
+     * @param layout The recorded layout of the repository's shards, or null if it is not recorded.
+     */
+    public ShardRebalancer(ShardedTaskRepository repository, int batchSize, ShardLayout layout) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The rebalance batch size must be positive");
+        }
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.layout = layout;
+        if (layout != null && layout.isChanged()) {
+            repository.setRebalancing(true);
+        }
+    }
+
+    /**
+     * Starts rebalancing in the background, unless a rebalance is already running.
+     * @return True if a rebalance was started.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        // Set before returning, so that lookups search every shard as soon as the caller goes on
+        repository.setRebalancing(true);
+        executor.execute(this::run);
+        return true;
+    }
+
+    /**
+     * Rebalances on the caller's thread.
+     * @return The number of tasks moved.
+     * @throws IllegalStateException If a rebalance is already running.
+     */
+    public long rebalance() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A rebalance is already running");
+        }
+        repository.setRebalancing(true);
+        run();
+        if (failure != null) {
+            throw new IllegalStateException("Rebalance failed: " + failure);
+        }
+        return moved.get();
+    }
+
+    /**
+     * Returns the progress of the current or last rebalance.
+     * @return The number of shards and retired shards, whether the layout changed since the last completed
+     *         rebalance, whether a rebalance is running, the tasks scanned and moved, and the failure of the last
+     *         rebalance, if any.
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("shards", repository.shardCount());
+        status.put("retired", repository.retiredShardCount());
+        status.put("layoutChanged", layout != null && layout.isChanged());
+        status.put("running", running.get());
+        status.put("scanned", scanned.get());
+        status.put("moved", moved.get());
+        status.put("failure", failure);
+        return status;
+    }
+
+    /**
+     * Stops the background rebalance, if any, between two batches.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void run() {
+        scanned.set(0);
+        moved.set(0);
+        failure = null;
+        try {
+            for (int source = 0; source < repository.shardCount() + repository.retiredShardCount(); source++) {
+                drain(source);
+            }
+            if (layout != null) {
+                layout.record();
+            }
+            // Every task is on its shard: lookups no longer need to search the others
+            repository.setRebalancing(false);
+            logger.info("Rebalanced {} shards: {} tasks scanned, {} moved",
+                    repository.shardCount(), scanned.get(), moved.get());
+        } catch (RuntimeException e) {
+            failure = e.toString();
+            logger.error("Rebalance failed after moving {} tasks", moved.get(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Moves the misplaced tasks of one shard, a page at a time.
+     */
+    private void drain(int source) {
+        JdbcTaskRepository from = repository.shard(source);
+        TaskCursor after = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Task> page = from.findPage(TaskFilter.NONE, after, batchSize);
+            if (page.isEmpty()) {
+                return;
+            }
+            after = TaskCursor.after(page.get(page.size() - 1));
+            scanned.addAndGet(page.size());
+
+            Map<Integer, List<Task>> byTarget = new HashMap<>();
+            for (Task task : page) {
+                int target = repository.shardOf(task.getId());
+                if (target != source) {
+                    byTarget.computeIfAbsent(target, shard -> new ArrayList<>()).add(task);
+                }
+            }
+            byTarget.forEach((target, tasks) -> move(from, repository.shard(target), tasks));
+        }
+        throw new IllegalStateException("Rebalance interrupted");
+    }
+
+    private void move(JdbcTaskRepository from, JdbcTaskRepository to, List<Task> tasks) {
+        List<Task> pending = tasks;
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            if (attempt == MAX_COPY_ATTEMPTS) {
+                throw new IllegalStateException("Tasks keep changing while they are moved, e.g. " + pending.get(0).getId());
+            }
+            to.copyAll(pending);
+            List<Task> changed = from.deleteAllIfUnchanged(pending);
+            moved.addAndGet(pending.size() - changed.size());
+
+            // Copy the latest state of the tasks written since they were read, unless they are gone
+            List<Task> latest = new ArrayList<>();
+            for (Task task : changed) {
+                Optional<Task> current = from.findById(task.getId());
+                if (current.isPresent()) {
+                    latest.add(current.get());
+                } else {
+                    moved.incrementAndGet();
+                }
+            }
+            pending = latest;
+        }
+    }
+}
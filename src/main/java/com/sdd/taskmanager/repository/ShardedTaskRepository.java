@@ -0,0 +1,466 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Storage engine spreading tasks over several databases, each holding the {@code tasks} table of
+ * {@code schema.sql} and accessed through its own {@link JdbcTaskRepository}.
+ * <p>
+ * A task lives on the shard its ID hashes to, so lookups and writes of one task run on exactly one shard. Lists
+ * run on every shard at once, on virtual threads, and the per-shard results, each already in
+ * {@code (createdAt, id)} order, are merged. Writes are only atomic within a shard: {@code createAll} and
+ * {@code completeAll} may apply on some shards and fail on others.
+ * <p>
+ * After the number of shards changes, {@link ShardRebalancer} moves tasks to the shard they now hash to. Shards
+ * removed from the list are kept as retired shards until then: no task hashes to them, but lists read them and
+ * the rebalancer drains them. While tasks may be misplaced, lookups and writes that find nothing on the owning
+ * shard try the others, retired ones included, and lists may miss or repeat a task that is being moved.
+ */
+public class ShardedTaskRepository implements TaskRepository, AutoCloseable {
+
+    /**
+     * Timer of the operations run on each shard, tagged with {@code shard} and {@code operation}.
+     */
+    public static final String SHARD_TIMER_NAME = "taskmanager.repository.shard";
+
+    private static final List<String> OPERATIONS = List.of(
+            "create", "createAll", "findById", "findAll", "findPage", "streamAll", "update", "complete", "completeAll",
+            "countByCreationDay");
+
+    private final List<DataSource> dataSources;
+    private final List<Shard> shards = new ArrayList<>();
+    private final int shardCount;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-shards-", 0).factory());
+    private volatile boolean rebalancing;
+
+    /**
+     * Constructs a new ShardedTaskRepository.
+     * @param dataSources The databases of the shards, in order: a task's shard is its position in this list.
+     * @param streamFetchSize The number of rows fetched per round trip when streaming all tasks.
+     * @param meterRegistry The registry the per-shard timers are registered with.
+     */
+    public ShardedTaskRepository(List<DataSource> dataSources, int streamFetchSize, MeterRegistry meterRegistry) {
+        this(dataSources, List.of(), streamFetchSize, meterRegistry);
+    }
+
+    /**
+     * Constructs a new ShardedTaskRepository with retired shards.
+     * @param dataSources The databases of the shards, in order: a task's shard is its position in this list.
+     * @param retiredDataSources The databases of former shards, read until a rebalance has drained them.
+     * @param streamFetchSize The number of rows fetched per round trip when streaming all tasks.
+     * @param meterRegistry The registry the per-shard timers are registered with.
+     */
+    public ShardedTaskRepository(List<DataSource> dataSources, List<DataSource> retiredDataSources,
+                                 int streamFetchSize, MeterRegistry meterRegistry) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        List<DataSource> all = new ArrayList<>(dataSources);
+        all.addAll(retiredDataSources);
+        this.dataSources = List.copyOf(all);
+        this.shardCount = dataSources.size();
+        for (int i = 0; i < all.size(); i++) {
+            JdbcTaskRepository repository = new JdbcTaskRepository(new JdbcTemplate(all.get(i)), streamFetchSize);
+            shards.add(new Shard(i, repository, meterRegistry));
+        }
+    }
+
+    /**
+     * A shard's repository and the timers of its operations.
+     */
+    private static final class Shard {
+        private final JdbcTaskRepository repository;
+        private final Map<String, Timer> timers = new HashMap<>();
+
+        Shard(int index, JdbcTaskRepository repository, MeterRegistry meterRegistry) {
+            this.repository = repository;
+            for (String operation : OPERATIONS) {
+                timers.put(operation, Timer.builder(SHARD_TIMER_NAME)
+                        .description("Time spent in the operations of a shard")
+                        .tag("shard", Integer.toString(index))
+                        .tag("operation", operation)
+                        .register(meterRegistry));
+            }
+        }
+
+        <T> T record(String operation, Function<JdbcTaskRepository, T> call) {
+            long start = System.nanoTime();
+            try {
+                return call.apply(repository);
+            } finally {
+                timers.get(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task create(Task task) {
+        Task created = new Task(TimeOrderedUuids.next(), task.getTitle(), task.getDescription(), false,
+                ZonedDateTime.now(ZoneOffset.UTC));
+        owner(created.getId()).record("create", shard -> {
+            shard.insertAll(List.of(created));
+            return null;
+        });
+        return created;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Task> createAll(List<Task> tasks) {
+        ZonedDateTime createdAt = ZonedDateTime.now(ZoneOffset.UTC);
+        List<Task> createdTasks = new ArrayList<>(tasks.size());
+        Map<Shard, List<Task>> byShard = new HashMap<>();
+        for (Task task : tasks) {
+            Task created = new Task(TimeOrderedUuids.next(), task.getTitle(), task.getDescription(), false, createdAt);
+            createdTasks.add(created);
+            byShard.computeIfAbsent(owner(created.getId()), shard -> new ArrayList<>()).add(created);
+        }
+        scatterShards(new ArrayList<>(byShard.keySet()), shard -> shard.record("createAll", repository -> {
+            repository.insertAll(byShard.get(shard));
+            return null;
+        }));
+        return createdTasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> findById(UUID id) {
+        Shard owner = owner(id);
+        Optional<Task> task = owner.record("findById", repository -> repository.findById(id));
+        if (task.isEmpty() && rebalancing) {
+            for (Shard shard : shards) {
+                if (shard != owner) {
+                    task = shard.record("findById", repository -> repository.findById(id));
+                    if (task.isPresent()) {
+                        break;
+                    }
+                }
+            }
+        }
+        return task;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The tasks are in {@code (createdAt, id)} order.
+     */
+    @Override
+    public List<Task> findAll() {
+        return merge(scatter(shards, "findAll", repository -> repository.findPage(TaskFilter.NONE, null, Integer.MAX_VALUE)),
+                Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every shard reads up to {@code limit} tasks, of which the first {@code limit} in page order are kept.
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        return merge(scatter(shards, "findPage", repository -> repository.findPage(filter, after, limit)), limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Shards are streamed one after the other.
+     */
+    @Override
+    public void streamAll(Consumer<Task> consumer) {
+        for (Shard shard : shards) {
+            shard.record("streamAll", repository -> {
+                repository.streamAll(consumer);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(Task task) {
+        // A task being moved may still be on its former shard; updating every copy lets the rebalancer notice
+        List<Shard> targets = rebalancing ? shards : List.of(owner(task.getId()));
+        scatter(targets, "update", repository -> {
+            repository.update(task);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Task> complete(UUID id) {
+        Shard owner = owner(id);
+        Optional<Task> completed = owner.record("complete", repository -> repository.complete(id));
+        if (completed.isEmpty() && rebalancing) {
+            for (Shard shard : shards) {
+                if (shard != owner) {
+                    completed = shard.record("complete", repository -> repository.complete(id));
+                    if (completed.isPresent()) {
+                        break;
+                    }
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionResult completeAll(Collection<UUID> ids) {
+        Map<Shard, List<UUID>> byShard = new HashMap<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            byShard.computeIfAbsent(owner(id), shard -> new ArrayList<>()).add(id);
+        }
+        List<Shard> targets = new ArrayList<>(byShard.keySet());
+        List<CompletionResult> results = scatterShards(targets,
+                shard -> shard.record("completeAll", repository -> repository.completeAll(byShard.get(shard))));
+        List<Task> completed = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        for (CompletionResult result : results) {
+            completed.addAll(result.getCompleted());
+            notFound.addAll(result.getNotFound());
+        }
+        if (!notFound.isEmpty() && rebalancing) {
+            for (Shard shard : shards) {
+                List<UUID> remaining = notFound;
+                CompletionResult result = shard.record("completeAll", repository -> repository.completeAll(remaining));
+                completed.addAll(result.getCompleted());
+                notFound = new ArrayList<>(result.getNotFound());
+                if (notFound.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        return new CompletionResult(completed, notFound);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every shard counts its own tasks, and the counts of each day are added up.
+     */
+    @Override
+    public List<DailyTaskCounts> countByCreationDay() {
+        TreeMap<LocalDate, long[]> totals = new TreeMap<>();
+        for (List<DailyTaskCounts> days : scatter(shards, "countByCreationDay", JdbcTaskRepository::countByCreationDay)) {
+            for (DailyTaskCounts day : days) {
+                long[] counts = totals.computeIfAbsent(day.getDate(), date -> new long[2]);
+                counts[0] += day.getCreated();
+                counts[1] += day.getCompleted();
+            }
+        }
+        List<DailyTaskCounts> merged = new ArrayList<>(totals.size());
+        totals.forEach((date, counts) -> merged.add(new DailyTaskCounts(date, counts[0], counts[1])));
+        return merged;
+    }
+
+    /**
+     * Returns the number of shards.
+     * @return The number of shards tasks are placed on, retired ones excluded.
+     */
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Returns the number of retired shards.
+     * @return The number of former shards read until they are drained.
+     */
+    public int retiredShardCount() {
+        return shards.size() - shardCount;
+    }
+
+    /**
+     * Returns the shard a task belongs on. The ID is mixed before it is reduced to a shard, since the bits of
+     * time-ordered IDs are far from uniform.
+     * @param id The ID of the task.
+     * @return The position of the shard.
+     */
+    public int shardOf(UUID id) {
+        long hash = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+        // Finalizer of MurmurHash3
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) shardCount);
+    }
+
+    /**
+     * Returns the repository of a shard, for {@link ShardRebalancer}.
+     * @param index The position of the shard; retired shards follow the others.
+     * @return The repository of the shard.
+     */
+    JdbcTaskRepository shard(int index) {
+        return shards.get(index).repository;
+    }
+
+    /**
+     * Tells whether tasks may be on another shard than the one they hash to.
+     * @param rebalancing True while tasks are being moved between shards.
+     */
+    void setRebalancing(boolean rebalancing) {
+        this.rebalancing = rebalancing;
+    }
+
+    /**
+     * Stops the list threads and closes the shard databases that can be closed.
+     */
+    @Override
+    public void close() throws Exception {
+        executor.close();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Shard owner(UUID id) {
+        return shards.get(shardOf(id));
+    }
+
+    /**
+     * Runs an operation on the given shards at once, timing it on each.
+     */
+    private <T> List<T> scatter(List<Shard> targets, String operation, Function<JdbcTaskRepository, T> call) {
+        return scatterShards(targets, shard -> shard.record(operation, call));
+    }
+
+    /**
+     * Runs a call on the given shards at once, on the caller's thread when there is only one.
+     */
+    private <T> List<T> scatterShards(List<Shard> targets, Function<Shard, T> call) {
+        if (targets.size() == 1) {
+            return Collections.singletonList(call.apply(targets.get(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(targets.size());
+        for (Shard shard : targets) {
+            futures.add(CompletableFuture.supplyAsync(() -> call.apply(shard), executor));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Merges lists in {@code (createdAt, id)} order into one, keeping a task found on two shards once.
+     */
+    private static List<Task> merge(List<List<Task>> lists, int limit) {
+        if (lists.size() == 1) {
+            List<Task> tasks = lists.get(0);
+            return tasks.size() > limit ? tasks.subList(0, limit) : tasks;
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(lists.size());
+        int total = 0;
+        for (List<Task> list : lists) {
+            if (!list.isEmpty()) {
+                heads.add(new Head(list));
+                total += list.size();
+            }
+        }
+        List<Task> merged = new ArrayList<>(Math.min(total, limit));
+        Task last = null;
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            Task task = head.task;
+            if (last == null || task.getIdMostSigBits() != last.getIdMostSigBits()
+                    || task.getIdLeastSigBits() != last.getIdLeastSigBits()) {
+                merged.add(task);
+                last = task;
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * The next task of a list being merged. The task is read once per step: lists such as a
+     * {@link com.sdd.taskmanager.model.TaskBatch} build a new instance on each {@code get}.
+     */
+    private static final class Head implements Comparable<Head> {
+        private final List<Task> list;
+        private int position;
+        private Task task;
+
+        Head(List<Task> list) {
+            this.list = list;
+            this.task = list.get(0);
+        }
+
+        boolean advance() {
+            if (++position == list.size()) {
+                return false;
+            }
+            task = list.get(position);
+            return true;
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            Task a = task;
+            Task b = other.task;
+            int result = Long.compare(a.getCreatedAtEpochSecond(), b.getCreatedAtEpochSecond());
+            if (result == 0) {
+                result = Integer.compare(a.getCreatedAtNano(), b.getCreatedAtNano());
+            }
+            if (result == 0) {
+                result = Long.compareUnsigned(a.getIdMostSigBits(), b.getIdMostSigBits());
+            }
+            return result != 0 ? result : Long.compareUnsigned(a.getIdLeastSigBits(), b.getIdLeastSigBits());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sdd.taskmanager.repository;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * Exposes the {@link ShardRebalancer} at {@code /actuator/shards}: {@code POST /actuator/shards} starts moving
+ * tasks to their shard after the shard URLs changed, and {@code GET /actuator/shards} reports its progress.
+ */
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+
+    private final ShardRebalancer rebalancer;
+
+    /**
+     * Constructs a new ShardsEndpoint.
+     * @param rebalancer The rebalancer exposed.
+     */
+    public ShardsEndpoint(ShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    /**
+     * Returns the progress of the current or last rebalance.
+     * @return The status of the rebalancer.
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        return rebalancer.status();
+    }
+
+    /**
+     * Starts a rebalance in the background, unless one is already running.
+     * @return The status of the rebalancer.
+     */
+    @WriteOperation
+    public Map<String, Object> rebalance() {
+        rebalancer.start();
+        return rebalancer.status();
+    }
+}
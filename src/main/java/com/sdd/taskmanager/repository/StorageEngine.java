@@ -0,0 +1,26 @@
+package com.sdd.taskmanager.repository;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Qualifies the {@link TaskRepository} implementation that actually stores tasks, as opposed to the decorated
+ * primary repository the rest of the application uses. Exactly one storage engine is active, chosen with the
+ * {@value #PROPERTY} property.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD, ElementType.PARAMETER, ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Qualifier
+public @interface StorageEngine {
+
+    /**
+     * Property selecting the storage engine.
+     */
+    String PROPERTY = "taskmanager.repository.engine";
+}
@@ -0,0 +1,26 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+
+import java.util.List;
+
+/**
+ * Receives the tasks written through the application's {@link TaskRepository}, once the write is committed.
+ * Listeners are called on the writing thread and must return quickly; an exception thrown by a listener is
+ * logged and does not affect the write nor the other listeners.
+ */
+public interface TaskChangeListener {
+    /**
+     * Called after tasks were created.
+     * @param tasks The created tasks, with their IDs and creation timestamps.
+     */
+    default void tasksCreated(List<Task> tasks) {
+    }
+
+    /**
+     * Called after tasks were updated or completed.
+     * @param tasks The tasks in their new state.
+     */
+    default void tasksUpdated(List<Task> tasks) {
+    }
+}
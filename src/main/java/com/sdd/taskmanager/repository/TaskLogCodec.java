@@ -0,0 +1,107 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary encoding of tasks shared by the log and the snapshots of {@link LogTaskRepository}.
+ * <p>
+ * A task is encoded as its ID (two longs), creation instant (epoch second, nanosecond), completion flag,
+ * title and description (length-prefixed UTF-8, length -1 for a null description). Every record is framed as
+ * {@code [int length][int crc][payload]}, where the CRC-32C covers the payload. Records always hold the full
+ * state of a task, so replaying a record twice is harmless.
+ */
+final class TaskLogCodec {
+
+    /**
+     * Size of the {@code length} and {@code crc} fields preceding each payload.
+     */
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private TaskLogCodec() {
+    }
+
+    /**
+     * Appends a framed record holding the task to the buffer, growing it if needed.
+     * @param buffer The buffer to write to, in write mode.
+     * @param task The task to encode.
+     * @return The buffer the record was written to, which is a new buffer if the given one was too small.
+     */
+    static ByteBuffer writeRecord(ByteBuffer buffer, Task task) {
+        byte[] title = task.getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] description = task.getDescription() == null ? null : task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int payloadSize = 8 + 8 + 8 + 4 + 1 + 4 + title.length + 4 + (description == null ? 0 : description.length);
+
+        if (buffer.remaining() < RECORD_HEADER_SIZE + payloadSize) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + RECORD_HEADER_SIZE + payloadSize));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+
+        int start = buffer.position();
+        buffer.putInt(payloadSize);
+        buffer.putInt(0); // CRC, filled in once the payload is written
+        Instant createdAt = task.getCreatedAt().toInstant();
+        buffer.putLong(task.getId().getMostSignificantBits());
+        buffer.putLong(task.getId().getLeastSignificantBits());
+        buffer.putLong(createdAt.getEpochSecond());
+        buffer.putInt(createdAt.getNano());
+        buffer.put(task.isCompleted() ? (byte) 1 : (byte) 0);
+        buffer.putInt(title.length);
+        buffer.put(title);
+        if (description == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(description.length);
+            buffer.put(description);
+        }
+        buffer.putInt(start + 4, checksum(buffer, start + RECORD_HEADER_SIZE, payloadSize));
+        return buffer;
+    }
+
+    /**
+     * Computes the CRC-32C of a range of a buffer without changing its position.
+     * @param buffer The buffer.
+     * @param offset The absolute index of the first byte.
+     * @param length The number of bytes.
+     * @return The checksum, truncated to an int.
+     */
+    static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Decodes the payload of a record.
+     * @param buffer The buffer holding the payload.
+     * @param offset The absolute index of the first payload byte.
+     * @return The decoded task.
+     */
+    static Task readPayload(ByteBuffer buffer, int offset) {
+        ByteBuffer payload = buffer.slice(offset, buffer.limit() - offset);
+        long idMostSigBits = payload.getLong();
+        long idLeastSigBits = payload.getLong();
+        long createdAtEpochSecond = payload.getLong();
+        int createdAtNano = payload.getInt();
+        boolean completed = payload.get() != 0;
+        String title = readString(payload);
+        String description = readString(payload);
+        return new Task(idMostSigBits, idLeastSigBits, title, description, completed, createdAtEpochSecond, createdAtNano);
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,10 +1,16 @@
 package com.sdd.taskmanager.repository;
 
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
 import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TaskRepository {
     /**
@@ -13,6 +19,13 @@ public interface TaskRepository {
      * @return The created task with its generated ID and creation timestamp.
      */
     Task create(Task task);
+    /**
+     * Creates several tasks at once, in as few round trips as the storage allows.
+     * Callers wanting all-or-nothing semantics must run this inside a transaction.
+     * @param tasks The task objects to create.
+     * @return The created tasks with their generated IDs and creation timestamps, in input order.
+     */
+    List<Task> createAll(List<Task> tasks);
     /**
      * Finds a task by its unique ID.
      * @param id The UUID of the task to find.
@@ -24,9 +37,42 @@ public interface TaskRepository {
      * @return A list of all tasks.
      */
     List<Task> findAll();
+    /**
+     * Retrieves up to {@code limit} tasks matching the filter, ordered by creation time then ID, starting strictly
+     * after the given cursor. Implementations must seek directly to the cursor position so that every page costs
+     * the same as the first, and must not read tasks the filter excludes when an index can avoid it.
+     * @param filter The conditions the tasks must meet, {@link TaskFilter#NONE} for all tasks.
+     * @param after The position to start after, or null to start from the oldest task.
+     * @param limit The maximum number of tasks to return.
+     * @return The matching tasks following the cursor, in {@code (createdAt, id)} order.
+     */
+    List<Task> findPage(TaskFilter filter, TaskCursor after, int limit);
+    /**
+     * Streams every task to the given consumer, one at a time, without materializing the full result.
+     * @param consumer The callback receiving each task as it is read.
+     */
+    void streamAll(Consumer<Task> consumer);
     /**
      * Updates an existing task in the repository.
      * @param task The task object with updated information.
      */
     void update(Task task);
+    /**
+     * Marks a task as completed with a single conditional write that only matches open tasks.
+     * @param id The UUID of the task to complete.
+     * @return The task in its completed state if this call completed it, or empty if no open task has
+     *         this ID (it does not exist or was already completed).
+     */
+    Optional<Task> complete(UUID id);
+    /**
+     * Marks several tasks as completed using batched conditional writes.
+     * @param ids The UUIDs of the tasks to complete. Duplicates are ignored.
+     * @return The tasks completed by this call and the IDs that matched no task.
+     */
+    CompletionResult completeAll(Collection<UUID> ids);
+    /**
+     * Counts the tasks by the day they were created on, in UTC, in a single pass over the storage.
+     * @return The number of tasks created and of those completed, for every day with tasks, oldest first.
+     */
+    List<DailyTaskCounts> countByCreationDay();
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.sdd.taskmanager.repository;
+
+/**
+ * Wraps the storage engine's {@link TaskRepository} with cross-cutting behaviour (caching, notifications...).
+ * Every decorator bean is applied in ascending {@link org.springframework.core.annotation.Order} order, so the
+ * decorator with the lowest order sits closest to the storage engine.
+ */
+@FunctionalInterface
+public interface TaskRepositoryDecorator {
+    /**
+     * Decorates a repository.
+     * @param delegate The repository to wrap.
+     * @return The decorated repository.
+     */
+    TaskRepository decorate(TaskRepository delegate);
+}
@@ -0,0 +1,121 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskStats;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the stored tasks as they are written, so that statistics are read without querying storage. Counters
+ * are {@link LongAdder}s, which concurrent writers increment without contending on a single memory location.
+ * <p>
+ * Creations are counted by the day the task was created on, and a completion on that day too, so that the
+ * counts of each day match what storage holds. Every task written as completed counts as a completion: the
+ * application only completes open tasks, so this holds unless tasks are updated directly. The counts are
+ * replaced by those read from storage on {@link #reconcile}, which also corrects writes made by other processes;
+ * a write committed while storage is counted may be missed or counted twice until the next reconciliation.
+ */
+public class TaskStatistics implements TaskChangeListener {
+
+    private volatile Counts counts = new Counts(null);
+
+    /**
+     * The counters of one reconciliation period, replaced as a whole so that readers never see a partial reset.
+     */
+    private static final class Counts {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final ConcurrentNavigableMap<LocalDate, Day> days = new ConcurrentSkipListMap<>();
+        private final ZonedDateTime reconciledAt;
+
+        Counts(ZonedDateTime reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+        Day day(Task task) {
+            LocalDate date = task.getCreatedAt().withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+            Day day = days.get(date);
+            return day != null ? day : days.computeIfAbsent(date, key -> new Day());
+        }
+    }
+
+    /**
+     * The counters of one creation day.
+     */
+    private static final class Day {
+        private final LongAdder created = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tasksCreated(List<Task> tasks) {
+        Counts current = counts;
+        current.total.add(tasks.size());
+        for (Task task : tasks) {
+            current.day(task).created.increment();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tasksUpdated(List<Task> tasks) {
+        Counts current = counts;
+        for (Task task : tasks) {
+            if (task.isCompleted()) {
+                current.completed.increment();
+                current.day(task).completed.increment();
+            }
+        }
+    }
+
+    /**
+     * Replaces the counts with those read from storage.
+     * @param stored The counts of every day with tasks, as read from storage.
+     */
+    public void reconcile(List<DailyTaskCounts> stored) {
+        Counts reconciled = new Counts(ZonedDateTime.now(ZoneOffset.UTC));
+        for (DailyTaskCounts day : stored) {
+            Day counters = new Day();
+            counters.created.add(day.getCreated());
+            counters.completed.add(day.getCompleted());
+            reconciled.days.put(day.getDate(), counters);
+            reconciled.total.add(day.getCreated());
+            reconciled.completed.add(day.getCompleted());
+        }
+        counts = reconciled;
+    }
+
+    /**
+     * Returns the current counts.
+     * @param days The maximum number of days returned, the most recent ones with tasks.
+     * @return The counts of all tasks and of the most recent days, oldest first.
+     */
+    public TaskStats snapshot(int days) {
+        Counts current = counts;
+        List<DailyTaskCounts> recent = new ArrayList<>(Math.min(days, current.days.size()));
+        for (Map.Entry<LocalDate, Day> entry : current.days.descendingMap().entrySet()) {
+            if (recent.size() == days) {
+                break;
+            }
+            Day day = entry.getValue();
+            recent.add(new DailyTaskCounts(entry.getKey(), day.created.sum(), day.completed.sum()));
+        }
+        Collections.reverse(recent);
+        return new TaskStats(current.total.sum(), current.completed.sum(), recent, current.reconciledAt);
+    }
+}
@@ -0,0 +1,94 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts committed task writes, so that readers can tell whether anything changed since a previous read without
+ * querying storage. Every batch of writes increments a global version and records it as the version of each
+ * task written.
+ * <p>
+ * The versions of the most recently written tasks are kept, up to a maximum. A task that is not tracked,
+ * because it was not written since startup or its entry was evicted, gets the floor version: the startup version
+ * raised to every evicted version, which is at least the version of its last write. Versions therefore never
+ * stay the same across a write, although an eviction may change the version of untouched tasks.
+ * <p>
+ * Versions start from the startup time in microseconds, so they keep increasing across restarts as long as
+ * fewer than a million writes per second are made and the clock does not go back. Writes made by other
+ * processes sharing the database are not seen.
+ */
+public class TaskVersionTracker implements TaskChangeListener {
+
+    private final Map<UUID, Long> taskVersions;
+    private long version;
+    private long floor;
+
+    /**
+     * Constructs a new TaskVersionTracker.
+     * @param maximumTrackedTasks The maximum number of tasks whose own version is kept.
+     */
+    public TaskVersionTracker(int maximumTrackedTasks) {
+        if (maximumTrackedTasks < 0) {
+            throw new IllegalArgumentException("The maximum number of tracked tasks must not be negative");
+        }
+        this.version = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.floor = version;
+        this.taskVersions = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                if (size() <= maximumTrackedTasks) {
+                    return false;
+                }
+                floor = Math.max(floor, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the version of the whole task collection.
+     * @return The version of the last committed write.
+     */
+    public synchronized long currentVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the version of one task.
+     * @param id The ID of the task.
+     * @return A version that changes whenever the task is written.
+     */
+    public synchronized long versionOf(UUID id) {
+        return taskVersions.getOrDefault(id, floor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tasksCreated(List<Task> tasks) {
+        written(tasks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tasksUpdated(List<Task> tasks) {
+        written(tasks);
+    }
+
+    private synchronized void written(List<Task> tasks) {
+        version++;
+        for (Task task : tasks) {
+            // Re-insert so that the map stays ordered by version and the eldest entry is the oldest write
+            taskVersions.remove(task.getId());
+            taskVersions.put(task.getId(), version);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.sdd.taskmanager.search;
+
+import java.util.Arrays;
+
+/**
+ * The documents containing one term, with the number of occurrences in each, in increasing document order.
+ * Entries are stored as variable-length integers: the gap from the previous document then the frequency, so
+ * most entries of a common term take two bytes.
+ */
+final class PostingList {
+
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int lastDocument = -1;
+    private int documentCount;
+
+    /**
+     * Appends a document, which must be greater than every document already in the list.
+     * @param document The document number.
+     * @param frequency The number of occurrences of the term in the document.
+     */
+    void add(int document, int frequency) {
+        if (length + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 10));
+        }
+        writeVarInt(document - lastDocument);
+        writeVarInt(frequency);
+        lastDocument = document;
+        documentCount++;
+    }
+
+    /**
+     * Returns the number of documents in the list.
+     * @return The document frequency of the term.
+     */
+    int documentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Returns the memory used by the encoded entries.
+     * @return The number of bytes allocated.
+     */
+    int sizeInBytes() {
+        return bytes.length;
+    }
+
+    /**
+     * Shrinks the buffer to the encoded entries, for lists that will rarely grow again.
+     */
+    void trim() {
+        bytes = Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Returns a cursor positioned before the first entry.
+     * @return A new cursor.
+     */
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    /**
+     * Reads the entries of the list in order. A cursor only sees the entries present when it was created.
+     */
+    final class Cursor {
+        private final byte[] source = bytes;
+        private final int end = length;
+        private int position;
+        private int document = -1;
+        private int frequency;
+
+        /**
+         * Moves to the next entry.
+         * @return False if there is no next entry.
+         */
+        boolean next() {
+            if (position >= end) {
+                return false;
+            }
+            document += readVarInt();
+            frequency = readVarInt();
+            return true;
+        }
+
+        int document() {
+            return document;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = source[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
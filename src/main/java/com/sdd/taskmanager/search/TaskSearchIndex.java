@@ -0,0 +1,348 @@
+package com.sdd.taskmanager.search;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.repository.TaskChangeListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of task titles and descriptions, ranked with BM25.
+ * <p>
+ * Each indexed task is a document numbered in indexing order. Every term maps to a {@link PostingList} of the
+ * documents containing it, delta and variable-length encoded. A task that changes is indexed again under a new
+ * number and its previous document is only marked deleted, so that posting lists are append-only; once deleted
+ * documents make up a quarter of the index, the lists are rewritten without them and documents renumbered.
+ * Title terms count {@value #TITLE_WEIGHT} times, so that a match in the title ranks above one in the description.
+ * <p>
+ * Queries match any of their terms. Posting lists are merged document by document and only the best
+ * {@code limit} documents are kept in a heap, so memory per query does not depend on the number of matches.
+ * Reads run concurrently; writes are serialized and exclude reads.
+ */
+public class TaskSearchIndex implements TaskChangeListener, MeterBinder {
+
+    static final int TITLE_WEIGHT = 2;
+    // Standard BM25 parameters: term frequency saturation and document length normalization
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<UUID, Integer> documents = new HashMap<>();
+    private final int minDeletedToCompact;
+    private long[] mostSigBits = new long[1024];
+    private long[] leastSigBits = new long[1024];
+    private int[] documentLengths = new int[1024];
+    private BitSet deleted = new BitSet();
+    private int documentCount;
+    private int deletedCount;
+    private long totalLength;
+
+    /**
+     * Constructs a new, empty TaskSearchIndex.
+     */
+    public TaskSearchIndex() {
+        this(MIN_DELETED_TO_COMPACT);
+    }
+
+    TaskSearchIndex(int minDeletedToCompact) {
+        this.minDeletedToCompact = minDeletedToCompact;
+    }
+
+    /**
+     * A matching task and its relevance.
+     */
+    public static final class Hit {
+        private final UUID id;
+        private final float score;
+        private final int document;
+
+        Hit(UUID id, float score, int document) {
+            this.id = id;
+            this.score = score;
+            this.document = document;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * Indexes a task, replacing what was indexed for it before.
+     * @param task The task in its current state.
+     */
+    public void index(Task task) {
+        lock.writeLock().lock();
+        try {
+            add(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a task unless it is already indexed, e.g. when rebuilding the index from storage while changes
+     * are indexed concurrently: whatever was indexed from a change is at least as recent as the stored row read.
+     * @param task The task as read from storage.
+     */
+    public void indexIfAbsent(Task task) {
+        lock.writeLock().lock();
+        try {
+            if (!documents.containsKey(task.getId())) {
+                add(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tasksCreated(List<Task> tasks) {
+        indexAll(tasks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tasksUpdated(List<Task> tasks) {
+        indexAll(tasks);
+    }
+
+    private void indexAll(List<Task> tasks) {
+        lock.writeLock().lock();
+        try {
+            tasks.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the tasks most relevant to a query.
+     * @param query Free text; its terms are looked up in titles and descriptions.
+     * @param limit The maximum number of hits.
+     * @return The hits, most relevant first.
+     */
+    public List<Hit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        TextTokenizer.tokenize(query, terms::add);
+        lock.readLock().lock();
+        try {
+            int liveDocuments = documentCount - deletedCount;
+            if (terms.isEmpty() || liveDocuments == 0 || limit <= 0) {
+                return List.of();
+            }
+            float averageLength = (float) totalLength / liveDocuments;
+            PriorityQueue<TermCursor> merge = new PriorityQueue<>(Comparator.comparingInt(TermCursor::document));
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    TermCursor cursor = new TermCursor(list, idf(list.documentCount(), liveDocuments));
+                    if (cursor.next()) {
+                        merge.add(cursor);
+                    }
+                }
+            }
+
+            Comparator<Hit> rank = Comparator.<Hit>comparingDouble(hit -> hit.score).thenComparingInt(hit -> hit.document);
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, rank);
+            while (!merge.isEmpty()) {
+                int document = merge.peek().document();
+                float score = 0;
+                while (!merge.isEmpty() && merge.peek().document() == document) {
+                    TermCursor cursor = merge.poll();
+                    score += cursor.score(documentLengths[document], averageLength);
+                    if (cursor.next()) {
+                        merge.add(cursor);
+                    }
+                }
+                if (deleted.get(document)) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(new Hit(id(document), score, document));
+                } else if (score > best.peek().score) {
+                    best.poll();
+                    best.add(new Hit(id(document), score, document));
+                }
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(rank.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks indexed.
+     * @return The number of live documents.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns an estimate of the memory held by the posting lists and per-document arrays, excluding the term
+     * and ID dictionaries.
+     * @return The number of bytes.
+     */
+    public long postingsSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) mostSigBits.length * 20;
+            for (PostingList list : postings.values()) {
+                bytes += list.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("taskmanager.search.documents", this, TaskSearchIndex::size)
+                .description("Tasks in the full-text search index")
+                .register(registry);
+        Gauge.builder("taskmanager.search.postings.size", this, TaskSearchIndex::postingsSizeInBytes)
+                .description("Memory held by the posting lists of the full-text search index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void add(Task task) {
+        Integer previous = documents.get(task.getId());
+        if (previous != null) {
+            deleted.set(previous);
+            deletedCount++;
+            totalLength -= documentLengths[previous];
+            if (deletedCount >= minDeletedToCompact && deletedCount * 4 >= documentCount) {
+                compact();
+            }
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        TextTokenizer.tokenize(task.getTitle(), term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        TextTokenizer.tokenize(task.getDescription(), term -> frequencies.merge(term, 1, Integer::sum));
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        int document = documentCount++;
+        if (document == mostSigBits.length) {
+            int capacity = mostSigBits.length * 2;
+            mostSigBits = Arrays.copyOf(mostSigBits, capacity);
+            leastSigBits = Arrays.copyOf(leastSigBits, capacity);
+            documentLengths = Arrays.copyOf(documentLengths, capacity);
+        }
+        mostSigBits[document] = task.getId().getMostSignificantBits();
+        leastSigBits[document] = task.getId().getLeastSignificantBits();
+        documentLengths[document] = length;
+        totalLength += length;
+        documents.put(task.getId(), document);
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new PostingList()).add(document, frequency));
+    }
+
+    /**
+     * Rewrites the posting lists without deleted documents and renumbers the remaining ones, keeping their order.
+     */
+    private void compact() {
+        int[] renumbered = new int[documentCount];
+        int live = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (deleted.get(document)) {
+                renumbered[document] = -1;
+            } else {
+                renumbered[document] = live;
+                mostSigBits[live] = mostSigBits[document];
+                leastSigBits[live] = leastSigBits[document];
+                documentLengths[live] = documentLengths[document];
+                live++;
+            }
+        }
+        postings.replaceAll((term, list) -> {
+            PostingList compacted = new PostingList();
+            PostingList.Cursor cursor = list.cursor();
+            while (cursor.next()) {
+                int document = renumbered[cursor.document()];
+                if (document >= 0) {
+                    compacted.add(document, cursor.frequency());
+                }
+            }
+            compacted.trim();
+            return compacted;
+        });
+        postings.values().removeIf(list -> list.documentCount() == 0);
+        documents.replaceAll((id, document) -> renumbered[document]);
+        documentCount = live;
+        deletedCount = 0;
+        deleted = new BitSet();
+    }
+
+    private UUID id(int document) {
+        return new UUID(mostSigBits[document], leastSigBits[document]);
+    }
+
+    private static float idf(int documentFrequency, int documentCount) {
+        // Document frequencies still count deleted documents until the next compaction, hence the floor at 0
+        return (float) Math.log(1 + Math.max(0, documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * Position in the posting list of one query term, with the term's weight.
+     */
+    private static final class TermCursor {
+        private final PostingList.Cursor cursor;
+        private final float idf;
+
+        TermCursor(PostingList list, float idf) {
+            this.cursor = list.cursor();
+            this.idf = idf;
+        }
+
+        boolean next() {
+            return cursor.next();
+        }
+
+        int document() {
+            return cursor.document();
+        }
+
+        float score(int documentLength, float averageLength) {
+            int frequency = cursor.frequency();
+            return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * documentLength / averageLength));
+        }
+    }
+}
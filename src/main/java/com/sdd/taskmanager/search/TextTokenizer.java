@@ -0,0 +1,40 @@
+package com.sdd.taskmanager.search;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into search terms: maximal runs of letters and digits, lower-cased. Terms longer than
+ * {@value #MAX_TERM_LENGTH} characters are dropped, as they are almost never searched for and would bloat the
+ * term dictionary.
+ */
+final class TextTokenizer {
+
+    static final int MAX_TERM_LENGTH = 40;
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * Emits every term of a text, in order and with repetitions.
+     * @param text The text, possibly null.
+     * @param terms The callback receiving each term.
+     */
+    static void tokenize(String text, Consumer<String> terms) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inTerm = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inTerm && start < 0) {
+                start = i;
+            } else if (!inTerm && start >= 0) {
+                if (i - start <= MAX_TERM_LENGTH) {
+                    terms.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.sdd.taskmanager.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.sdd.taskmanager.model.Task;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * Writes a {@link Task} field by field instead of through Jackson's reflective bean serializer, and formats
+ * {@code createdAt} by hand instead of with a {@link DateTimeFormatter}. Lists of tasks, including the task list
+ * and change feed responses and the NDJSON export, use it for every element.
+ * <p>
+ * The output is the one of the bean serializer under the application's Jackson configuration, with dates written
+ * as ISO-8601 strings in their own offset: same field order, nulls included, and the variable-length fraction of
+ * {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME}. It applies to every format the application's mappers write,
+ * so CBOR responses carry the same fields and strings as JSON ones.
+ */
+@JsonComponent
+public class TaskSerializer extends StdSerializer<Task> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString COMPLETED = new SerializedString("completed");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    // Longest date-time written by hand: 2026-10-17T00:01:29.123456789+05:30:15
+    private static final int MAX_DATE_TIME_LENGTH = 38;
+
+    /**
+     * Constructs a new TaskSerializer.
+     */
+    public TaskSerializer() {
+        super(Task.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serialize(Task task, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(task);
+        generator.writeFieldName(ID);
+        UUID id = task.getId();
+        if (id != null) {
+            generator.writeString(id.toString());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeFieldName(TITLE);
+        generator.writeString(task.getTitle());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(task.getDescription());
+        generator.writeFieldName(COMPLETED);
+        generator.writeBoolean(task.isCompleted());
+        generator.writeFieldName(CREATED_AT);
+        ZonedDateTime createdAt = task.getCreatedAt();
+        if (createdAt != null) {
+            char[] buffer = new char[MAX_DATE_TIME_LENGTH];
+            int length = formatDateTime(createdAt, buffer);
+            if (length >= 0) {
+                generator.writeString(buffer, 0, length);
+            } else {
+                generator.writeString(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(createdAt));
+            }
+        } else {
+            generator.writeNull();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Formats a date-time as {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} does: seconds always written, the
+     * fraction only when not zero and without trailing zeros, and {@code Z} for a zero offset.
+     * @param dateTime The date-time.
+     * @param buffer Where the characters are written, of at least {@value #MAX_DATE_TIME_LENGTH} characters.
+     * @return The number of characters written, or -1 for years outside 0 to 9999, which the formatter writes
+     *         with a sign or more digits.
+     */
+    static int formatDateTime(ZonedDateTime dateTime, char[] buffer) {
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, dateTime.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, dateTime.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, dateTime.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, dateTime.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, dateTime.getSecond(), 2);
+        int length = 19;
+
+        int nano = dateTime.getNano();
+        if (nano != 0) {
+            buffer[length] = '.';
+            writeDigits(buffer, length + 1, nano, 9);
+            length += 10;
+            while (buffer[length - 1] == '0') {
+                length--;
+            }
+        }
+
+        int offset = dateTime.getOffset().getTotalSeconds();
+        if (offset == 0) {
+            buffer[length++] = 'Z';
+            return length;
+        }
+        buffer[length++] = offset < 0 ? '-' : '+';
+        int absolute = Math.abs(offset);
+        writeDigits(buffer, length, absolute / 3600, 2);
+        buffer[length + 2] = ':';
+        writeDigits(buffer, length + 3, absolute / 60 % 60, 2);
+        length += 5;
+        if (absolute % 60 != 0) {
+            buffer[length] = ':';
+            writeDigits(buffer, length + 1, absolute % 60, 2);
+            length += 3;
+        }
+        return length;
+    }
+
+    /**
+     * Writes a non-negative number as a fixed number of decimal digits, zero-padded on the left.
+     */
+    private static void writeDigits(char[] buffer, int position, int value, int digits) {
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
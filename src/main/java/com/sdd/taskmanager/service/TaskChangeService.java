@@ -0,0 +1,24 @@
+package com.sdd.taskmanager.service;
+
+import com.sdd.taskmanager.feed.TaskChangeFeed;
+import com.sdd.taskmanager.model.TaskChangeBatch;
+import com.sdd.taskmanager.model.TaskChangeCursor;
+
+public interface TaskChangeService {
+    /**
+     * Reads the task changes committed after a cursor: tasks created, updated or completed. When the changes
+     * after the cursor are no longer kept in memory, every task is sent instead, read from storage one batch
+     * at a time, before the changes made meanwhile are replayed.
+     * @param since The cursor returned with the previous batch, or null to start from the next change.
+     * @param limit The maximum number of changes in the batch.
+     * @return The changes, oldest first, possibly none, with the cursor to read the next ones.
+     */
+    TaskChangeBatch readChanges(TaskChangeCursor since, int limit);
+    /**
+     * Runs a callback once changes can be read from a cursor, right away if they already can.
+     * @param cursor The cursor of the next batch.
+     * @param callback The callback, run on a feed thread; it should read the changes and return quickly.
+     * @return The registration, to cancel when the consumer goes away.
+     */
+    TaskChangeFeed.Waiter awaitChanges(TaskChangeCursor cursor, Runnable callback);
+}
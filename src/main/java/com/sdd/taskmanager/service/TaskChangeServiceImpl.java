@@ -0,0 +1,82 @@
+package com.sdd.taskmanager.service;
+
+import com.sdd.taskmanager.feed.TaskChangeFeed;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskChange;
+import com.sdd.taskmanager.model.TaskChangeBatch;
+import com.sdd.taskmanager.model.TaskChangeCursor;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import com.sdd.taskmanager.repository.ReadReplicas;
+import com.sdd.taskmanager.repository.TaskRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class TaskChangeServiceImpl implements TaskChangeService {
+
+    private final TaskRepository taskRepository;
+    private final TaskChangeFeed feed;
+
+    /**
+     * Constructs a new TaskChangeServiceImpl.
+     * @param taskRepository The repository tasks are read from when resynchronizing a consumer.
+     * @param feed The feed of recent task changes.
+     */
+    public TaskChangeServiceImpl(TaskRepository taskRepository, TaskChangeFeed feed) {
+        this.taskRepository = taskRepository;
+        this.feed = feed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * A cursor from another run of the application is resynchronized like a cursor too old.
+     */
+    @Override
+    public TaskChangeBatch readChanges(TaskChangeCursor since, int limit) {
+        if (since == null) {
+            return new TaskChangeBatch(List.of(), TaskChangeCursor.at(feed.getGeneration(), feed.head()));
+        }
+        if (!since.isResync() && since.getGeneration() == feed.getGeneration()) {
+            Optional<List<TaskChange>> changes = feed.read(since.getSequence(), limit);
+            if (changes.isPresent()) {
+                TaskChangeCursor next = TaskChangeCursor.at(since.getGeneration(), since.getSequence() + changes.get().size());
+                return new TaskChangeBatch(changes.get(), next);
+            }
+        }
+        return resync(since, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskChangeFeed.Waiter awaitChanges(TaskChangeCursor cursor, Runnable callback) {
+        boolean following = !cursor.isResync() && cursor.getGeneration() == feed.getGeneration();
+        // Any other sequence number than the head makes the feed call back right away
+        return feed.awaitChanges(following ? cursor.getSequence() : -1, callback);
+    }
+
+    /**
+     * Sends the next batch of every task, then moves the consumer to the feed position taken when the
+     * resynchronization started: replaying from there also covers the tasks changed while it was running.
+     */
+    private TaskChangeBatch resync(TaskChangeCursor since, int limit) {
+        boolean started = since.isResync() && since.getGeneration() == feed.getGeneration();
+        // Take the feed position before reading storage, so that no change committed meanwhile is skipped
+        long sequence = started ? since.getSequence() : feed.head();
+        TaskCursor after = started ? since.getResyncAfter() : null;
+        List<Task> tasks;
+        // A lagging replica could miss changes committed before that position
+        try (ReadReplicas.PrimaryScope primary = ReadReplicas.usePrimary()) {
+            tasks = taskRepository.findPage(TaskFilter.NONE, after, limit);
+        }
+        List<TaskChange> changes = tasks.stream().map(task -> new TaskChange(TaskChange.Type.SNAPSHOT, task)).toList();
+        TaskChangeCursor next = tasks.size() < limit
+                ? TaskChangeCursor.at(feed.getGeneration(), sequence)
+                : TaskChangeCursor.resyncing(feed.getGeneration(), sequence, TaskCursor.after(tasks.get(tasks.size() - 1)));
+        return new TaskChangeBatch(changes, next);
+    }
+}
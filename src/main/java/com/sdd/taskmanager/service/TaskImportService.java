@@ -0,0 +1,22 @@
+package com.sdd.taskmanager.service;
+
+import com.sdd.taskmanager.dto.ImportFormat;
+import com.sdd.taskmanager.dto.ImportSummary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+public interface TaskImportService {
+    /**
+     * Imports tasks from a line-oriented upload. Each line is validated against the
+     * {@link com.sdd.taskmanager.dto.CreateTaskRequest} constraints; valid lines are inserted in batches,
+     * each batch in its own transaction, and invalid lines are reported without aborting the import.
+     * The upload is consumed as a stream, so memory use does not depend on its size, nor on the length of its
+     * lines: a line too long to hold a valid task is rejected without being read into memory.
+     * @param reader The upload body, read line by line.
+     * @param format The format of each line.
+     * @return A summary of accepted and rejected lines.
+     * @throws IOException if the upload cannot be read.
+     */
+    ImportSummary importTasks(BufferedReader reader, ImportFormat format) throws IOException;
+}
@@ -0,0 +1,242 @@
+package com.sdd.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sdd.taskmanager.dto.CreateTaskRequest;
+import com.sdd.taskmanager.dto.ImportError;
+import com.sdd.taskmanager.dto.ImportFormat;
+import com.sdd.taskmanager.dto.ImportSummary;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.repository.TaskRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class TaskImportServiceImpl implements TaskImportService {
+
+    private static final String CSV_HEADER = "title,description";
+
+    /**
+     * The longest line read: a valid task with every character escaped as a six-character JSON escape, plus room for
+     * field names, quotes and whitespace. Longer lines are rejected without being buffered.
+     */
+    static final int MAX_LINE_LENGTH =
+            6 * (CreateTaskRequest.MAX_TITLE_LENGTH + CreateTaskRequest.MAX_DESCRIPTION_LENGTH) + 1024;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+    private final int maxErrors;
+
+    /**
+     * Constructs a new TaskImportServiceImpl.
+     * @param taskRepository The repository the imported tasks are written to.
+     * @param transactionManager The transaction manager used to commit each batch.
+     * @param validator The validator enforcing the CreateTaskRequest constraints.
+     * @param objectMapper The ObjectMapper used to parse NDJSON lines.
+     * @param batchSize The number of tasks inserted per batch and per transaction.
+     * @param maxErrors The maximum number of rejected lines detailed in the summary.
+     */
+    public TaskImportServiceImpl(TaskRepository taskRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 @Value("${taskmanager.import.batch-size:1000}") int batchSize,
+                                 @Value("${taskmanager.import.max-errors:100}") int maxErrors) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Import batch size must be positive");
+        }
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(CreateTaskRequest.class);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ImportSummary importTasks(BufferedReader reader, ImportFormat format) throws IOException {
+        List<Task> batch = new ArrayList<>(batchSize);
+        List<ImportError> errors = new ArrayList<>();
+        long accepted = 0;
+        long rejected = 0;
+        long lineNumber = 0;
+        boolean firstRecord = true;
+
+        StringBuilder buffer = new StringBuilder();
+        int length;
+        while ((length = readLine(reader, buffer)) >= 0) {
+            lineNumber++;
+            String error;
+            if (length > MAX_LINE_LENGTH) {
+                firstRecord = false;
+                error = "Line exceeds " + MAX_LINE_LENGTH + " characters";
+            } else {
+                String line = buffer.toString();
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (firstRecord && format == ImportFormat.CSV && line.trim().equalsIgnoreCase(CSV_HEADER)) {
+                    firstRecord = false;
+                    continue;
+                }
+                firstRecord = false;
+
+                try {
+                    CreateTaskRequest request = format == ImportFormat.CSV ? parseCsv(line) : parseJson(line);
+                    error = validate(request);
+                    if (error == null) {
+                        batch.add(new Task(request.getTitle(), request.getDescription()));
+                    }
+                } catch (MalformedLineException e) {
+                    error = e.getMessage();
+                }
+            }
+
+            if (error != null) {
+                rejected++;
+                if (errors.size() < maxErrors) {
+                    errors.add(new ImportError(lineNumber, error));
+                }
+            }
+            if (batch.size() == batchSize) {
+                accepted += flush(batch);
+            }
+        }
+        accepted += flush(batch);
+        return new ImportSummary(accepted, rejected, errors, rejected > errors.size());
+    }
+
+    /**
+     * Reads the next line into {@code line}, ended like {@link BufferedReader#readLine()} ends lines, keeping at
+     * most {@link #MAX_LINE_LENGTH} characters of it: the rest of a longer line is skipped, not buffered.
+     * @return The length of the line, at most one more than {@link #MAX_LINE_LENGTH}, or -1 at the end of the input.
+     */
+    private static int readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (c == '\n') {
+                return length;
+            }
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                return length;
+            }
+            if (length < MAX_LINE_LENGTH) {
+                line.append((char) c);
+            }
+            // Stops one past the maximum, so that no line is long enough to overflow it
+            length = Math.min(length + 1, MAX_LINE_LENGTH + 1);
+        }
+        return length > 0 ? length : -1;
+    }
+
+    private int flush(List<Task> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        transactionTemplate.executeWithoutResult(status -> taskRepository.createAll(batch));
+        batch.clear();
+        return size;
+    }
+
+    private String validate(CreateTaskRequest request) {
+        Set<ConstraintViolation<CreateTaskRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private CreateTaskRequest parseJson(String line) {
+        try {
+            CreateTaskRequest request = requestReader.readValue(line);
+            if (request == null) {
+                throw new MalformedLineException("Expected a JSON object");
+            }
+            return request;
+        } catch (JsonProcessingException e) {
+            throw new MalformedLineException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Parses a {@code title,description} record. Fields may be enclosed in double quotes, in which case
+     * commas are literal and a doubled quote stands for one quote.
+     */
+    private CreateTaskRequest parseCsv(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (wasQuoted) {
+                if (!Character.isWhitespace(c)) {
+                    throw new MalformedLineException("Unexpected character after closing quote at column " + (i + 1));
+                }
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new MalformedLineException("Unterminated quoted field");
+        }
+        fields.add(wasQuoted ? field.toString() : field.toString().trim());
+
+        if (fields.size() > 2) {
+            throw new MalformedLineException("Expected at most 2 fields (title,description) but found " + fields.size());
+        }
+        String title = fields.get(0);
+        String description = fields.size() > 1 && !fields.get(1).isEmpty() ? fields.get(1) : null;
+        return new CreateTaskRequest(title, description);
+    }
+
+    private static final class MalformedLineException extends RuntimeException {
+        MalformedLineException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
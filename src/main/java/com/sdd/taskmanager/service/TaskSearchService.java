@@ -0,0 +1,21 @@
+package com.sdd.taskmanager.service;
+
+import com.sdd.taskmanager.model.Task;
+
+import java.util.List;
+
+public interface TaskSearchService {
+    /**
+     * Finds the tasks whose title or description best match a free-text query. Tasks match if they contain any
+     * of the query's words, case-insensitively, and rank higher the more of them, and the rarer, they contain.
+     * @param query The words to look for.
+     * @param limit The maximum number of tasks to return.
+     * @return The matching tasks, most relevant first.
+     */
+    List<Task> search(String query, int limit);
+    /**
+     * Indexes every stored task that is not indexed yet, e.g. on startup. Changes made through the application
+     * meanwhile are indexed as they happen and take precedence over the stored rows read.
+     */
+    void rebuildIndex();
+}
@@ -0,0 +1,51 @@
+package com.sdd.taskmanager.service;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.repository.TaskRepository;
+import com.sdd.taskmanager.search.TaskSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Timed(value = "taskmanager.service", description = "Time spent in task service operations")
+public class TaskSearchServiceImpl implements TaskSearchService {
+
+    private final TaskRepository taskRepository;
+    private final TaskSearchIndex searchIndex;
+
+    /**
+     * Constructs a new TaskSearchServiceImpl.
+     * @param taskRepository The repository the matching tasks are read from.
+     * @param searchIndex The full-text index of the tasks.
+     */
+    public TaskSearchServiceImpl(TaskRepository taskRepository, TaskSearchIndex searchIndex) {
+        this.taskRepository = taskRepository;
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The index only holds IDs, so the tasks themselves are read by ID, one lookup per hit.
+     */
+    @Override
+    public List<Task> search(String query, int limit) {
+        List<Task> tasks = new ArrayList<>(limit);
+        for (TaskSearchIndex.Hit hit : searchIndex.search(query, limit)) {
+            taskRepository.findById(hit.getId()).ifPresent(tasks::add);
+        }
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        taskRepository.streamAll(searchIndex::indexIfAbsent);
+    }
+}
@@ -1,10 +1,17 @@
 package com.sdd.taskmanager.service;
 
+import com.sdd.taskmanager.model.CompletionResult;
 import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import com.sdd.taskmanager.model.TaskPage;
+import com.sdd.taskmanager.model.TaskStats;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface TaskService {
     /**
@@ -25,10 +32,53 @@ public interface TaskService {
      */
     List<Task> findAllTasks();
     /**
-     * Marks a task as complete.
+     * Retrieves a page of the tasks matching a filter, ordered by creation time, using keyset pagination.
+     * @param filter The conditions the tasks must meet, {@link TaskFilter#NONE} for all tasks.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks in the page.
+     * @return The page of tasks, with the cursor of the next page if more matching tasks remain.
+     */
+    TaskPage findTaskPage(TaskFilter filter, TaskCursor after, int limit);
+    /**
+     * Streams every task to the given consumer without loading them all into memory.
+     * @param consumer The callback receiving each task.
+     */
+    void exportTasks(Consumer<Task> consumer);
+    /**
+     * Marks a task as complete. Completing an already completed task is a no-op.
      * @param id The ID of the task to complete.
      * @return The completed task.
      * @throws com.sdd.taskmanager.exception.TaskNotFoundException if the task is not found.
      */
     Task completeTask(UUID id);
-}
\ No newline at end of file
+    /**
+     * Marks several tasks as complete in one transaction.
+     * @param ids The IDs of the tasks to complete.
+     * @return The tasks completed by this call and the IDs that matched no task.
+     */
+    CompletionResult completeTasks(Collection<UUID> ids);
+    /**
+     * Returns the version of the task collection, which changes whenever a task is created, updated or completed.
+     * Reading it does not query storage.
+     * @return The current version.
+     */
+    long getTasksVersion();
+    /**
+     * Returns the version of a task, which changes whenever that task is updated or completed.
+     * Reading it does not query storage.
+     * @param id The ID of the task.
+     * @return The current version of the task.
+     */
+    long getTaskVersion(UUID id);
+    /**
+     * Returns the number of tasks, completed and pending, overall and by creation day. The counts are kept up to
+     * date as tasks are written and reconciled with storage periodically, so reading them does not query storage.
+     * @param days The maximum number of days returned, the most recent ones with tasks.
+     * @return The task counts.
+     */
+    TaskStats getTaskStats(int days);
+    /**
+     * Replaces the task counts with those read from storage, correcting any drift, e.g. on startup.
+     */
+    void reconcileTaskStats();
+}
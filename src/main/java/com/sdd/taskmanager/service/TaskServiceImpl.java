@@ -1,25 +1,44 @@
 package com.sdd.taskmanager.service;
 
 import com.sdd.taskmanager.exception.TaskNotFoundException;
+import com.sdd.taskmanager.model.CompletionResult;
 import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import com.sdd.taskmanager.model.TaskPage;
+import com.sdd.taskmanager.model.TaskStats;
+import com.sdd.taskmanager.repository.ReadReplicas;
 import com.sdd.taskmanager.repository.TaskRepository;
+import com.sdd.taskmanager.repository.TaskStatistics;
+import com.sdd.taskmanager.repository.TaskVersionTracker;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
+@Timed(value = "taskmanager.service", description = "Time spent in task service operations")
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskVersionTracker versionTracker;
+    private final TaskStatistics statistics;
 
     /**
      * Constructs a new TaskServiceImpl with the given TaskRepository.
      * @param taskRepository The repository responsible for task data access.
+     * @param versionTracker The tracker of committed task writes.
+     * @param statistics The counts of committed task writes.
      */
-    public TaskServiceImpl(TaskRepository taskRepository) {
+    public TaskServiceImpl(TaskRepository taskRepository, TaskVersionTracker versionTracker, TaskStatistics statistics) {
         this.taskRepository = taskRepository;
+        this.versionTracker = versionTracker;
+        this.statistics = statistics;
     }
 
     /**
@@ -46,15 +65,84 @@ public class TaskServiceImpl implements TaskService {
         return taskRepository.findAll();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskPage findTaskPage(TaskFilter filter, TaskCursor after, int limit) {
+        // Fetch one extra row to know whether a next page exists without a separate COUNT query
+        List<Task> tasks = taskRepository.findPage(filter, after, limit + 1);
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
+        }
+        List<Task> page = tasks.subList(0, limit);
+        return new TaskPage(page, TaskCursor.after(page.get(limit - 1)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Runs in a read-only transaction so that drivers which only honour the fetch size inside a
+     * transaction (e.g. PostgreSQL) use a server-side cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(Consumer<Task> consumer) {
+        taskRepository.streamAll(consumer);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Task completeTask(UUID id) {
-        Task task = taskRepository.findById(id)
+        // The conditional update is the only round trip in the common case; the lookup only runs when
+        // nothing matched, to tell an already completed task from a missing one
+        return taskRepository.complete(id)
+                .or(() -> taskRepository.findById(id))
                 .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " not found"));
-        task.setCompleted(true);
-        taskRepository.update(task);
-        return task;
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public CompletionResult completeTasks(Collection<UUID> ids) {
+        return taskRepository.completeAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTasksVersion() {
+        return versionTracker.currentVersion();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTaskVersion(UUID id) {
+        return versionTracker.versionOf(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskStats getTaskStats(int days) {
+        return statistics.snapshot(days);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reconcileTaskStats() {
+        // Counted on the primary: a lagging replica would undo the counts of its latest writes
+        try (ReadReplicas.PrimaryScope primary = ReadReplicas.usePrimary()) {
+            statistics.reconcile(taskRepository.countByCreationDay());
+        }
+    }
+}
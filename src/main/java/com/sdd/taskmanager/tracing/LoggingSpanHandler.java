@@ -0,0 +1,25 @@
+package com.sdd.taskmanager.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the spans it receives, standing in for the Zipkin reporter when span export is disabled, e.g. to see
+ * which traces tail sampling keeps without a Zipkin server.
+ */
+public class LoggingSpanHandler extends SpanHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingSpanHandler.class);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        logger.info("{}", span);
+        return true;
+    }
+}
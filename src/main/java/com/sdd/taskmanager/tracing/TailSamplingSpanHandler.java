@@ -0,0 +1,117 @@
+package com.sdd.taskmanager.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reports the traces that were not sampled when they started but that {@link TraceSamplingPolicy} keeps once
+ * they end. Tracing must record every span locally for this handler to see them
+ * ({@code Tracing.Builder.alwaysSampleLocal()}); sampled spans are left to the regular reporter.
+ * <p>
+ * Child spans are buffered by local root until the root span ends, then all of them are reported or dropped
+ * together. At most {@code maxPendingTraces} traces are buffered, for at most {@value #PENDING_TIMEOUT_MINUTES}
+ * minute, so that traces whose root never ends do not hold on to memory.
+ */
+public class TailSamplingSpanHandler extends SpanHandler implements Closeable {
+
+    static final int PENDING_TIMEOUT_MINUTES = 1;
+
+    private final TraceSamplingPolicy policy;
+    private final SpanHandler reporter;
+    private final ConcurrentMap<Long, List<Pending>> pending;
+
+    /**
+     * Constructs a new TailSamplingSpanHandler.
+     * @param policy The policy deciding which traces are kept.
+     * @param reporter Where kept spans are sent. It must report spans whether or not they were sampled.
+     * @param maxPendingTraces The maximum number of traces whose child spans are buffered at a time.
+     */
+    public TailSamplingSpanHandler(TraceSamplingPolicy policy, SpanHandler reporter, int maxPendingTraces) {
+        this.policy = policy;
+        this.reporter = reporter;
+        this.pending = Caffeine.newBuilder()
+                .maximumSize(maxPendingTraces)
+                .expireAfterWrite(Duration.ofMinutes(PENDING_TIMEOUT_MINUTES))
+                .<Long, List<Pending>>build()
+                .asMap();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (Boolean.TRUE.equals(context.sampled())) {
+            return true;
+        }
+        if (!context.isLocalRoot()) {
+            if (cause == Cause.FINISHED) {
+                buffer(context, span);
+            }
+            return true;
+        }
+        List<Pending> children = pending.remove(context.localRootId());
+        if (cause == Cause.FINISHED && policy.decide(span) != null) {
+            if (children != null) {
+                synchronized (children) {
+                    children.forEach(child -> reporter.end(child.context, child.span, Cause.FINISHED));
+                }
+            }
+            reporter.end(context, span, Cause.FINISHED);
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean handlesAbandoned() {
+        // Abandoned root spans release their buffered children
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (reporter instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Returns the number of traces whose child spans are buffered.
+     * @return The number of pending traces.
+     */
+    int pendingTraces() {
+        return pending.size();
+    }
+
+    private void buffer(TraceContext context, MutableSpan span) {
+        List<Pending> children = pending.computeIfAbsent(context.localRootId(), id -> new ArrayList<>());
+        synchronized (children) {
+            children.add(new Pending(context, span));
+        }
+    }
+
+    private static final class Pending {
+        private final TraceContext context;
+        private final MutableSpan span;
+
+        Pending(TraceContext context, MutableSpan span) {
+            this.context = context;
+            this.span = span;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sdd.taskmanager.tracing;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the {@link TraceSamplingPolicy} at {@code /actuator/tracesampling}, to tune sampling without a restart.
+ * For example, {@code POST /actuator/tracesampling} with
+ * {@code {"endpoint": "GET /api/v1/tasks", "rate": 0.05}} reports 5% of the list requests.
+ */
+@Endpoint(id = "tracesampling")
+public class TraceSamplingEndpoint {
+
+    private final TraceSamplingPolicy policy;
+
+    /**
+     * Constructs a new TraceSamplingEndpoint.
+     * @param policy The policy exposed.
+     */
+    public TraceSamplingEndpoint(TraceSamplingPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Returns the current sampling settings.
+     * @return The traces per second, the slow threshold in milliseconds and the rates by endpoint.
+     */
+    @ReadOperation
+    public Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("tracesPerSecond", policy.getTracesPerSecond());
+        settings.put("slowThresholdMillis", policy.getSlowThreshold().toMillis());
+        settings.put("endpointRates", policy.getEndpointRates());
+        return settings;
+    }
+
+    /**
+     * Changes the given sampling settings and leaves the others as they are.
+     * @param tracesPerSecond The maximum number of traces sampled per second when they start.
+     * @param slowThresholdMillis The duration in milliseconds beyond which a trace is always reported.
+     * @param endpoint The endpoint whose rate is changed, e.g. {@code GET /api/v1/tasks}.
+     * @param rate The probability of reporting other traces of the endpoint, or none to remove it.
+     * @return The updated settings.
+     * @throws InvalidEndpointRequestException If a setting is out of range, which is reported as 400 Bad Request.
+     */
+    @WriteOperation
+    public Map<String, Object> update(@Nullable Integer tracesPerSecond, @Nullable Long slowThresholdMillis,
+                                      @Nullable String endpoint, @Nullable Double rate) {
+        try {
+            if (tracesPerSecond != null) {
+                policy.setTracesPerSecond(tracesPerSecond);
+            }
+            if (slowThresholdMillis != null) {
+                policy.setSlowThreshold(Duration.ofMillis(slowThresholdMillis));
+            }
+            if (endpoint != null) {
+                policy.setEndpointRate(endpoint, rate);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return settings();
+    }
+}
@@ -0,0 +1,200 @@
+package com.sdd.taskmanager.tracing;
+
+import brave.handler.MutableSpan;
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which traces are reported, in two steps.
+ * <p>
+ * When a trace starts, it is sampled up to a fixed number of traces per second, which bounds the reporting
+ * cost whatever the load. Such traces are reported as usual and their decision is propagated downstream.
+ * <p>
+ * Traces that were not sampled are still recorded locally and decided on once their local root span ends, by
+ * {@link TailSamplingSpanHandler}: they are kept if they were slower than a threshold or failed, and otherwise
+ * with the probability configured for their endpoint, if any.
+ * <p>
+ * All settings can be changed at runtime, through {@link TraceSamplingEndpoint}.
+ */
+public class TraceSamplingPolicy extends Sampler {
+
+    /**
+     * Name of the counter of reported traces, tagged with the {@code reason} they were kept for.
+     */
+    public static final String METRIC_NAME = "taskmanager.tracing.sampled";
+
+    /**
+     * Why a trace was reported.
+     */
+    public enum Reason {
+        /** Sampled when it started, within the traces per second budget. */
+        RATE,
+        /** Its local root span lasted longer than the slow threshold. */
+        SLOW,
+        /** It ended with an exception or an error status. */
+        ERROR,
+        /** Drawn with the probability configured for its endpoint. */
+        ENDPOINT
+    }
+
+    private final Map<Reason, Counter> sampled = new ConcurrentHashMap<>();
+    private final Map<String, Double> endpointRates = new ConcurrentHashMap<>();
+    private volatile int tracesPerSecond;
+    private volatile Sampler rateSampler;
+    private volatile Duration slowThreshold;
+
+    /**
+     * Constructs a new TraceSamplingPolicy.
+     * @param tracesPerSecond The maximum number of traces sampled per second when they start.
+     * @param slowThreshold The duration beyond which a trace is always reported.
+     * @param endpointRates Probabilities of reporting other traces, by endpoint such as {@code GET /api/v1/tasks}.
+     * @param meterRegistry The registry the sampling decisions are counted in.
+     */
+    public TraceSamplingPolicy(int tracesPerSecond, Duration slowThreshold, Map<String, Double> endpointRates,
+                               MeterRegistry meterRegistry) {
+        setTracesPerSecond(tracesPerSecond);
+        setSlowThreshold(slowThreshold);
+        endpointRates.forEach(this::setEndpointRate);
+        for (Reason reason : Reason.values()) {
+            sampled.put(reason, Counter.builder(METRIC_NAME)
+                    .description("Traces reported, by sampling reason")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSampled(long traceId) {
+        boolean isSampled = rateSampler.isSampled(traceId);
+        if (isSampled) {
+            sampled.get(Reason.RATE).increment();
+        }
+        return isSampled;
+    }
+
+    /**
+     * Decides whether a trace that was not sampled when it started is reported after all.
+     * @param localRoot The span that started the trace in this application, once finished.
+     * @return Why the trace should be reported, or null to drop it.
+     */
+    public Reason decide(MutableSpan localRoot) {
+        Reason reason = reasonFor(localRoot);
+        if (reason != null) {
+            sampled.get(reason).increment();
+        }
+        return reason;
+    }
+
+    private Reason reasonFor(MutableSpan localRoot) {
+        if (isError(localRoot)) {
+            return Reason.ERROR;
+        }
+        long durationMicros = localRoot.finishTimestamp() - localRoot.startTimestamp();
+        if (durationMicros > slowThreshold.toNanos() / 1000) {
+            return Reason.SLOW;
+        }
+        Double rate = endpointRates.get(endpoint(localRoot));
+        if (rate != null && ThreadLocalRandom.current().nextDouble() < rate) {
+            return Reason.ENDPOINT;
+        }
+        return null;
+    }
+
+    private static boolean isError(MutableSpan span) {
+        if (span.error() != null || span.tag("error") != null) {
+            return true;
+        }
+        String exception = span.tag("exception");
+        if (exception != null && !exception.equals("none")) {
+            return true;
+        }
+        // Handled exceptions such as TaskNotFoundException only show as the response status
+        String status = span.tag("status");
+        return status != null && status.length() == 3 && status.charAt(0) >= '4';
+    }
+
+    /**
+     * Returns the endpoint of an HTTP server span, as used for the per-endpoint rates.
+     * @param span The span.
+     * @return The method and URI template, e.g. {@code GET /api/v1/tasks}, or the span name for other spans.
+     */
+    static String endpoint(MutableSpan span) {
+        String method = span.tag("method");
+        String uri = span.tag("uri");
+        return method != null && uri != null ? method + " " + uri : span.name();
+    }
+
+    /**
+     * Returns the maximum number of traces sampled per second when they start.
+     * @return The number of traces per second.
+     */
+    public int getTracesPerSecond() {
+        return tracesPerSecond;
+    }
+
+    /**
+     * Sets the maximum number of traces sampled per second when they start.
+     * @param tracesPerSecond The number of traces per second, 0 to rely on tail sampling only.
+     */
+    public void setTracesPerSecond(int tracesPerSecond) {
+        if (tracesPerSecond < 0) {
+            throw new IllegalArgumentException("Traces per second must not be negative");
+        }
+        this.rateSampler = RateLimitingSampler.create(tracesPerSecond);
+        this.tracesPerSecond = tracesPerSecond;
+    }
+
+    /**
+     * Returns the duration beyond which a trace is always reported.
+     * @return The slow threshold.
+     */
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    /**
+     * Sets the duration beyond which a trace is always reported.
+     * @param slowThreshold The slow threshold.
+     */
+    public void setSlowThreshold(Duration slowThreshold) {
+        if (slowThreshold.isNegative()) {
+            throw new IllegalArgumentException("Slow threshold must not be negative");
+        }
+        this.slowThreshold = slowThreshold;
+    }
+
+    /**
+     * Returns the probabilities of reporting traces that are neither slow nor failed, by endpoint.
+     * @return A sorted copy of the rates.
+     */
+    public Map<String, Double> getEndpointRates() {
+        return new TreeMap<>(endpointRates);
+    }
+
+    /**
+     * Sets or removes the probability of reporting traces of an endpoint that are neither slow nor failed.
+     * @param endpoint The method and URI template, e.g. {@code GET /api/v1/tasks}.
+     * @param rate The probability between 0 and 1, or null to remove it.
+     */
+    public void setEndpointRate(String endpoint, Double rate) {
+        if (rate == null) {
+            endpointRates.remove(endpoint);
+            return;
+        }
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Rate of " + endpoint + " must be between 0 and 1");
+        }
+        endpointRates.put(endpoint, rate);
+    }
+}
@@ -0,0 +1,5 @@
+-- Adds the indexes behind the filters of GET /api/v1/tasks (completed, createdFrom/createdTo, titlePrefix).
+-- schema.sql creates them on every start, so this is only needed for databases that outlive the application,
+-- e.g. a file-based H2 database. Running it again is harmless.
+CREATE INDEX IF NOT EXISTS idx_tasks_completed_created_at_id ON tasks (completed, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_title ON tasks (title);
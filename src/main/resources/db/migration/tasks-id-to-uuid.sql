@@ -0,0 +1,10 @@
+-- Migrates an existing tasks table from VARCHAR(36) ids to the native 16-byte UUID type.
+-- schema.sql recreates the table on every start, so this is only needed for databases that outlive the
+-- application, e.g. a file-based H2 database. Existing ids keep their value; new rows get time-ordered
+-- (version 7) ids from the application.
+--
+-- H2 converts each value with CAST(id AS UUID) and rebuilds the primary key and the indexes using it.
+-- The statement fails, leaving the table unchanged, if any id is not a valid UUID string.
+-- On PostgreSQL the equivalent is: ALTER TABLE tasks ALTER COLUMN id TYPE uuid USING id::uuid;
+ALTER TABLE tasks ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT RANDOM_UUID();
@@ -1,9 +1,18 @@
 DROP TABLE IF EXISTS tasks;
 
 CREATE TABLE tasks (
-    id VARCHAR(36) DEFAULT RANDOM_UUID() PRIMARY KEY,
+    id UUID DEFAULT RANDOM_UUID() PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
     description VARCHAR(1000),
     completed BOOLEAN DEFAULT FALSE NOT NULL,
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
 );
+
+-- Supports keyset pagination: ORDER BY created_at, id with a (created_at, id) > (?, ?) seek
+CREATE INDEX idx_tasks_created_at_id ON tasks (created_at, id);
+
+-- Supports filtering on completion status, alone or with a created_at range, in page order
+CREATE INDEX idx_tasks_completed_created_at_id ON tasks (completed, created_at, id);
+
+-- Supports title prefix filters (title LIKE 'prefix%'); matches are sorted into page order
+CREATE INDEX idx_tasks_title ON tasks (title);
@@ -0,0 +1,109 @@
+package com.sdd.taskmanager.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long THRESHOLD_NANOS = Duration.ofMillis(100).toNanos();
+
+    private final AdaptiveConcurrencyLimit limit =
+            new AdaptiveConcurrencyLimit(4, 2, 8, Duration.ofNanos(THRESHOLD_NANOS), 0.5);
+
+    @Test
+    void shouldRejectRequestsBeyondLimit() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+
+        // When
+        boolean admitted = limit.tryAcquire();
+
+        // Then
+        assertThat(admitted).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(4);
+        assertThat(limit.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGrowLimitWhileUsedRequestsAreFast() {
+        // Given
+        long start = System.nanoTime();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int j = 0; j < admitted; j++) {
+                limit.release(start, start + 1, false);
+            }
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(8);
+        assertThat(limit.getInFlight()).isZero();
+        assertThat(limit.getRejected()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldNotGrowLimitWhileIdle() {
+        // Given
+        long start = System.nanoTime();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(start, start + 1, false);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldCutLimitOnceForRequestsRunningWhenItWasCut() {
+        // Given
+        long start = System.nanoTime();
+        limit.tryAcquire();
+        limit.tryAcquire();
+
+        // When
+        limit.release(start, start + THRESHOLD_NANOS + 1, false);
+        limit.release(start, start + THRESHOLD_NANOS + 2, false);
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCutLimitOnOverloadDownToMinimum() {
+        // Given
+        long start = System.nanoTime();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.release(start + i * 10, start + i * 10 + 5, true);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(1, 2, 8, Duration.ofMillis(1), 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(4, 2, 8, Duration.ofMillis(1), 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(4, 2, 8, Duration.ZERO, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.sdd.taskmanager.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimit reads = new AdaptiveConcurrencyLimit(1, 1, 4, Duration.ofSeconds(10), 0.5);
+    private final AdaptiveConcurrencyLimit writes = new AdaptiveConcurrencyLimit(2, 1, 4, Duration.ofSeconds(10), 0.5);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(reads, writes, Duration.ofMillis(1500));
+
+    @Test
+    void shouldRejectReadsBeyondLimitWithRetryAfter() throws ServletException, IOException {
+        // Given
+        reads.tryAcquire();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean handled = new AtomicBoolean();
+
+        // When
+        filter.doFilter(request, response, (req, res) -> handled.set(true));
+
+        // Then
+        assertThat(handled).isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(reads.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLimitWritesSeparatelyFromReads() throws ServletException, IOException {
+        // Given
+        reads.tryAcquire();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/tasks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean handled = new AtomicBoolean();
+
+        // When
+        filter.doFilter(request, response, (req, res) -> {
+            handled.set(true);
+            assertThat(writes.getInFlight()).isEqualTo(1);
+        });
+
+        // Then
+        assertThat(handled).isTrue();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(writes.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldCutLimitWhenRequestFailsForOverload() throws ServletException, IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/tasks/42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, (req, res) -> ((MockHttpServletResponse) res).setStatus(503));
+
+        // Then
+        assertThat(writes.getLimit()).isEqualTo(1);
+        assertThat(writes.getRejected()).isZero();
+    }
+
+    @Test
+    void shouldNotLimitRequestsOutsideApi() throws ServletException, IOException {
+        // Given
+        reads.tryAcquire();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldPublishLimitsAndRejections() throws ServletException, IOException {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        filter.bindTo(meterRegistry);
+        reads.tryAcquire();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/tasks"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        // Then
+        assertThat(meterRegistry.get("taskmanager.http.concurrency.limit").tag("kind", "writes").gauge().value())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("taskmanager.http.concurrency.in.flight").tag("kind", "reads").gauge().value())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("taskmanager.http.concurrency.rejected").tag("kind", "reads")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(new ConcurrencyLimitsEndpoint(filter).limits())
+                .containsEntry("reads", Map.of("limit", 1, "inFlight", 1, "rejected", 1L));
+    }
+}
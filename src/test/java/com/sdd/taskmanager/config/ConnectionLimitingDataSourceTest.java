@@ -0,0 +1,86 @@
+package com.sdd.taskmanager.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource delegate;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(delegate, 1, Duration.ofMillis(10));
+    }
+
+    @Test
+    void shouldRejectConnectionsBeyondLimit() throws SQLException {
+        // Given
+        when(delegate.getConnection()).thenReturn(mock(Connection.class));
+        dataSource.getConnection();
+
+        // When & Then
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(dataSource.getAvailablePermits()).isZero();
+    }
+
+    @Test
+    void shouldReleasePermitOnceWhenConnectionIsClosed() throws SQLException {
+        // Given
+        Connection pooled = mock(Connection.class);
+        when(delegate.getConnection()).thenReturn(pooled);
+        Connection connection = dataSource.getConnection();
+
+        // When
+        connection.close();
+        connection.close();
+
+        // Then
+        verify(pooled, times(2)).close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void shouldReleasePermitWhenPoolFails() throws SQLException {
+        // Given
+        when(delegate.getConnection()).thenThrow(new SQLException("Pool closed"));
+
+        // When & Then
+        assertThatThrownBy(dataSource::getConnection).hasMessage("Pool closed");
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDelegateOtherConnectionMethods() throws SQLException {
+        // Given
+        Connection pooled = mock(Connection.class);
+        when(pooled.getAutoCommit()).thenReturn(true);
+        when(delegate.getConnection()).thenReturn(pooled);
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertThat(connection.getAutoCommit()).isTrue();
+    }
+}
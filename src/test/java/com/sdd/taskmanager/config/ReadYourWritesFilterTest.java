@@ -0,0 +1,89 @@
+package com.sdd.taskmanager.config;
+
+import com.sdd.taskmanager.repository.ReadReplicas;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1), 100);
+
+    @Test
+    void shouldReadFromPrimaryDuringAndAfterOwnWrite() throws Exception {
+        // Given
+        AtomicBoolean primaryDuringWrite = new AtomicBoolean();
+        AtomicBoolean primaryDuringRead = new AtomicBoolean();
+
+        // When
+        filter.doFilter(request("POST", "client-a"), new MockHttpServletResponse(),
+                (req, res) -> primaryDuringWrite.set(ReadReplicas.isPrimaryRequired()));
+        filter.doFilter(request("GET", "client-a"), new MockHttpServletResponse(),
+                (req, res) -> primaryDuringRead.set(ReadReplicas.isPrimaryRequired()));
+
+        // Then
+        assertThat(primaryDuringWrite).isTrue();
+        assertThat(primaryDuringRead).isTrue();
+        assertThat(ReadReplicas.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    void shouldLetOtherClientsReadFromReplicasWithoutConditionalRequestsAfterAWrite() throws Exception {
+        // Given
+        filter.doFilter(request("PATCH", "client-a"), new MockHttpServletResponse(), (req, res) -> { });
+        MockHttpServletRequest read = request("GET", "client-b");
+        read.addHeader("If-None-Match", "W/\"10\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean primary = new AtomicBoolean(true);
+        AtomicReference<String> ifNoneMatch = new AtomicReference<>("unset");
+
+        // When
+        filter.doFilter(read, response, (req, res) -> {
+            primary.set(ReadReplicas.isPrimaryRequired());
+            ifNoneMatch.set(((HttpServletRequest) req).getHeader("If-None-Match"));
+            ((HttpServletResponse) res).setHeader("ETag", "W/\"11\"");
+            ((HttpServletResponse) res).setHeader("Cache-Control", "no-cache");
+        });
+
+        // Then
+        assertThat(primary).isFalse();
+        assertThat(ifNoneMatch.get()).isNull();
+        assertThat(response.getHeader("ETag")).isNull();
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-cache");
+    }
+
+    @Test
+    void shouldPassReadsThroughWhenNothingWasWrittenRecently() throws Exception {
+        // Given
+        MockHttpServletRequest read = request("GET", "client-b");
+        read.addHeader("If-None-Match", "W/\"10\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<Object> passedRequest = new AtomicReference<>();
+        FilterChain chain = (req, res) -> {
+            passedRequest.set(req);
+            ((HttpServletResponse) res).setHeader("ETag", "W/\"10\"");
+        };
+
+        // When
+        filter.doFilter(read, response, chain);
+
+        // Then
+        assertThat(passedRequest.get()).isSameAs(read);
+        assertThat(response.getHeader("ETag")).isEqualTo("W/\"10\"");
+    }
+
+    private static MockHttpServletRequest request(String method, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/tasks");
+        request.addHeader(ReadYourWritesFilter.CLIENT_ID_HEADER, clientId);
+        return request;
+    }
+}
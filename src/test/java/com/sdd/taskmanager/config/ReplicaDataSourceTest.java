@@ -0,0 +1,105 @@
+package com.sdd.taskmanager.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource first;
+
+    @Mock
+    private DataSource second;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+    private ReplicaDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("first", first);
+        replicas.put("second", second);
+        dataSource = new ReplicaDataSource(primary, replicas, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dataSource.close();
+    }
+
+    @Test
+    void shouldTakeReplicasInTurn() throws SQLException {
+        // Given
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+
+        // When & Then
+        assertThat(dataSource.getConnection()).isSameAs(firstConnection);
+        assertThat(dataSource.getConnection()).isSameAs(secondConnection);
+        assertThat(dataSource.getConnection()).isSameAs(firstConnection);
+    }
+
+    @Test
+    void shouldSkipReplicaThatFailsUntilItIsHealthyAgain() throws SQLException {
+        // Given
+        when(first.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(second.getConnection()).thenReturn(secondConnection);
+
+        // When
+        Connection failedOver = dataSource.getConnection();
+        Connection skipped = dataSource.getConnection();
+
+        // Then
+        assertThat(failedOver).isSameAs(secondConnection);
+        assertThat(skipped).isSameAs(secondConnection);
+        assertThat(dataSource.healthyReplicas()).isEqualTo(1);
+
+        // When the replica is back
+        doReturn(firstConnection).when(first).getConnection();
+        when(firstConnection.isValid(2)).thenReturn(true);
+        when(secondConnection.isValid(2)).thenReturn(true);
+        dataSource.checkHealth();
+
+        // Then
+        assertThat(dataSource.healthyReplicas()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenNoReplicaIsHealthy() throws SQLException {
+        // Given
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(firstConnection.isValid(2)).thenReturn(false);
+        when(second.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        dataSource.checkHealth();
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(dataSource.healthyReplicas()).isZero();
+    }
+}
@@ -0,0 +1,80 @@
+package com.sdd.taskmanager.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseSizeMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseSizeMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ResponseSizeMetricsFilter(meterRegistry);
+    }
+
+    @Test
+    void shouldRecordBytesWrittenToOutputStreamByUriTemplate() throws ServletException, IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] body = "{\"title\":\"Measured\"}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/tasks/{id}");
+            res.getOutputStream().write(body);
+        });
+
+        // Then
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+        assertThat(meterRegistry.get(ResponseSizeMetricsFilter.METRIC_NAME).tag("method", "GET")
+                .tag("uri", "/api/v1/tasks/{id}").tag("status", "200").summary().totalAmount()).isEqualTo(body.length);
+    }
+
+    @Test
+    void shouldRecordCharactersWrittenToWriterUnderUnknownUri() throws ServletException, IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/missing");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, (req, res) -> {
+            ((MockHttpServletResponse) response).setStatus(404);
+            res.getWriter().print("Not found");
+        });
+
+        // Then
+        assertThat(response.getContentAsString()).isEqualTo("Not found");
+        assertThat(meterRegistry.get(ResponseSizeMetricsFilter.METRIC_NAME).tag("uri", "UNKNOWN")
+                .tag("status", "404").summary().totalAmount()).isEqualTo(9);
+    }
+
+    @Test
+    void shouldRecordRepeatedRequestsInOneSummary() throws ServletException, IOException {
+        // When
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/tasks"), new MockHttpServletResponse(),
+                    (req, res) -> {
+                        req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/tasks");
+                        res.getWriter().print("[]");
+                    });
+        }
+
+        // Then
+        assertThat(meterRegistry.find(ResponseSizeMetricsFilter.METRIC_NAME).summaries()).hasSize(1);
+        assertThat(meterRegistry.get(ResponseSizeMetricsFilter.METRIC_NAME).tag("uri", "/api/v1/tasks")
+                .summary().count()).isEqualTo(3);
+    }
+}
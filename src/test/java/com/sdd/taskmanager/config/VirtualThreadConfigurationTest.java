@@ -0,0 +1,38 @@
+package com.sdd.taskmanager.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            // Like SpringApplication, so that durations such as "2s" convert
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class, DataSourceAutoConfiguration.class))
+            .withUserConfiguration(VirtualThreadConfiguration.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:virtual-threads",
+                    "spring.datasource.hikari.maximum-pool-size=7");
+
+    @Test
+    void shouldLimitConnectionsToPoolSizeOnVirtualThreads() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context ->
+                assertThat(context.getBean(DataSource.class))
+                        .isInstanceOfSatisfying(ConnectionLimitingDataSource.class,
+                                dataSource -> assertThat(dataSource.getAvailablePermits()).isEqualTo(7)));
+    }
+
+    @Test
+    void shouldLeaveDataSourceUntouchedOnPlatformThreads() {
+        contextRunner.run(context ->
+                assertThat(context.getBean(DataSource.class)).isNotInstanceOf(ConnectionLimitingDataSource.class));
+    }
+}
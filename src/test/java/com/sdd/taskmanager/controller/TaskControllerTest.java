@@ -1,30 +1,69 @@
 package com.sdd.taskmanager.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sdd.taskmanager.config.AsyncTimeoutConfiguration;
+import com.sdd.taskmanager.config.CborConfiguration;
+import com.sdd.taskmanager.dto.CompleteTasksRequest;
 import com.sdd.taskmanager.dto.CreateTaskRequest;
+import com.sdd.taskmanager.dto.ImportError;
+import com.sdd.taskmanager.dto.ImportFormat;
+import com.sdd.taskmanager.dto.ImportSummary;
 import com.sdd.taskmanager.exception.TaskNotFoundException;
+import com.sdd.taskmanager.feed.TaskChangeFeed;
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
 import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskChange;
+import com.sdd.taskmanager.model.TaskChangeBatch;
+import com.sdd.taskmanager.model.TaskChangeCursor;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import com.sdd.taskmanager.model.TaskPage;
+import com.sdd.taskmanager.model.TaskStats;
+import com.sdd.taskmanager.service.TaskChangeService;
+import com.sdd.taskmanager.service.TaskImportService;
+import com.sdd.taskmanager.service.TaskSearchService;
 import com.sdd.taskmanager.service.TaskService;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.BufferedReader;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
+@Import({CborConfiguration.class, AsyncTimeoutConfiguration.class})
 class TaskControllerTest {
 
     @Autowired
@@ -33,6 +72,15 @@ class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskImportService taskImportService;
+
+    @MockBean
+    private TaskSearchService taskSearchService;
+
+    @MockBean
+    private TaskChangeService taskChangeService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -118,4 +166,427 @@ class TaskControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void shouldReturnServiceUnavailableWhenNoConnectionIsAvailable() throws Exception {
+        // Given
+        when(taskService.findAllTasks()).thenThrow(new CannotGetJdbcConnectionException("No database connection available"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void shouldGetPageOfTasksWithNextCursorHeader() throws Exception {
+        // Given
+        Task task1 = new Task(UUID.randomUUID(), "Task 1", "Description 1", false, ZonedDateTime.now());
+        Task task2 = new Task(UUID.randomUUID(), "Task 2", "Description 2", false, ZonedDateTime.now());
+        TaskCursor after = new TaskCursor(ZonedDateTime.now().minusHours(1), UUID.randomUUID());
+        TaskCursor next = TaskCursor.after(task2);
+
+        when(taskService.findTaskPage(eq(TaskFilter.NONE), eq(after), eq(2))).thenReturn(new TaskPage(List.of(task1, task2), next));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("limit", "2")
+                .param("after", after.encode())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, next.encode()))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(task1.getId().toString()))
+                .andExpect(jsonPath("$[1].id").value(task2.getId().toString()));
+    }
+
+    @Test
+    void shouldOmitNextCursorHeaderOnLastPage() throws Exception {
+        // Given
+        when(taskService.findTaskPage(TaskFilter.NONE, null, TaskController.DEFAULT_PAGE_SIZE)).thenReturn(new TaskPage(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("limit", String.valueOf(TaskController.DEFAULT_PAGE_SIZE))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(TaskController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void shouldPassFiltersToServiceAsFirstPage() throws Exception {
+        // Given
+        ZonedDateTime from = ZonedDateTime.parse("2025-01-01T00:00:00Z");
+        TaskFilter filter = new TaskFilter(false, from, null, "Report");
+        when(taskService.findTaskPage(filter, null, TaskController.DEFAULT_PAGE_SIZE)).thenReturn(new TaskPage(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("completed", "false")
+                .param("createdFrom", "2025-01-01T00:00:00Z")
+                .param("titlePrefix", "Report")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void shouldReturnBadRequestForMalformedCreationDate() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("createdFrom", "yesterday")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnTasksWithCollectionEtag() throws Exception {
+        // Given
+        when(taskService.getTasksVersion()).thenReturn(255L);
+        when(taskService.findAllTasks()).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "W/\"ff\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWithoutQueryingTasksWhenCollectionUnchanged() throws Exception {
+        // Given
+        when(taskService.getTasksVersion()).thenReturn(255L);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("limit", "10")
+                .header("If-None-Match", "W/\"ff\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"ff\""))
+                .andExpect(content().string(""));
+        verify(taskService, never()).findTaskPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldReturnTasksAgainOnceCollectionChanged() throws Exception {
+        // Given
+        when(taskService.getTasksVersion()).thenReturn(256L);
+        when(taskService.findAllTasks()).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks")
+                .header("If-None-Match", "W/\"ff\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"100\""));
+    }
+
+    @Test
+    void shouldGetTaskByIdWithTaskEtag() throws Exception {
+        // Given
+        Task task = new Task(UUID.randomUUID(), "Task", null, false, ZonedDateTime.now());
+        when(taskService.getTaskVersion(task.getId())).thenReturn(16L);
+        when(taskService.findTaskById(task.getId())).thenReturn(Optional.of(task));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks/{id}", task.getId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"10\""))
+                .andExpect(jsonPath("$.id").value(task.getId().toString()));
+    }
+
+    @Test
+    void shouldWriteTasksInCborWhenAcceptedAndJsonByDefault() throws Exception {
+        // Given
+        Task task = new Task(UUID.randomUUID(), "Task", null, true, ZonedDateTime.parse("2026-10-17T00:01:29.2197Z"));
+        when(taskService.findAllTasks()).thenReturn(List.of(task));
+
+        // When
+        MvcResult cbor = mockMvc.perform(get("/api/v1/tasks").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        MvcResult json = mockMvc.perform(get("/api/v1/tasks").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // Then
+        JsonNode decoded = new ObjectMapper(new CBORFactory()).readTree(cbor.getResponse().getContentAsByteArray());
+        assertThat(decoded).isEqualTo(objectMapper.readTree(json.getResponse().getContentAsByteArray()));
+        assertThat(json.getResponse().getContentAsString()).isEqualTo("[{\"id\":\"" + task.getId()
+                + "\",\"title\":\"Task\",\"description\":null,\"completed\":true,\"createdAt\":\"2026-10-17T00:01:29.2197Z\"}]");
+    }
+
+    @Test
+    void shouldReturnNotModifiedWithoutQueryingTaskWhenTaskUnchanged() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(taskService.getTaskVersion(id)).thenReturn(16L);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks/{id}", id)
+                .header("If-None-Match", "\"a\", W/\"10\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        verify(taskService, never()).findTaskById(any());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownTaskId() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(taskService.findTaskById(id)).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnAvailableChangesRightAway() throws Exception {
+        // Given
+        Task task = new Task(UUID.randomUUID(), "Task", null, true, ZonedDateTime.now());
+        TaskChangeCursor since = TaskChangeCursor.at(7, 41);
+        TaskChangeCursor next = TaskChangeCursor.at(7, 42);
+        when(taskChangeService.readChanges(since, TaskController.DEFAULT_CHANGES_LIMIT))
+                .thenReturn(new TaskChangeBatch(List.of(new TaskChange(TaskChange.Type.UPDATED, task)), next));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/changes")
+                .param("since", since.encode()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, next.encode()))
+                .andExpect(jsonPath("$[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$[0].task.id").value(task.getId().toString()));
+    }
+
+    @Test
+    void shouldWaitForNextChangeWhenCaughtUp() throws Exception {
+        // Given
+        Task task = new Task(UUID.randomUUID(), "Task", null, false, ZonedDateTime.now());
+        TaskChangeCursor head = TaskChangeCursor.at(7, 42);
+        TaskChangeCursor next = TaskChangeCursor.at(7, 43);
+        when(taskChangeService.readChanges(null, 10)).thenReturn(new TaskChangeBatch(List.of(), head));
+        when(taskChangeService.readChanges(head, 10))
+                .thenReturn(new TaskChangeBatch(List.of(new TaskChange(TaskChange.Type.CREATED, task)), next));
+        ArgumentCaptor<Runnable> callback = ArgumentCaptor.forClass(Runnable.class);
+        when(taskChangeService.awaitChanges(eq(head), callback.capture())).thenReturn(mock(TaskChangeFeed.Waiter.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/changes")
+                .param("limit", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        callback.getValue().run();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, next.encode()))
+                .andExpect(jsonPath("$[0].type").value("CREATED"));
+    }
+
+    @Test
+    void shouldReturnBadRequestForMalformedChangeCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/changes")
+                .param("since", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamChangesAsServerSentEvents() throws Exception {
+        // Given
+        Task task = new Task(UUID.randomUUID(), "Task", null, false, ZonedDateTime.now());
+        TaskChangeCursor since = TaskChangeCursor.at(7, 0);
+        TaskChangeCursor next = TaskChangeCursor.at(7, 1);
+        when(taskChangeService.awaitChanges(any(), any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0).equals(since)) {
+                invocation.<Runnable>getArgument(1).run();
+            }
+            return null;
+        });
+        when(taskChangeService.readChanges(since, TaskController.DEFAULT_CHANGES_LIMIT))
+                .thenReturn(new TaskChangeBatch(List.of(new TaskChange(TaskChange.Type.CREATED, task)), next));
+        when(taskChangeService.readChanges(next, TaskController.DEFAULT_CHANGES_LIMIT))
+                .thenReturn(new TaskChangeBatch(List.of(), next));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/changes")
+                .header("Last-Event-ID", since.encode())
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).contains("event:created\n", "id:" + next.encode() + "\n", task.getId().toString());
+    }
+
+    @Test
+    void shouldSearchTasksWithDefaultLimit() throws Exception {
+        // Given
+        Task task = new Task(UUID.randomUUID(), "Quarterly report", "Send to finance", false, ZonedDateTime.now());
+        when(taskSearchService.search("report", TaskController.DEFAULT_SEARCH_LIMIT)).thenReturn(List.of(task));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks/search")
+                .param("q", "report")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(task.getId().toString()));
+    }
+
+    @Test
+    void shouldReturnTaskStats() throws Exception {
+        // Given
+        TaskStats stats = new TaskStats(5, 2, List.of(new DailyTaskCounts(LocalDate.of(2024, 5, 1), 5, 2)), null);
+        when(taskService.getTaskStats(TaskController.DEFAULT_STATS_DAYS)).thenReturn(stats);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.completed").value(2))
+                .andExpect(jsonPath("$.pending").value(3))
+                .andExpect(jsonPath("$.days[0].date").value("2024-05-01"))
+                .andExpect(jsonPath("$.days[0].created").value(5))
+                .andExpect(jsonPath("$.days[0].completed").value(2));
+    }
+
+    @Test
+    void shouldReturnBadRequestForBlankSearchQuery() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/search")
+                .param("q", " ")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnBadRequestForMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("after", "not-a-cursor")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnBadRequestForOutOfRangeLimit() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks")
+                .param("limit", String.valueOf(TaskController.MAX_PAGE_SIZE + 1))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldExportTasksAsNdjson() throws Exception {
+        // Given
+        Task task1 = new Task(UUID.randomUUID(), "Task 1", "Description 1", false, ZonedDateTime.now());
+        Task task2 = new Task(UUID.randomUUID(), "Task 2", null, true, ZonedDateTime.now());
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(0);
+            consumer.accept(task1);
+            consumer.accept(task2);
+            return null;
+        }).when(taskService).exportTasks(any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("id").asText()).isEqualTo(task1.getId().toString());
+        assertThat(objectMapper.readTree(lines[1]).get("completed").asBoolean()).isTrue();
+    }
+
+    @Test
+    void shouldImportCsvBody() throws Exception {
+        // Given
+        ImportSummary summary = new ImportSummary(1, 1, List.of(new ImportError(3, "Title cannot be empty")), false);
+        when(taskImportService.importTasks(any(BufferedReader.class), eq(ImportFormat.CSV))).thenAnswer(invocation -> {
+            BufferedReader reader = invocation.getArgument(0);
+            assertThat(reader.lines().toList()).containsExactly("title,description", "Task 1,Description 1", ",");
+            return summary;
+        });
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/tasks/import")
+                .contentType(ImportFormat.TEXT_CSV_VALUE)
+                .content("title,description\nTask 1,Description 1\n,"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Title cannot be empty"))
+                .andExpect(jsonPath("$.errorsTruncated").value(false));
+    }
+
+    @Test
+    void shouldImportNdjsonBody() throws Exception {
+        // Given
+        when(taskImportService.importTasks(any(BufferedReader.class), eq(ImportFormat.NDJSON)))
+                .thenReturn(new ImportSummary(2, 0, List.of(), false));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/tasks/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"title\":\"Task 1\"}\n{\"title\":\"Task 2\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2));
+        verify(taskImportService).importTasks(any(BufferedReader.class), eq(ImportFormat.NDJSON));
+    }
+
+    @Test
+    void shouldRejectUnsupportedImportMediaType() throws Exception {
+        mockMvc.perform(post("/api/v1/tasks/import")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<tasks/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void shouldCompleteTasksInBulkAndReportMissingIds() throws Exception {
+        // Given
+        UUID existingId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Task completedTask = new Task(existingId, "Task", null, true, ZonedDateTime.now());
+        when(taskService.completeTasks(List.of(existingId, missingId)))
+                .thenReturn(new CompletionResult(List.of(completedTask), List.of(missingId)));
+
+        // When & Then
+        mockMvc.perform(patch("/api/v1/tasks/complete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CompleteTasksRequest(List.of(existingId, missingId)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(1))
+                .andExpect(jsonPath("$.notFound.length()").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value(missingId.toString()));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenBulkCompletingWithoutIds() throws Exception {
+        mockMvc.perform(patch("/api/v1/tasks/complete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CompleteTasksRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,97 @@
+package com.sdd.taskmanager.feed;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskChange;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TaskChangeFeedTest {
+
+    private final TaskChangeFeed feed = new TaskChangeFeed(3, Executors.newVirtualThreadPerTaskExecutor());
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    @Test
+    void shouldReadChangesInCommitOrder() {
+        // Given
+        Task created = task();
+        Task completed = task();
+
+        // When
+        feed.tasksCreated(List.of(created));
+        feed.tasksUpdated(List.of(completed));
+
+        // Then
+        assertThat(feed.head()).isEqualTo(2);
+        assertThat(feed.read(0, 10)).get(InstanceOfAssertFactories.list(TaskChange.class))
+                .extracting("type", "task")
+                .containsExactly(tuple(TaskChange.Type.CREATED, created),
+                        tuple(TaskChange.Type.UPDATED, completed));
+        assertThat(feed.read(1, 1)).get(InstanceOfAssertFactories.list(TaskChange.class)).hasSize(1);
+        assertThat(feed.read(2, 10)).get(InstanceOfAssertFactories.list(TaskChange.class)).isEmpty();
+    }
+
+    @Test
+    void shouldNotReadChangesNoLongerKept() {
+        // Given
+        feed.tasksCreated(List.of(task(), task(), task(), task()));
+
+        // Then
+        assertThat(feed.read(0, 10)).isEmpty();
+        assertThat(feed.read(1, 10)).get(InstanceOfAssertFactories.list(TaskChange.class)).hasSize(3);
+        assertThat(feed.read(5, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldWakeWaitingConsumersOnNextChange() throws Exception {
+        // Given
+        CountDownLatch woken = new CountDownLatch(2);
+        feed.awaitChanges(0, woken::countDown);
+        feed.awaitChanges(0, woken::countDown);
+        assertThat(feed.waiting()).isEqualTo(2);
+
+        // When
+        feed.tasksCreated(List.of(task()));
+
+        // Then
+        assertThat(woken.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(feed.waiting()).isZero();
+    }
+
+    @Test
+    void shouldCallBackRightAwayWhenBehindAndNeverWhenCancelled() throws Exception {
+        // Given
+        feed.tasksCreated(List.of(task()));
+        CountDownLatch behind = new CountDownLatch(1);
+        AtomicInteger cancelledCalls = new AtomicInteger();
+
+        // When
+        feed.awaitChanges(0, behind::countDown);
+        feed.awaitChanges(1, cancelledCalls::incrementAndGet).cancel();
+        feed.tasksCreated(List.of(task()));
+
+        // Then
+        assertThat(behind.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(feed.waiting()).isZero();
+        assertThat(cancelledCalls).hasValue(0);
+    }
+
+    private static Task task() {
+        return new Task(UUID.randomUUID(), "Task", null, false, ZonedDateTime.now());
+    }
+}
@@ -0,0 +1,82 @@
+package com.sdd.taskmanager.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskBatchTest {
+
+    @Test
+    void shouldReturnTheTasksAddedAcrossChunks() {
+        // Given
+        int rows = TaskBatch.CHUNK_SIZE * 2 + 500;
+        List<Task> tasks = new ArrayList<>();
+        ZonedDateTime createdAt = ZonedDateTime.of(2026, 10, 17, 0, 1, 29, 219_738_000, ZoneOffset.UTC);
+        for (int i = 0; i < rows; i++) {
+            tasks.add(new Task(UUID.randomUUID(), "Task " + i, i % 2 == 0 ? "Description " + i : null, i % 3 == 0,
+                    createdAt.plusNanos(i * 1_000L)));
+        }
+
+        // When
+        TaskBatch batch = batchOf(tasks, 100);
+
+        // Then
+        assertThat(batch).hasSize(rows);
+        for (int i = 0; i < rows; i++) {
+            Task expected = tasks.get(i);
+            Task actual = batch.get(i);
+            assertThat(actual.getId()).isEqualTo(expected.getId());
+            assertThat(actual.getTitle()).isEqualTo(expected.getTitle());
+            assertThat(actual.getDescription()).isEqualTo(expected.getDescription());
+            assertThat(actual.isCompleted()).isEqualTo(expected.isCompleted());
+            assertThat(actual.getCreatedAt()).isEqualTo(expected.getCreatedAt());
+        }
+    }
+
+    @Test
+    void shouldNotChangeBuiltBatchesWhenMoreRowsAreAdded() {
+        // Given
+        TaskBatch.Builder builder = new TaskBatch.Builder(16);
+        for (int i = 0; i < 16; i++) {
+            builder.add(0, i, "Task " + i, null, false, 0, 0);
+        }
+        TaskBatch first = builder.build();
+
+        // When
+        builder.add(0, 16, "Task 16", null, false, 0, 0);
+        TaskBatch second = builder.build();
+
+        // Then
+        assertThat(first).hasSize(16);
+        assertThat(second).hasSize(17);
+        assertThat(second.get(16).getTitle()).isEqualTo("Task 16");
+        assertThat(first.get(15).getTitle()).isEqualTo("Task 15");
+    }
+
+    @Test
+    void shouldRejectIndexesOutOfBounds() {
+        // Given
+        TaskBatch empty = new TaskBatch.Builder(0).build();
+
+        // When & Then
+        assertThat(empty).isEmpty();
+        assertThatThrownBy(() -> empty.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static TaskBatch batchOf(List<Task> tasks, int expectedSize) {
+        TaskBatch.Builder builder = new TaskBatch.Builder(expectedSize);
+        for (Task task : tasks) {
+            builder.add(task.getId().getMostSignificantBits(), task.getId().getLeastSignificantBits(), task.getTitle(),
+                    task.getDescription(), task.isCompleted(), task.getCreatedAt().toEpochSecond(),
+                    task.getCreatedAt().getNano());
+        }
+        return builder.build();
+    }
+}
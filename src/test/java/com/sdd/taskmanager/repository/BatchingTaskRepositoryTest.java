@@ -0,0 +1,157 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchingTaskRepositoryTest {
+
+    @Mock
+    private TaskRepository delegate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void shouldWriteConcurrentCreatesAsOneBatch() throws Exception {
+        // Given
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        when(delegate.createAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            batchSizes.add(tasks.size());
+            return tasks.stream().map(BatchingTaskRepositoryTest::stored).toList();
+        });
+        BatchingTaskRepository repository = new BatchingTaskRepository(delegate, null, 8, Duration.ofSeconds(5), meterRegistry);
+
+        // When: the batch is written as soon as it is full, well before the delay
+        List<Future<Task>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                String title = "Task " + i;
+                results.add(callers.submit(() -> repository.create(new Task(title, null))));
+            }
+        }
+
+        // Then
+        assertThat(batchSizes).containsExactly(8);
+        for (int i = 0; i < 8; i++) {
+            assertThat(results.get(i).get().getId()).isNotNull();
+        }
+        assertThat(results).extracting(result -> result.get().getTitle()).doesNotHaveDuplicates();
+        assertThat(meterRegistry.get("taskmanager.repository.batch.size").summary().max()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldWriteLoneCreateAfterDelay() {
+        // Given
+        when(delegate.createAll(anyList())).thenAnswer(invocation ->
+                invocation.<List<Task>>getArgument(0).stream().map(BatchingTaskRepositoryTest::stored).toList());
+        BatchingTaskRepository repository = new BatchingTaskRepository(delegate, null, 8, Duration.ofMillis(1), meterRegistry);
+
+        // When
+        Task created = repository.create(new Task("Alone", null));
+
+        // Then
+        assertThat(created.getTitle()).isEqualTo("Alone");
+    }
+
+    @Test
+    void shouldOnlyFailCallWhoseTaskFailsWhenBatchFails() throws Exception {
+        // Given a batch rolled back as a whole
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        when(delegate.createAll(anyList())).thenThrow(new IllegalStateException("Batch failed"));
+        when(delegate.create(any())).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            if (task.getTitle().equals("Bad")) {
+                throw new IllegalArgumentException("Bad task");
+            }
+            return stored(task);
+        });
+        BatchingTaskRepository repository = new BatchingTaskRepository(delegate, transactionTemplate, 2, Duration.ofSeconds(5), meterRegistry);
+
+        // When
+        Future<Task> good;
+        Future<Task> bad;
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            good = callers.submit(() -> repository.create(new Task("Good", null)));
+            bad = callers.submit(() -> repository.create(new Task("Bad", null)));
+        }
+
+        // Then
+        assertThat(good.get().getTitle()).isEqualTo("Good");
+        assertThatThrownBy(bad::get).hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldFailEveryCallWhenBatchWithoutTransactionFails() throws Exception {
+        // Given a batch that may have been partly written
+        when(delegate.createAll(anyList())).thenThrow(new IllegalStateException("Batch failed"));
+        BatchingTaskRepository repository = new BatchingTaskRepository(delegate, null, 2, Duration.ofSeconds(5), meterRegistry);
+
+        // When
+        Future<Task> first;
+        Future<Task> second;
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            first = callers.submit(() -> repository.create(new Task("First", null)));
+            second = callers.submit(() -> repository.create(new Task("Second", null)));
+        }
+
+        // Then
+        assertThatThrownBy(first::get).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::get).hasCauseInstanceOf(IllegalStateException.class);
+        verify(delegate, never()).create(any());
+    }
+
+    @Test
+    void shouldNotBatchCreateInsideTransaction() {
+        // Given
+        Task task = new Task("In transaction", null);
+        when(delegate.create(task)).thenReturn(stored(task));
+        BatchingTaskRepository repository = new BatchingTaskRepository(delegate, null, 8, Duration.ofSeconds(5), meterRegistry);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // When
+        Task created = repository.create(task);
+
+        // Then
+        assertThat(created.getTitle()).isEqualTo("In transaction");
+        verify(delegate, never()).createAll(anyList());
+    }
+
+    private static Task stored(Task task) {
+        return new Task(UUID.randomUUID(), task.getTitle(), task.getDescription(), false, ZonedDateTime.now());
+    }
+}
@@ -0,0 +1,227 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingTaskRepositoryTest {
+
+    @Mock
+    private TaskRepository delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingTaskRepository cachingRepository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingRepository = new CachingTaskRepository(delegate, 100, Duration.ofMinutes(5), Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @AfterEach
+    void clearTransactionSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        // Given
+        UUID id = UUID.randomUUID();
+        Task task = new Task(id, "Cached", null, false, ZonedDateTime.now());
+        when(delegate.findById(id)).thenReturn(Optional.of(task));
+
+        // When
+        Optional<Task> first = cachingRepository.findById(id);
+        Optional<Task> second = cachingRepository.findById(id);
+
+        // Then
+        assertThat(first).get().extracting(Task::getTitle).isEqualTo("Cached");
+        assertThat(second).get().extracting(Task::getTitle).isEqualTo("Cached");
+        verify(delegate, times(1)).findById(id);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CachingTaskRepository.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CachingTaskRepository.CACHE_NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLoadMissesFromPrimary() {
+        // Given
+        UUID id = UUID.randomUUID();
+        List<Boolean> primaryRequired = new ArrayList<>();
+        when(delegate.findById(id)).thenAnswer(invocation -> {
+            primaryRequired.add(ReadReplicas.isPrimaryRequired());
+            return Optional.empty();
+        });
+
+        // When
+        cachingRepository.findById(id);
+
+        // Then
+        assertThat(primaryRequired).containsExactly(true);
+        assertThat(ReadReplicas.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    void shouldShareImmutableCachedInstancesWithCallers() {
+        // Given
+        UUID id = UUID.randomUUID();
+        Task task = new Task(id, "Original", null, false, ZonedDateTime.now());
+        when(delegate.findById(id)).thenReturn(Optional.of(task));
+
+        // When
+        cachingRepository.findById(id);
+        Optional<Task> cached = cachingRepository.findById(id);
+
+        // Then
+        assertThat(cached).get().isSameAs(task);
+    }
+
+    @Test
+    void shouldCacheNegativeLookups() {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(delegate.findById(id)).thenReturn(Optional.empty());
+
+        // When
+        cachingRepository.findById(id);
+        Optional<Task> second = cachingRepository.findById(id);
+
+        // Then
+        assertThat(second).isEmpty();
+        verify(delegate, times(1)).findById(id);
+    }
+
+    @Test
+    void shouldExpireNegativeLookupsSoonerThanHits() throws Exception {
+        // Given
+        cachingRepository = new CachingTaskRepository(delegate, 100, Duration.ofMinutes(5), Duration.ofMillis(1), meterRegistry);
+        UUID id = UUID.randomUUID();
+        when(delegate.findById(id)).thenReturn(Optional.empty());
+
+        // When
+        cachingRepository.findById(id);
+        Thread.sleep(20);
+        cachingRepository.findById(id);
+
+        // Then
+        verify(delegate, times(2)).findById(id);
+    }
+
+    @Test
+    void shouldCacheCreatedTaskOverPreviousNegativeLookup() {
+        // Given
+        Task newTask = new Task("New", null);
+        UUID id = UUID.randomUUID();
+        Task createdTask = new Task(id, "New", null, false, ZonedDateTime.now());
+        when(delegate.findById(id)).thenReturn(Optional.empty());
+        when(delegate.create(newTask)).thenReturn(createdTask);
+        cachingRepository.findById(id);
+
+        // When
+        cachingRepository.create(newTask);
+
+        // Then
+        assertThat(cachingRepository.findById(id)).get().extracting(Task::getTitle).isEqualTo("New");
+        verify(delegate, times(1)).findById(id);
+    }
+
+    @Test
+    void shouldRefreshCacheWhenCompletingTask() {
+        // Given
+        UUID id = UUID.randomUUID();
+        ZonedDateTime createdAt = ZonedDateTime.now();
+        when(delegate.findById(id)).thenReturn(Optional.of(new Task(id, "Task", null, false, createdAt)));
+        when(delegate.complete(id)).thenReturn(Optional.of(new Task(id, "Task", null, true, createdAt)));
+        cachingRepository.findById(id);
+
+        // When
+        cachingRepository.complete(id);
+
+        // Then
+        assertThat(cachingRepository.findById(id)).get().extracting(Task::isCompleted).isEqualTo(true);
+        verify(delegate, times(1)).findById(id);
+    }
+
+    @Test
+    void shouldEvictOnUpdate() {
+        // Given
+        UUID id = UUID.randomUUID();
+        Task task = new Task(id, "Task", null, false, ZonedDateTime.now());
+        when(delegate.findById(id)).thenReturn(Optional.of(task));
+        cachingRepository.findById(id);
+
+        // When
+        cachingRepository.update(task);
+        cachingRepository.findById(id);
+
+        // Then
+        verify(delegate, times(2)).findById(id);
+    }
+
+    @Test
+    void shouldEvictBulkCompletedAndUnmatchedIds() {
+        // Given
+        UUID completedId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Task completedTask = new Task(completedId, "Task", null, true, ZonedDateTime.now());
+        when(delegate.findById(missingId)).thenReturn(Optional.empty());
+        when(delegate.completeAll(List.of(completedId, missingId)))
+                .thenReturn(new CompletionResult(List.of(completedTask), List.of(missingId)));
+        cachingRepository.findById(missingId);
+
+        // When
+        cachingRepository.completeAll(List.of(completedId, missingId));
+
+        // Then
+        assertThat(cachingRepository.findById(completedId)).get().extracting(Task::isCompleted).isEqualTo(true);
+        cachingRepository.findById(missingId);
+        verify(delegate, times(2)).findById(missingId);
+        verify(delegate, times(0)).findById(completedId);
+    }
+
+    @Test
+    void shouldOnlyEvictInsideTransactionAndEvictAgainAfterCompletion() {
+        // Given
+        UUID id = UUID.randomUUID();
+        ZonedDateTime createdAt = ZonedDateTime.now();
+        when(delegate.complete(id)).thenReturn(Optional.of(new Task(id, "Task", null, true, createdAt)));
+        when(delegate.findById(id)).thenReturn(Optional.of(new Task(id, "Task", null, false, createdAt)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When: complete inside the transaction, then another reader caches the last committed state
+        cachingRepository.complete(id);
+        assertThat(cachingRepository.findById(id)).get().extracting(Task::isCompleted).isEqualTo(false);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        when(delegate.findById(id)).thenReturn(Optional.of(new Task(id, "Task", null, true, createdAt)));
+
+        // Then: the stale entry is gone once the transaction has committed
+        assertThat(cachingRepository.findById(id)).get().extracting(Task::isCompleted).isEqualTo(true);
+        verify(delegate, times(2)).findById(id);
+    }
+}
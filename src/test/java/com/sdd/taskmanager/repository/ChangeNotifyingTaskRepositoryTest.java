@@ -0,0 +1,126 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeNotifyingTaskRepositoryTest {
+
+    @Mock
+    private TaskRepository delegate;
+
+    private final List<Task> created = new ArrayList<>();
+    private final List<Task> updated = new ArrayList<>();
+    private ChangeNotifyingTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        TaskChangeListener recorder = new TaskChangeListener() {
+            @Override
+            public void tasksCreated(List<Task> tasks) {
+                created.addAll(tasks);
+            }
+
+            @Override
+            public void tasksUpdated(List<Task> tasks) {
+                updated.addAll(tasks);
+            }
+        };
+        TaskChangeListener failing = new TaskChangeListener() {
+            @Override
+            public void tasksCreated(List<Task> tasks) {
+                throw new IllegalStateException("Listener failure");
+            }
+        };
+        repository = new ChangeNotifyingTaskRepository(delegate, List.of(failing, recorder));
+    }
+
+    @AfterEach
+    void clearTransactionSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldNotifyCreatedTasksDespiteFailingListener() {
+        // Given
+        Task task = new Task("Title", null);
+        Task stored = new Task(UUID.randomUUID(), "Title", null, false, ZonedDateTime.now());
+        when(delegate.create(task)).thenReturn(stored);
+
+        // When
+        Task result = repository.create(task);
+
+        // Then
+        assertThat(result).isSameAs(stored);
+        assertThat(created).containsExactly(stored);
+        assertThat(updated).isEmpty();
+    }
+
+    @Test
+    void shouldNotifyOnlyTasksActuallyCompleted() {
+        // Given
+        Task completed = new Task(UUID.randomUUID(), "Done", null, true, ZonedDateTime.now());
+        UUID missingId = UUID.randomUUID();
+        when(delegate.completeAll(List.of(completed.getId(), missingId)))
+                .thenReturn(new CompletionResult(List.of(completed), List.of(missingId)));
+        when(delegate.complete(missingId)).thenReturn(Optional.empty());
+
+        // When
+        repository.completeAll(List.of(completed.getId(), missingId));
+        repository.complete(missingId);
+
+        // Then
+        assertThat(updated).containsExactly(completed);
+    }
+
+    @Test
+    void shouldNotNotifyRolledBackWrites() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        repository.update(new Task(UUID.randomUUID(), "Title", null, false, ZonedDateTime.now()));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(updated).isEmpty();
+    }
+
+    @Test
+    void shouldNotifyOnlyAfterCommit() {
+        // Given
+        Task task = new Task(UUID.randomUUID(), "Title", null, false, ZonedDateTime.now());
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        repository.update(task);
+        assertThat(updated).isEmpty();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Then
+        assertThat(updated).containsExactly(task);
+    }
+}
@@ -0,0 +1,163 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingTaskRepositoryTest {
+
+    private static final UUID ID = UUID.randomUUID();
+    private static final Task TASK = new Task(ID, "Hot", null, false, ZonedDateTime.now());
+
+    @Mock
+    private TaskRepository delegate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch firstReadStarted = new CountDownLatch(1);
+    private final CountDownLatch firstReadReleased = new CountDownLatch(1);
+    private final AtomicInteger reads = new AtomicInteger();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private CoalescingTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CoalescingTaskRepository(delegate, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        firstReadReleased.countDown();
+        callers.shutdownNow();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void shouldShareInFlightLookupWithConcurrentCallers() throws Exception {
+        // Given
+        when(delegate.findById(ID)).thenAnswer(invocation -> blockFirstRead(Optional.of(TASK)));
+        Future<Optional<Task>> first = callers.submit(() -> repository.findById(ID));
+        firstReadStarted.await();
+
+        // When
+        List<Future<Optional<Task>>> joiners = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            joiners.add(callers.submit(() -> repository.findById(ID)));
+        }
+        awaitCoalesced("findById", 4);
+        firstReadReleased.countDown();
+
+        // Then
+        assertThat(first.get()).containsSame(TASK);
+        for (Future<Optional<Task>> joiner : joiners) {
+            assertThat(joiner.get()).containsSame(TASK);
+        }
+        verify(delegate, times(1)).findById(ID);
+    }
+
+    @Test
+    void shouldNotJoinReadStartedBeforeCompletedWrite() throws Exception {
+        // Given
+        TaskFilter filter = TaskFilter.NONE;
+        when(delegate.findPage(filter, null, 10)).thenAnswer(invocation -> blockFirstRead(List.of(TASK)));
+        Future<List<Task>> first = callers.submit(() -> repository.findPage(filter, null, 10));
+        firstReadStarted.await();
+
+        // When
+        repository.update(TASK);
+        List<Task> afterWrite = repository.findPage(filter, null, 10);
+
+        // Then
+        assertThat(afterWrite).containsExactly(TASK);
+        assertThat(first.isDone()).isFalse();
+        firstReadReleased.countDown();
+        assertThat(first.get()).containsExactly(TASK);
+        verify(delegate, times(2)).findPage(filter, null, 10);
+        assertThat(meterRegistry.get(CoalescingTaskRepository.COALESCED_NAME).tag("operation", "findPage")
+                .counter().count()).isZero();
+    }
+
+    @Test
+    void shouldNotCoalesceReadsInsideTransaction() throws Exception {
+        // Given
+        when(delegate.findAll()).thenAnswer(invocation -> blockFirstRead(List.of(TASK)));
+        Future<List<Task>> first = callers.submit(() -> repository.findAll());
+        firstReadStarted.await();
+
+        // When
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        List<Task> inTransaction = repository.findAll();
+
+        // Then
+        assertThat(inTransaction).containsExactly(TASK);
+        firstReadReleased.countDown();
+        assertThat(first.get()).containsExactly(TASK);
+        verify(delegate, times(2)).findAll();
+    }
+
+    @Test
+    void shouldFailJoinersWithErrorOfSharedRead() throws Exception {
+        // Given
+        when(delegate.findById(ID)).thenAnswer(invocation -> {
+            blockFirstRead(null);
+            throw new IllegalStateException("Storage down");
+        });
+        Future<Optional<Task>> first = callers.submit(() -> repository.findById(ID));
+        firstReadStarted.await();
+
+        // When
+        Future<Optional<Task>> joiner = callers.submit(() -> repository.findById(ID));
+        awaitCoalesced("findById", 1);
+        firstReadReleased.countDown();
+
+        // Then
+        assertThatThrownBy(first::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(joiner::get).isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(IllegalStateException.class).hasMessage("Storage down");
+        verify(delegate, times(1)).findById(ID);
+    }
+
+    /**
+     * Blocks the first read until the test releases it, and lets the others through.
+     */
+    private <T> T blockFirstRead(T result) throws InterruptedException {
+        if (reads.getAndIncrement() == 0) {
+            firstReadStarted.countDown();
+            firstReadReleased.await();
+        }
+        return result;
+    }
+
+    private void awaitCoalesced(String operation, int count) throws InterruptedException {
+        while (meterRegistry.get(CoalescingTaskRepository.COALESCED_NAME).tag("operation", operation)
+                .counter().count() < count) {
+            Thread.sleep(1);
+        }
+    }
+}
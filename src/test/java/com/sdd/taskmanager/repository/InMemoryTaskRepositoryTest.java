@@ -0,0 +1,61 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTaskRepositoryTest extends TaskRepositoryContractTest {
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = new InMemoryTaskRepository();
+    }
+
+    @Test
+    void shouldCompleteTaskOnlyOnceUnderConcurrentCompletions() throws Exception {
+        // Given
+        Task createdTask = taskRepository.create(new Task("Contended", null));
+        UUID id = createdTask.getId();
+
+        // When
+        List<Future<Boolean>> completions = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 64; i++) {
+                completions.add(executor.submit(() -> taskRepository.complete(id).isPresent()));
+            }
+        }
+
+        // Then
+        long winners = 0;
+        for (Future<Boolean> completion : completions) {
+            winners += completion.get() ? 1 : 0;
+        }
+        assertThat(winners).isEqualTo(1);
+        assertThat(taskRepository.findById(id)).get().extracting(Task::isCompleted).isEqualTo(true);
+    }
+
+    @Test
+    void shouldListConcurrentlyCreatedTasksWithoutLoss() throws Exception {
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1_000; i++) {
+                int n = i;
+                executor.submit(() -> taskRepository.create(new Task("Task " + n, null)));
+            }
+        }
+
+        // Then
+        assertThat(taskRepository.findAll()).hasSize(1_000);
+        assertThat(taskRepository.findPage(TaskFilter.NONE, null, 1_000)).extracting(Task::getId).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,223 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.tuple;
+
+class LogTaskRepositoryTest extends TaskRepositoryContractTest {
+
+    @TempDir
+    private Path directory;
+
+    private LogTaskRepository logRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        logRepository.close();
+    }
+
+    @Test
+    void shouldRecoverTasksAfterRestart() throws IOException {
+        // Given
+        Task kept = logRepository.create(new Task("Kept", "Description"));
+        Task completed = logRepository.create(new Task("Completed", null));
+        Task updated = logRepository.create(new Task("Before update", null));
+        logRepository.complete(completed.getId());
+        logRepository.update(new Task(updated.getId(), "After update", "Updated", false, updated.getCreatedAt()));
+
+        // When
+        reopen();
+
+        // Then
+        assertThat(taskRepository.findAll()).usingRecursiveFieldByFieldElementComparator().containsExactly(
+                kept,
+                new Task(completed.getId(), "Completed", null, true, completed.getCreatedAt()),
+                new Task(updated.getId(), "After update", "Updated", false, updated.getCreatedAt()));
+    }
+
+    @Test
+    void shouldRecoverFromSnapshotAndLogTail() throws IOException {
+        // Given
+        Task first = logRepository.create(new Task("Before snapshot", null));
+        logRepository.snapshot();
+        Task second = logRepository.create(new Task("After snapshot", null));
+        logRepository.complete(first.getId());
+
+        // When
+        reopen();
+
+        // Then
+        assertThat(taskRepository.findAll()).extracting(Task::getId, Task::isCompleted)
+                .containsExactly(
+                        tuple(first.getId(), true),
+                        tuple(second.getId(), false));
+        assertThat(Files.exists(directory.resolve(LogTaskRepository.SNAPSHOT_FILE))).isTrue();
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    @Test
+    void shouldDiscardTornLastRecordAndKeepAppending() throws IOException {
+        // Given
+        Task kept = logRepository.create(new Task("Kept", null));
+        logRepository.create(new Task("Torn", null));
+        int end = logRepository.appendOffset();
+        Path segment = logRepository.currentSegmentPath();
+        logRepository.close();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Simulates a crash before the last byte of the record reached storage
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.read(lastByte, end - 1);
+            lastByte.put(0, (byte) ~lastByte.get(0));
+            channel.write(lastByte.rewind(), end - 1);
+        }
+
+        // When
+        open();
+        Task appended = logRepository.create(new Task("Appended after recovery", null));
+        reopen();
+
+        // Then
+        assertThat(taskRepository.findAll()).extracting(Task::getId).containsExactly(kept.getId(), appended.getId());
+    }
+
+    @Test
+    void shouldNotReplayRecordsWrittenAfterTornRecord() throws IOException {
+        // Given a torn record followed by a record that reached storage before it
+        Task kept = logRepository.create(new Task("Kept", null));
+        int tornOffset = logRepository.appendOffset();
+        logRepository.create(new Task("Torn", null));
+        int tornEnd = logRepository.appendOffset();
+        logRepository.create(new Task("Lost", null));
+        Path segment = logRepository.currentSegmentPath();
+        logRepository.close();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.read(lastByte, tornEnd - 1);
+            lastByte.put(0, (byte) ~lastByte.get(0));
+            channel.write(lastByte.rewind(), tornEnd - 1);
+        }
+
+        // When a record as long as the torn one is appended in its place
+        open();
+        assertThat(logRepository.appendOffset()).isEqualTo(tornOffset);
+        Task appended = logRepository.create(new Task("Anew", null));
+        assertThat(logRepository.appendOffset()).isEqualTo(tornEnd);
+        reopen();
+
+        // Then
+        assertThat(taskRepository.findAll()).extracting(Task::getId).containsExactly(kept.getId(), appended.getId());
+    }
+
+    @Test
+    void shouldGrowSegmentAndRecoverLargeLog() throws IOException {
+        // Given: the segment starts with a few kilobytes, far less than this log needs
+        List<Task> created = logRepository.createAll(Stream.generate(() -> new Task("Task", "x".repeat(100)))
+                .limit(2_000).toList());
+
+        // When
+        reopen();
+
+        // Then
+        assertThat(taskRepository.findAll()).extracting(Task::getId).containsExactlyElementsOf(
+                created.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void shouldPersistEveryConcurrentlyCommittedWrite() throws IOException {
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 500; i++) {
+                int n = i;
+                executor.submit(() -> logRepository.create(new Task("Task " + n, null)));
+            }
+        }
+        reopen();
+
+        // Then
+        assertThat(taskRepository.findAll()).hasSize(500).extracting(Task::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldCompleteTaskOnceWhileCompletionsAwaitDurability() throws Exception {
+        // Given
+        List<Task> tasks = logRepository.createAll(List.of(new Task("Contended", null), new Task("Other", null)));
+        UUID id = tasks.get(0).getId();
+
+        // When: writers waiting for the log to be forced still see each other's completions
+        List<Future<Boolean>> completions = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 50; i++) {
+                completions.add(executor.submit(() -> logRepository.complete(id).isPresent()));
+                completions.add(executor.submit(() -> {
+                    logRepository.update(new Task(tasks.get(1).getId(), "Other", "Edited", false, null));
+                    return false;
+                }));
+            }
+        }
+
+        // Then
+        int completed = 0;
+        for (Future<Boolean> completion : completions) {
+            completed += completion.get() ? 1 : 0;
+        }
+        assertThat(completed).isEqualTo(1);
+        assertThat(logRepository.findById(id)).get().extracting(Task::isCompleted).isEqualTo(true);
+        reopen();
+        assertThat(taskRepository.findAll()).extracting(Task::getTitle, Task::getDescription, Task::isCompleted)
+                .containsExactly(tuple("Contended", null, true), tuple("Other", "Edited", false));
+    }
+
+    @Test
+    void shouldRejectWritesOnceClosed() {
+        // Given
+        logRepository.close();
+
+        // When / Then
+        assertThatIllegalStateException().isThrownBy(() -> logRepository.create(new Task("Too late", null)));
+        assertThatIllegalStateException().isThrownBy(() -> logRepository.complete(UUID.randomUUID()));
+    }
+
+    private void open() throws IOException {
+        logRepository = new LogTaskRepository(directory, DataSize.ofKilobytes(4), DataSize.ofMegabytes(256),
+                Duration.ofMinutes(1), true);
+        taskRepository = logRepository;
+    }
+
+    private void reopen() throws IOException {
+        logRepository.close();
+        open();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).toList();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataRetrievalFailureException;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredTaskRepositoryTest {
+
+    @Mock
+    private TaskRepository delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredTaskRepository meteredRepository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        meteredRepository = new MeteredTaskRepository(delegate, meterRegistry);
+    }
+
+    @Test
+    void shouldTimeOperationsAndCountReturnedRows() {
+        // Given
+        when(delegate.findAll()).thenReturn(List.of(task("First"), task("Second")));
+
+        // When
+        List<Task> tasks = meteredRepository.findAll();
+
+        // Then
+        assertThat(tasks).hasSize(2);
+        assertThat(meterRegistry.get(MeteredTaskRepository.TIMER_NAME).tag("operation", "findAll")
+                .tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MeteredTaskRepository.ROWS_NAME).tag("operation", "findAll")
+                .summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRecordFailedOperationsAsErrors() {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(delegate.findById(id)).thenThrow(new DataRetrievalFailureException("Connection lost"));
+
+        // When & Then
+        assertThatThrownBy(() -> meteredRepository.findById(id)).isInstanceOf(DataRetrievalFailureException.class);
+        assertThat(meterRegistry.get(MeteredTaskRepository.TIMER_NAME).tag("operation", "findById")
+                .tag("outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MeteredTaskRepository.TIMER_NAME).tag("operation", "findById")
+                .tag("outcome", "success").timer().count()).isZero();
+    }
+
+    @Test
+    void shouldCountNotFoundOutcomes() {
+        // Given
+        UUID missing = UUID.randomUUID();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(delegate.findById(missing)).thenReturn(Optional.empty());
+        when(delegate.completeAll(ids)).thenReturn(new CompletionResult(List.of(), ids));
+
+        // When
+        meteredRepository.findById(missing);
+        meteredRepository.completeAll(ids);
+
+        // Then
+        assertThat(meterRegistry.get(MeteredTaskRepository.NOT_FOUND_NAME).tag("operation", "findById")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MeteredTaskRepository.NOT_FOUND_NAME).tag("operation", "completeAll")
+                .counter().count()).isEqualTo(2);
+    }
+
+    private static Task task(String title) {
+        return new Task(UUID.randomUUID(), title, null, false, ZonedDateTime.now());
+    }
+}
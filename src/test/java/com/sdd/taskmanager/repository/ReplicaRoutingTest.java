@@ -0,0 +1,115 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingTest {
+
+    private DataSource primary;
+    private JdbcTaskRepository taskRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Two separate databases, so that the replica never sees writes to the primary
+        primary = database("primary");
+        DataSource replica = database("replica");
+        taskRepository = new JdbcTaskRepository(new JdbcTemplate(primary), new ReadReplicas(replica), 500);
+    }
+
+    @Test
+    void shouldReadFromReplicaByDefault() {
+        // Given
+        Task created = taskRepository.create(new Task("Written to primary", null));
+
+        // When
+        Optional<Task> found = taskRepository.findById(created.getId());
+
+        // Then
+        assertThat(found).isEmpty();
+        assertThat(taskRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenRequired() {
+        // Given
+        Task created = taskRepository.create(new Task("Written to primary", null));
+
+        // When
+        Optional<Task> found;
+        try (ReadReplicas.PrimaryScope scope = ReadReplicas.usePrimary()) {
+            found = taskRepository.findById(created.getId());
+        }
+
+        // Then
+        assertThat(found).isPresent();
+        assertThat(ReadReplicas.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    void shouldReadFromPrimaryInTransactions() {
+        // Given
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(primary));
+
+        // When
+        Optional<Task> found = transaction.execute(status ->
+                taskRepository.findById(taskRepository.create(new Task("Written in transaction", null)).getId()));
+
+        // Then
+        assertThat(found).isPresent();
+    }
+
+    @Test
+    void shouldStreamFromReplicaInReadOnlyTransactions() {
+        // Given
+        taskRepository.create(new Task("Written to primary", null));
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(primary));
+        transaction.setReadOnly(true);
+        List<Task> streamed = new ArrayList<>();
+
+        // When
+        transaction.executeWithoutResult(status -> taskRepository.streamAll(streamed::add));
+
+        // Then
+        assertThat(streamed).isEmpty();
+        assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+    }
+
+    @Test
+    void shouldStreamFromPrimaryInReadWriteTransactions() {
+        // Given
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(primary));
+        List<Task> streamed = new ArrayList<>();
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            taskRepository.create(new Task("Written in transaction", null));
+            taskRepository.streamAll(streamed::add);
+        });
+
+        // Then
+        assertThat(streamed).extracting(Task::getTitle).containsExactly("Written in transaction");
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,146 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardRebalancerTest {
+
+    @Test
+    void shouldMoveTasksToTheirShardAfterAddingOne() throws Exception {
+        // Given tasks written to two shards
+        DataSource first = ShardedTaskRepositoryTest.database();
+        DataSource second = ShardedTaskRepositoryTest.database();
+        DataSource third = ShardedTaskRepositoryTest.database();
+        List<Task> created;
+        List<Integer> formerShards;
+        try (ShardedTaskRepository twoShards = new ShardedTaskRepository(List.of(first, second), 500, new SimpleMeterRegistry())) {
+            created = twoShards.createAll(IntStream.range(0, 300).mapToObj(i -> new Task("Task " + i, null)).toList());
+            formerShards = created.stream().map(task -> twoShards.shardOf(task.getId())).toList();
+        }
+
+        try (ShardedTaskRepository threeShards = new ShardedTaskRepository(List.of(first, second, third), 500, new SimpleMeterRegistry());
+             ShardRebalancer rebalancer = new ShardRebalancer(threeShards, 64)) {
+            // When
+            long moved = rebalancer.rebalance();
+
+            // Then
+            List<DataSource> databases = List.of(first, second, third);
+            for (int shard = 0; shard < databases.size(); shard++) {
+                int expectedShard = shard;
+                assertThat(new JdbcTemplate(databases.get(shard)).queryForList("SELECT id FROM tasks", UUID.class))
+                        .allMatch(id -> threeShards.shardOf(id) == expectedShard);
+            }
+            long misplaced = IntStream.range(0, created.size())
+                    .filter(i -> threeShards.shardOf(created.get(i).getId()) != formerShards.get(i))
+                    .count();
+            assertThat(moved).isEqualTo(misplaced).isPositive();
+            assertThat(threeShards.findAll()).hasSize(created.size());
+            assertThat(created).allMatch(task -> threeShards.findById(task.getId()).isPresent());
+            assertThat(rebalancer.status()).containsEntry("running", false).containsEntry("moved", moved);
+        }
+    }
+
+    @Test
+    void shouldFindTasksOnTheirFormerShardWhileRebalancing() throws Exception {
+        // Given
+        DataSource first = ShardedTaskRepositoryTest.database();
+        DataSource second = ShardedTaskRepositoryTest.database();
+        Task created;
+        try (ShardedTaskRepository oneShard = new ShardedTaskRepository(List.of(first), 500, new SimpleMeterRegistry())) {
+            created = oneShard.create(new Task("Misplaced", null));
+        }
+        List<DataSource> shards;
+        try (ShardedTaskRepository probe = new ShardedTaskRepository(List.of(first, second), 500, new SimpleMeterRegistry())) {
+            // Put the database holding the task where it does not hash to
+            shards = probe.shardOf(created.getId()) == 0 ? List.of(second, first) : List.of(first, second);
+        }
+        try (ShardedTaskRepository twoShards = new ShardedTaskRepository(shards, 500, new SimpleMeterRegistry())) {
+            // When
+            twoShards.setRebalancing(true);
+            twoShards.update(created.withCompleted(true));
+
+            // Then
+            assertThat(twoShards.findById(created.getId())).hasValueSatisfying(task -> assertThat(task.isCompleted()).isTrue());
+            assertThat(twoShards.findAll()).extracting(Task::getId).containsExactly(created.getId());
+            twoShards.setRebalancing(false);
+            assertThat(twoShards.findById(created.getId())).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldDrainRetiredShardAndRecordTheLayout() throws Exception {
+        // Given tasks written to two shards, of which the second is then retired
+        DataSource store = ShardedTaskRepositoryTest.database();
+        DataSource first = ShardedTaskRepositoryTest.database();
+        DataSource second = ShardedTaskRepositoryTest.database();
+        new ShardLayout(store, List.of("first", "second"), List.of());
+        List<Task> created;
+        try (ShardedTaskRepository twoShards = new ShardedTaskRepository(List.of(first, second), 500, new SimpleMeterRegistry())) {
+            created = twoShards.createAll(IntStream.range(0, 100).mapToObj(i -> new Task("Task " + i, null)).toList());
+        }
+        ShardLayout layout = new ShardLayout(store, List.of("first"), List.of("second"));
+
+        try (ShardedTaskRepository oneShard = new ShardedTaskRepository(List.of(first), List.of(second), 500, new SimpleMeterRegistry());
+             ShardRebalancer rebalancer = new ShardRebalancer(oneShard, 16, layout)) {
+            // Then tasks of the retired shard are found before the rebalance
+            assertThat(layout.isChanged()).isTrue();
+            assertThat(created).allMatch(task -> oneShard.findById(task.getId()).isPresent());
+
+            // When
+            rebalancer.rebalance();
+
+            // Then
+            assertThat(new JdbcTemplate(second).queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isZero();
+            assertThat(new JdbcTemplate(first).queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isEqualTo(created.size());
+            assertThat(rebalancer.status()).containsEntry("retired", 1).containsEntry("layoutChanged", false);
+            assertThat(new ShardLayout(store, List.of("first"), List.of()).isChanged()).isFalse();
+        }
+    }
+
+    @Test
+    void shouldRejectShardRemovedWithoutRetiringIt() {
+        // Given
+        DataSource store = ShardedTaskRepositoryTest.database();
+        new ShardLayout(store, List.of("first", "second"), List.of());
+
+        // When / Then
+        assertThatThrownBy(() -> new ShardLayout(store, List.of("first"), List.of()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("second");
+    }
+
+    @Test
+    void shouldSearchEveryShardFromStartupAfterTheLayoutChanged() throws Exception {
+        // Given a task on a shard it no longer hashes to, after a restart with one more shard
+        DataSource store = ShardedTaskRepositoryTest.database();
+        DataSource first = ShardedTaskRepositoryTest.database();
+        DataSource second = ShardedTaskRepositoryTest.database();
+        new ShardLayout(store, List.of("first"), List.of());
+        Task created;
+        try (ShardedTaskRepository oneShard = new ShardedTaskRepository(List.of(first), 500, new SimpleMeterRegistry());
+             ShardedTaskRepository probe = new ShardedTaskRepository(List.of(first, second), 500, new SimpleMeterRegistry())) {
+            do {
+                created = oneShard.create(new Task("Misplaced", null));
+            } while (probe.shardOf(created.getId()) != 1);
+        }
+
+        // When
+        try (ShardedTaskRepository twoShards = new ShardedTaskRepository(List.of(first, second), 500, new SimpleMeterRegistry());
+             ShardRebalancer ignored = new ShardRebalancer(twoShards, 16, new ShardLayout(store, List.of("first", "second"), List.of()))) {
+            // Then
+            assertThat(twoShards.shardOf(created.getId())).isEqualTo(1);
+            assertThat(twoShards.findById(created.getId())).isPresent();
+            assertThat(twoShards.complete(created.getId())).isPresent();
+        }
+    }
+}
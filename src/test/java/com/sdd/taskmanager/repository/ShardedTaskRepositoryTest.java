@@ -0,0 +1,115 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedTaskRepositoryTest extends TaskRepositoryContractTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private List<DataSource> databases;
+    private ShardedTaskRepository shardedRepository;
+
+    @BeforeEach
+    void setUp() {
+        databases = List.of(database(), database(), database());
+        shardedRepository = new ShardedTaskRepository(databases, 500, meterRegistry);
+        taskRepository = shardedRepository;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        shardedRepository.close();
+    }
+
+    @Test
+    void shouldStoreEachTaskOnTheShardItsIdHashesTo() {
+        // When
+        List<Task> created = shardedRepository.createAll(
+                IntStream.range(0, 60).mapToObj(i -> new Task("Task " + i, null)).toList());
+
+        // Then
+        for (int shard = 0; shard < databases.size(); shard++) {
+            List<UUID> stored = new JdbcTemplate(databases.get(shard)).queryForList("SELECT id FROM tasks", UUID.class);
+            int expectedShard = shard;
+            assertThat(stored)
+                    .isNotEmpty()
+                    .allMatch(id -> shardedRepository.shardOf(id) == expectedShard);
+        }
+        assertThat(created).allMatch(task -> shardedRepository.findById(task.getId()).isPresent());
+    }
+
+    @Test
+    void shouldMergePagesOfAllShardsInCreationOrder() {
+        // Given
+        List<Task> created = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            created.add(shardedRepository.create(new Task("Task " + i, null)));
+        }
+
+        // When
+        List<Task> firstPage = shardedRepository.findPage(TaskFilter.NONE, null, 7);
+        List<Task> secondPage = shardedRepository.findPage(TaskFilter.NONE, TaskCursor.after(firstPage.get(6)), 7);
+
+        // Then
+        assertThat(firstPage).extracting(Task::getId)
+                .containsExactlyElementsOf(created.subList(0, 7).stream().map(Task::getId).toList());
+        assertThat(secondPage).extracting(Task::getId)
+                .containsExactlyElementsOf(created.subList(7, 14).stream().map(Task::getId).toList());
+        assertThat(shardedRepository.findAll()).extracting(Task::getId)
+                .containsExactlyElementsOf(created.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void shouldTimeOperationsOfEveryShard() {
+        // When
+        shardedRepository.findPage(TaskFilter.NONE, null, 10);
+
+        // Then
+        for (int shard = 0; shard < databases.size(); shard++) {
+            assertThat(meterRegistry.get(ShardedTaskRepository.SHARD_TIMER_NAME)
+                    .tag("shard", Integer.toString(shard))
+                    .tag("operation", "findPage")
+                    .timer()
+                    .count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldSpreadTasksEvenly() {
+        // Given
+        int[] counts = new int[databases.size()];
+
+        // When
+        for (int i = 0; i < 30_000; i++) {
+            counts[shardedRepository.shardOf(TimeOrderedUuids.next())]++;
+        }
+
+        // Then
+        assertThat(Collections.min(IntStream.of(counts).boxed().toList())).isGreaterThan(9_000);
+    }
+
+    static DataSource database() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:shard-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+}
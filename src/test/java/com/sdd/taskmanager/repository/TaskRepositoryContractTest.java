@@ -0,0 +1,289 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Behaviour every {@link TaskRepository} storage engine must share. Subclasses provide the engine under test.
+ */
+abstract class TaskRepositoryContractTest {
+
+    protected TaskRepository taskRepository;
+
+    @Test
+    void shouldCreateTaskAndReturnIt() {
+        // Given
+        String title = "Test Task";
+        String description = "Description for test task";
+        Task newTask = new Task(title, description);
+
+        // When
+        Task createdTask = taskRepository.create(newTask);
+
+        // Then
+        assertNotNull(createdTask);
+        assertNotNull(createdTask.getId());
+        assertThat(createdTask.getTitle()).isEqualTo(title);
+        assertThat(createdTask.getDescription()).isEqualTo(description);
+        assertThat(createdTask.isCompleted()).isFalse();
+        assertNotNull(createdTask.getCreatedAt());
+
+        // Verify it can be found in the database
+        Optional<Task> foundTask = taskRepository.findById(createdTask.getId());
+        assertThat(foundTask).isPresent();
+        assertThat(foundTask.get().getTitle()).isEqualTo(title);
+        assertThat(foundTask.get().getDescription()).isEqualTo(description);
+        assertThat(foundTask.get().isCompleted()).isFalse();
+        assertThat(foundTask.get().getCreatedAt()).isEqualToIgnoringNanos(createdTask.getCreatedAt()); // Compare ignoring nanos due to potential DB precision differences
+    }
+
+    @Test
+    void shouldFindAllTasks() {
+        // Given
+        Task task1 = new Task("Task 1", "Description 1");
+        Task task2 = new Task("Task 2", "Description 2");
+        taskRepository.create(task1);
+        taskRepository.create(task2);
+
+        // When
+        List<Task> tasks = taskRepository.findAll();
+
+        // Then
+        assertThat(tasks).hasSize(2);
+        assertThat(tasks).extracting(Task::getTitle).containsExactlyInAnyOrder("Task 1", "Task 2");
+    }
+
+    @Test
+    void shouldFindTaskById() {
+        // Given
+        Task task = new Task("Task to find", "Description to find");
+        Task createdTask = taskRepository.create(task);
+
+        // When
+        Optional<Task> foundTask = taskRepository.findById(createdTask.getId());
+
+        // Then
+        assertThat(foundTask).isPresent();
+        assertThat(foundTask.get().getId()).isEqualTo(createdTask.getId());
+        assertThat(foundTask.get().getTitle()).isEqualTo(createdTask.getTitle());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenTaskNotFoundById() {
+        // Given
+        UUID nonExistentId = UUID.randomUUID();
+
+        // When
+        Optional<Task> foundTask = taskRepository.findById(nonExistentId);
+
+        // Then
+        assertThat(foundTask).isNotPresent();
+    }
+
+    @Test
+    void shouldUpdateTaskStatus() {
+        // Given
+        Task task = new Task("Task to update", "Description to update");
+        Task createdTask = taskRepository.create(task);
+        assertFalse(createdTask.isCompleted());
+
+        // When
+        taskRepository.update(createdTask.withCompleted(true));
+
+        // Then
+        Optional<Task> updatedTask = taskRepository.findById(createdTask.getId());
+        assertThat(updatedTask).isPresent();
+        assertTrue(updatedTask.get().isCompleted());
+        assertThat(updatedTask.get().getTitle()).isEqualTo(createdTask.getTitle());
+    }
+
+    @Test
+    void shouldPageThroughAllTasksInCreationOrder() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            taskRepository.create(new Task("Task " + i, "Description " + i));
+        }
+
+        // When
+        List<Task> collected = new ArrayList<>();
+        List<Task> page = taskRepository.findPage(TaskFilter.NONE, null, 2);
+        while (!page.isEmpty()) {
+            assertThat(page).hasSizeLessThanOrEqualTo(2);
+            collected.addAll(page);
+            page = taskRepository.findPage(TaskFilter.NONE, TaskCursor.after(page.get(page.size() - 1)), 2);
+        }
+
+        // Then
+        assertThat(collected).hasSize(5);
+        assertThat(collected).extracting(Task::getId).doesNotHaveDuplicates();
+        assertThat(collected).isSortedAccordingTo(Comparator
+                .comparing((Task t) -> t.getCreatedAt().toInstant())
+                .thenComparing(t -> t.getId().toString()));
+    }
+
+    @Test
+    void shouldReturnEmptyPageAfterLastTask() {
+        // Given
+        Task createdTask = taskRepository.create(new Task("Only task", null));
+        Task storedTask = taskRepository.findById(createdTask.getId()).orElseThrow();
+
+        // When
+        List<Task> page = taskRepository.findPage(TaskFilter.NONE, TaskCursor.after(storedTask), 10);
+
+        // Then
+        assertThat(page).isEmpty();
+    }
+
+    @Test
+    void shouldStreamAllTasks() {
+        // Given
+        taskRepository.create(new Task("Task 1", "Description 1"));
+        taskRepository.create(new Task("Task 2", "Description 2"));
+        taskRepository.create(new Task("Task 3", null));
+
+        // When
+        List<Task> streamed = new ArrayList<>();
+        taskRepository.streamAll(streamed::add);
+
+        // Then
+        assertThat(streamed).extracting(Task::getTitle).containsExactlyInAnyOrder("Task 1", "Task 2", "Task 3");
+    }
+
+    @Test
+    void shouldCreateAllTasksInOneBatch() {
+        // Given
+        List<Task> newTasks = List.of(new Task("Batch 1", "Description 1"), new Task("Batch 2", null));
+
+        // When
+        List<Task> createdTasks = taskRepository.createAll(newTasks);
+
+        // Then
+        assertThat(createdTasks).extracting(Task::getTitle).containsExactly("Batch 1", "Batch 2");
+        assertThat(createdTasks).extracting(Task::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(taskRepository.findAll()).extracting(Task::getTitle).containsExactlyInAnyOrder("Batch 1", "Batch 2");
+        assertThat(taskRepository.findById(createdTasks.get(1).getId())).get()
+                .extracting(Task::getDescription).isNull();
+    }
+
+    @Test
+    void shouldCompleteOpenTaskOnlyOnce() {
+        // Given
+        Task createdTask = taskRepository.create(new Task("Task to complete", "Description"));
+
+        // When
+        Optional<Task> firstCompletion = taskRepository.complete(createdTask.getId());
+        Optional<Task> secondCompletion = taskRepository.complete(createdTask.getId());
+
+        // Then
+        assertThat(firstCompletion).isPresent();
+        assertThat(firstCompletion.get().getId()).isEqualTo(createdTask.getId());
+        assertThat(firstCompletion.get().getTitle()).isEqualTo("Task to complete");
+        assertTrue(firstCompletion.get().isCompleted());
+        assertThat(secondCompletion).isNotPresent();
+        assertTrue(taskRepository.findById(createdTask.getId()).orElseThrow().isCompleted());
+    }
+
+    @Test
+    void shouldNotCompleteNonExistentTask() {
+        assertThat(taskRepository.complete(UUID.randomUUID())).isNotPresent();
+    }
+
+    @Test
+    void shouldCompleteAllAndReportMissingIds() {
+        // Given
+        Task open = taskRepository.create(new Task("Open", null));
+        Task alreadyCompleted = taskRepository.create(new Task("Already completed", null));
+        taskRepository.complete(alreadyCompleted.getId());
+        Task untouched = taskRepository.create(new Task("Untouched", null));
+        UUID missingId = UUID.randomUUID();
+
+        // When
+        CompletionResult result = taskRepository.completeAll(
+                List.of(open.getId(), alreadyCompleted.getId(), missingId, open.getId()));
+
+        // Then
+        assertThat(result.getCompleted()).extracting(Task::getId).containsExactly(open.getId());
+        assertThat(result.getCompleted()).allMatch(Task::isCompleted);
+        assertThat(result.getNotFound()).containsExactly(missingId);
+        assertTrue(taskRepository.findById(open.getId()).orElseThrow().isCompleted());
+        assertFalse(taskRepository.findById(untouched.getId()).orElseThrow().isCompleted());
+    }
+
+    @Test
+    void shouldCountTasksByCreationDay() {
+        // Given
+        Task completed = taskRepository.create(new Task("Completed", null));
+        taskRepository.complete(completed.getId());
+        taskRepository.createAll(List.of(new Task("Open 1", null), new Task("Open 2", null)));
+
+        // When
+        List<DailyTaskCounts> days = taskRepository.countByCreationDay();
+
+        // Then
+        assertThat(days).hasSize(1);
+        assertThat(days.get(0).getDate()).isEqualTo(completed.getCreatedAt().withZoneSameInstant(ZoneOffset.UTC).toLocalDate());
+        assertThat(days.get(0).getCreated()).isEqualTo(3);
+        assertThat(days.get(0).getCompleted()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPageThroughTasksMatchingFilter() throws InterruptedException {
+        // Given
+        Task before = taskRepository.create(new Task("Report Q1", null));
+        Thread.sleep(2); // Distinct creation times around the range bound
+        Task first = taskRepository.create(new Task("Report Q2", null));
+        taskRepository.create(new Task("Invoice", null));
+        Task completed = taskRepository.create(new Task("Report Q3", null));
+        taskRepository.complete(completed.getId());
+        Task second = taskRepository.create(new Task("Report Q4", null));
+        Task lowerBound = taskRepository.findById(first.getId()).orElseThrow();
+        TaskFilter filter = new TaskFilter(false, lowerBound.getCreatedAt(), null, "Report");
+
+        // When
+        List<Task> firstPage = taskRepository.findPage(filter, null, 1);
+        List<Task> secondPage = taskRepository.findPage(filter, TaskCursor.after(firstPage.get(0)), 1);
+        List<Task> lastPage = taskRepository.findPage(filter, TaskCursor.after(secondPage.get(0)), 1);
+
+        // Then
+        assertThat(firstPage).extracting(Task::getId).containsExactly(first.getId());
+        assertThat(secondPage).extracting(Task::getId).containsExactly(second.getId());
+        assertThat(lastPage).isEmpty();
+        assertThat(taskRepository.findPage(new TaskFilter(null, null, lowerBound.getCreatedAt(), null), null, 10))
+                .extracting(Task::getId).containsExactly(before.getId());
+        assertThat(taskRepository.findPage(new TaskFilter(true, null, null, null), null, 10))
+                .extracting(Task::getId).containsExactly(completed.getId());
+    }
+
+    @Test
+    void shouldMatchTitlePrefixLiterally() {
+        // Given
+        Task literal = taskRepository.create(new Task("100% done", null));
+        taskRepository.create(new Task("1000 items", null));
+        taskRepository.create(new Task("A_B", null));
+
+        // When
+        List<Task> page = taskRepository.findPage(new TaskFilter(null, null, null, "100%"), null, 10);
+
+        // Then
+        assertThat(page).extracting(Task::getId).containsExactly(literal.getId());
+        assertThat(taskRepository.findPage(new TaskFilter(null, null, null, "A_"), null, 10)).hasSize(1);
+        assertThat(taskRepository.findPage(new TaskFilter(null, null, null, "a_"), null, 10)).isEmpty();
+    }
+
+}
@@ -1,29 +1,38 @@
 package com.sdd.taskmanager.repository;
 
 import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @JdbcTest
 @Import(JdbcTaskRepository.class) // Import the repository implementation
 @Sql(scripts = {"classpath:schema.sql"}) // Load the schema for testing
-class TaskRepositoryTest {
+class TaskRepositoryTest extends TaskRepositoryContractTest {
 
     @Autowired
-    private TaskRepository taskRepository; // Autowire the interface
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    void setTaskRepository(TaskRepository taskRepository) { // Autowire the interface
+        this.taskRepository = taskRepository;
+    }
 
     @Test
     void contextLoads() {
@@ -31,90 +40,69 @@ class TaskRepositoryTest {
     }
 
     @Test
-    void shouldCreateTaskAndReturnIt() {
-        // Given
-        String title = "Test Task";
-        String description = "Description for test task";
-        Task newTask = new Task(title, description);
-
+    void shouldStoreTimeOrderedNativeUuids() {
         // When
-        Task createdTask = taskRepository.create(newTask);
+        Task first = taskRepository.create(new Task("First", null));
+        Task second = taskRepository.create(new Task("Second", null));
 
         // Then
-        assertNotNull(createdTask);
-        assertNotNull(createdTask.getId());
-        assertThat(createdTask.getTitle()).isEqualTo(title);
-        assertThat(createdTask.getDescription()).isEqualTo(description);
-        assertThat(createdTask.isCompleted()).isFalse();
-        assertNotNull(createdTask.getCreatedAt());
-
-        // Verify it can be found in the database
-        Optional<Task> foundTask = taskRepository.findById(createdTask.getId());
-        assertThat(foundTask).isPresent();
-        assertThat(foundTask.get().getTitle()).isEqualTo(title);
-        assertThat(foundTask.get().getDescription()).isEqualTo(description);
-        assertThat(foundTask.get().isCompleted()).isFalse();
-        assertThat(foundTask.get().getCreatedAt()).isEqualToIgnoringNanos(createdTask.getCreatedAt()); // Compare ignoring nanos due to potential DB precision differences
+        assertThat(first.getId().version()).isEqualTo(7);
+        assertThat(second.getId().toString()).isGreaterThan(first.getId().toString());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'TASKS' AND COLUMN_NAME = 'ID'",
+                String.class)).isEqualTo("UUID");
     }
 
     @Test
-    void shouldFindAllTasks() {
+    @Sql(statements = {
+            "DROP TABLE IF EXISTS tasks",
+            "CREATE TABLE tasks (id VARCHAR(36) PRIMARY KEY, title VARCHAR(255) NOT NULL, description VARCHAR(1000), " +
+                    "completed BOOLEAN DEFAULT FALSE NOT NULL, created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL)",
+            "INSERT INTO tasks (id, title) VALUES ('3f2504e0-4f89-41d3-9a0c-0305e82c3301', 'Legacy task')"
+    })
+    @Sql(scripts = "classpath:db/migration/tasks-id-to-uuid.sql")
+    void shouldMigrateVarcharIdsToUuid() {
         // Given
-        Task task1 = new Task("Task 1", "Description 1");
-        Task task2 = new Task("Task 2", "Description 2");
-        taskRepository.create(task1);
-        taskRepository.create(task2);
+        UUID legacyId = UUID.fromString("3f2504e0-4f89-41d3-9a0c-0305e82c3301");
 
         // When
-        List<Task> tasks = taskRepository.findAll();
+        Optional<Task> legacyTask = taskRepository.findById(legacyId);
+        Task newTask = taskRepository.create(new Task("New task", null));
 
         // Then
-        assertThat(tasks).hasSize(2);
-        assertThat(tasks).extracting(Task::getTitle).containsExactlyInAnyOrder("Task 1", "Task 2");
+        assertThat(legacyTask).isPresent();
+        assertThat(legacyTask.get().getTitle()).isEqualTo("Legacy task");
+        assertThat(taskRepository.findById(newTask.getId())).isPresent();
     }
 
-    @Test
-    void shouldFindTaskById() {
+    @ParameterizedTest(name = "completed={0}, createdFrom={1}, createdTo={2}, titlePrefix={3}, after={4}")
+    @MethodSource("filterCombinations")
+    void shouldServeEveryFilterCombinationFromAnIndex(boolean completed, boolean createdFrom, boolean createdTo,
+                                                       boolean titlePrefix, boolean after) {
         // Given
-        Task task = new Task("Task to find", "Description to find");
-        Task createdTask = taskRepository.create(task);
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        TaskFilter filter = new TaskFilter(completed ? Boolean.FALSE : null, createdFrom ? now.minusDays(1) : null,
+                createdTo ? now : null, titlePrefix ? "Report" : null);
+        TaskCursor cursor = after ? new TaskCursor(now.minusHours(1), UUID.randomUUID()) : null;
+        JdbcTaskRepository.PageQuery query = JdbcTaskRepository.pageQuery(filter, cursor, 100);
 
         // When
-        Optional<Task> foundTask = taskRepository.findById(createdTask.getId());
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query.sql, String.class, query.params);
 
         // Then
-        assertThat(foundTask).isPresent();
-        assertThat(foundTask.get().getId()).isEqualTo(createdTask.getId());
-        assertThat(foundTask.get().getTitle()).isEqualTo(createdTask.getTitle());
+        assertThat(plan).contains("/* PUBLIC.IDX_TASKS_").doesNotContainIgnoringCase("tableScan");
+        if (!titlePrefix) {
+            // Rows come out of the index in page order, so the LIMIT stops the scan early
+            assertThat(plan).contains("/* index sorted */");
+        }
     }
 
-    @Test
-    void shouldReturnEmptyWhenTaskNotFoundById() {
-        // Given
-        UUID nonExistentId = UUID.randomUUID();
-
-        // When
-        Optional<Task> foundTask = taskRepository.findById(nonExistentId);
-
-        // Then
-        assertThat(foundTask).isNotPresent();
+    static Stream<Arguments> filterCombinations() {
+        Stream.Builder<Arguments> combinations = Stream.builder();
+        for (int mask = 0; mask < 32; mask++) {
+            combinations.add(Arguments.of((mask & 1) != 0, (mask & 2) != 0, (mask & 4) != 0, (mask & 8) != 0, (mask & 16) != 0));
+        }
+        return combinations.build();
     }
 
-    @Test
-    void shouldUpdateTaskStatus() {
-        // Given
-        Task task = new Task("Task to update", "Description to update");
-        Task createdTask = taskRepository.create(task);
-        assertFalse(createdTask.isCompleted());
-
-        // When
-        createdTask.setCompleted(true);
-        taskRepository.update(createdTask);
-
-        // Then
-        Optional<Task> updatedTask = taskRepository.findById(createdTask.getId());
-        assertThat(updatedTask).isPresent();
-        assertTrue(updatedTask.get().isCompleted());
-        assertThat(updatedTask.get().getTitle()).isEqualTo(createdTask.getTitle());
-    }
 }
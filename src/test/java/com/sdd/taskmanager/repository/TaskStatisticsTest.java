@@ -0,0 +1,112 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.DailyTaskCounts;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskStatisticsTest {
+
+    private final TaskStatistics statistics = new TaskStatistics();
+
+    @Test
+    void shouldCountCreationsAndCompletionsByCreationDay() {
+        // Given
+        Task monday = task(LocalDate.of(2024, 5, 6));
+        Task tuesday = task(LocalDate.of(2024, 5, 7));
+
+        // When
+        statistics.tasksCreated(List.of(monday, tuesday, task(LocalDate.of(2024, 5, 7))));
+        statistics.tasksUpdated(List.of(monday.withCompleted(true)));
+
+        // Then
+        TaskStats stats = statistics.snapshot(30);
+        assertThat(stats.getTotal()).isEqualTo(3);
+        assertThat(stats.getCompleted()).isEqualTo(1);
+        assertThat(stats.getPending()).isEqualTo(2);
+        assertThat(stats.getDays()).extracting(DailyTaskCounts::getDate)
+                .containsExactly(LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 7));
+        assertThat(stats.getDays()).extracting(DailyTaskCounts::getCreated).containsExactly(1L, 2L);
+        assertThat(stats.getDays()).extracting(DailyTaskCounts::getCompleted).containsExactly(1L, 0L);
+        assertThat(stats.getReconciledAt()).isNull();
+    }
+
+    @Test
+    void shouldReturnTheMostRecentDaysOldestFirst() {
+        // Given
+        for (int day = 1; day <= 10; day++) {
+            statistics.tasksCreated(List.of(task(LocalDate.of(2024, 5, day))));
+        }
+
+        // When
+        TaskStats stats = statistics.snapshot(3);
+
+        // Then
+        assertThat(stats.getTotal()).isEqualTo(10);
+        assertThat(stats.getDays()).extracting(DailyTaskCounts::getDate)
+                .containsExactly(LocalDate.of(2024, 5, 8), LocalDate.of(2024, 5, 9), LocalDate.of(2024, 5, 10));
+    }
+
+    @Test
+    void shouldReplaceCountsWithStoredOnesOnReconcile() {
+        // Given
+        statistics.tasksCreated(List.of(task(LocalDate.of(2024, 5, 6))));
+
+        // When
+        statistics.reconcile(List.of(
+                new DailyTaskCounts(LocalDate.of(2024, 5, 1), 4, 4),
+                new DailyTaskCounts(LocalDate.of(2024, 5, 2), 6, 1)));
+        statistics.tasksCreated(List.of(task(LocalDate.of(2024, 5, 2))));
+
+        // Then
+        TaskStats stats = statistics.snapshot(30);
+        assertThat(stats.getTotal()).isEqualTo(11);
+        assertThat(stats.getCompleted()).isEqualTo(5);
+        assertThat(stats.getDays()).extracting(DailyTaskCounts::getCreated).containsExactly(4L, 7L);
+        assertThat(stats.getReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void shouldCountConcurrentWritesExactly() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            writers.add(executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    Task task = task(LocalDate.of(2024, 5, 1 + j % 7));
+                    statistics.tasksCreated(List.of(task));
+                    statistics.tasksUpdated(List.of(task.withCompleted(true)));
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+
+        // Then
+        TaskStats stats = statistics.snapshot(30);
+        assertThat(stats.getTotal()).isEqualTo(80_000);
+        assertThat(stats.getCompleted()).isEqualTo(80_000);
+        assertThat(stats.getDays()).hasSize(7);
+    }
+
+    private static Task task(LocalDate day) {
+        return new Task(UUID.randomUUID(), "Task", null, false, day.atTime(12, 0).atZone(ZoneOffset.UTC));
+    }
+}
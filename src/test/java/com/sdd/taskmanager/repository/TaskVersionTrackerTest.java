@@ -0,0 +1,68 @@
+package com.sdd.taskmanager.repository;
+
+import com.sdd.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskVersionTrackerTest {
+
+    @Test
+    void shouldBumpCollectionAndTaskVersionsOnWrite() {
+        // Given
+        TaskVersionTracker tracker = new TaskVersionTracker(10);
+        Task written = task();
+        Task untouched = task();
+        long collectionBefore = tracker.currentVersion();
+        long writtenBefore = tracker.versionOf(written.getId());
+        long untouchedBefore = tracker.versionOf(untouched.getId());
+
+        // When
+        tracker.tasksUpdated(List.of(written));
+
+        // Then
+        assertThat(tracker.currentVersion()).isGreaterThan(collectionBefore);
+        assertThat(tracker.versionOf(written.getId())).isGreaterThan(writtenBefore);
+        assertThat(tracker.versionOf(untouched.getId())).isEqualTo(untouchedBefore);
+    }
+
+    @Test
+    void shouldStillChangeVersionOfTaskEvictedFromTracking() {
+        // Given
+        TaskVersionTracker tracker = new TaskVersionTracker(2);
+        Task first = task();
+        tracker.tasksCreated(List.of(first));
+        long firstVersion = tracker.versionOf(first.getId());
+        tracker.tasksUpdated(List.of(first));
+        long updatedVersion = tracker.versionOf(first.getId());
+
+        // When: two other writes push the first task out of the tracked window
+        tracker.tasksCreated(List.of(task()));
+        tracker.tasksCreated(List.of(task()));
+
+        // Then
+        assertThat(tracker.versionOf(first.getId())).isGreaterThanOrEqualTo(updatedVersion).isNotEqualTo(firstVersion);
+    }
+
+    @Test
+    void shouldStartAboveVersionsOfEarlierRuns() throws Exception {
+        // Given
+        TaskVersionTracker previousRun = new TaskVersionTracker(10);
+        previousRun.tasksCreated(List.of(task()));
+        Thread.sleep(2);
+
+        // When
+        TaskVersionTracker restarted = new TaskVersionTracker(10);
+
+        // Then
+        assertThat(restarted.currentVersion()).isGreaterThan(previousRun.currentVersion());
+    }
+
+    private static Task task() {
+        return new Task(UUID.randomUUID(), "Task", null, false, ZonedDateTime.now());
+    }
+}
@@ -0,0 +1,50 @@
+package com.sdd.taskmanager.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidsTest {
+
+    @Test
+    void shouldGenerateVersion7Uuids() {
+        // When
+        UUID uuid = TimeOrderedUuids.next();
+
+        // Then
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEmbedCurrentTimestamp() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID uuid = TimeOrderedUuids.next();
+
+        // Then
+        assertThat(TimeOrderedUuids.timestampMillis(uuid)).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void shouldGenerateStrictlyIncreasingUuids() {
+        // Given
+        List<UUID> uuids = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(TimeOrderedUuids.next());
+        }
+
+        // Then: string order is unsigned byte order, which is how databases compare UUID keys
+        for (int i = 1; i < uuids.size(); i++) {
+            assertThat(uuids.get(i).toString()).isGreaterThan(uuids.get(i - 1).toString());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.sdd.taskmanager.search;
+
+import com.sdd.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskSearchIndexTest {
+
+    private final TaskSearchIndex index = new TaskSearchIndex();
+
+    @Test
+    void shouldRankTitleMatchesAboveDescriptionMatches() {
+        // Given
+        Task inDescription = task("Prepare meeting", "Bring the quarterly report");
+        Task inTitle = task("Quarterly report", "Due Friday");
+        Task unrelated = task("Water plants", null);
+        index.tasksCreated(List.of(inDescription, inTitle, unrelated));
+
+        // When
+        List<TaskSearchIndex.Hit> hits = index.search("REPORT", 10);
+
+        // Then
+        assertThat(hits).extracting(TaskSearchIndex.Hit::getId).containsExactly(inTitle.getId(), inDescription.getId());
+    }
+
+    @Test
+    void shouldRankTasksMatchingMoreTermsFirst() {
+        // Given
+        Task one = task("Fix login bug", null);
+        Task both = task("Fix login page bug", "Password reset fails");
+        index.tasksCreated(List.of(one, both));
+
+        // When
+        List<TaskSearchIndex.Hit> hits = index.search("password bug", 10);
+
+        // Then
+        assertThat(hits).extracting(TaskSearchIndex.Hit::getId).containsExactly(both.getId(), one.getId());
+    }
+
+    @Test
+    void shouldReplaceTermsOfUpdatedTask() {
+        // Given
+        Task task = task("Draft budget", null);
+        index.tasksCreated(List.of(task));
+
+        // When
+        index.tasksUpdated(List.of(new Task(task.getId(), "Review budget", null, true, task.getCreatedAt())));
+
+        // Then
+        assertThat(index.search("draft", 10)).isEmpty();
+        assertThat(index.search("review", 10)).extracting(TaskSearchIndex.Hit::getId).containsExactly(task.getId());
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotOverwriteNewerStateWhenRebuilding() {
+        // Given
+        Task task = task("Renamed", null);
+        index.index(task);
+
+        // When
+        index.indexIfAbsent(new Task(task.getId(), "Original", null, false, task.getCreatedAt()));
+
+        // Then
+        assertThat(index.search("original", 10)).isEmpty();
+        assertThat(index.search("renamed", 10)).hasSize(1);
+    }
+
+    @Test
+    void shouldKeepOnlyBestHitsUpToLimit() {
+        // Given
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(task("Task " + i, "filler ".repeat(i)));
+        }
+        index.tasksCreated(tasks);
+
+        // When
+        List<TaskSearchIndex.Hit> hits = index.search("task", 3);
+
+        // Then: the shortest documents score highest
+        assertThat(hits).extracting(TaskSearchIndex.Hit::getId)
+                .containsExactly(tasks.get(0).getId(), tasks.get(1).getId(), tasks.get(2).getId());
+        assertThat(index.search("task", 0)).isEmpty();
+        assertThat(index.search("  ", 3)).isEmpty();
+    }
+
+    @Test
+    void shouldCompactDeletedDocumentsWithoutLosingLiveOnes() {
+        // Given
+        TaskSearchIndex compactingIndex = new TaskSearchIndex(4);
+        Task stable = task("Stable alpha", null);
+        Task changing = task("Changing beta", null);
+        compactingIndex.tasksCreated(List.of(stable, changing));
+        long sizeBefore = compactingIndex.postingsSizeInBytes();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            compactingIndex.index(new Task(changing.getId(), "Changing gamma" + i, null, false, changing.getCreatedAt()));
+        }
+
+        // Then
+        assertThat(compactingIndex.size()).isEqualTo(2);
+        assertThat(compactingIndex.search("alpha", 10)).extracting(TaskSearchIndex.Hit::getId).containsExactly(stable.getId());
+        assertThat(compactingIndex.search("changing", 10)).extracting(TaskSearchIndex.Hit::getId).containsExactly(changing.getId());
+        assertThat(compactingIndex.search("gamma19", 10)).extracting(TaskSearchIndex.Hit::getId).containsExactly(changing.getId());
+        assertThat(compactingIndex.search("gamma3", 10)).isEmpty();
+        assertThat(compactingIndex.postingsSizeInBytes()).isLessThan(sizeBefore * 4);
+    }
+
+    private static Task task(String title, String description) {
+        return new Task(UUID.randomUUID(), title, description, false, ZonedDateTime.now());
+    }
+}
@@ -0,0 +1,107 @@
+package com.sdd.taskmanager.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sdd.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskSerializerTest {
+
+    // Configured like the application's ObjectMapper, with and without the hand-written serializer
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper handWritten = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializerByType(Task.class, new TaskSerializer())
+            .build();
+
+    @Test
+    void shouldWriteTheSameBytesAsTheReflectiveSerializer() throws Exception {
+        // Given
+        ZonedDateTime createdAt = ZonedDateTime.of(2026, 10, 17, 0, 1, 29, 219_738_000, ZoneOffset.UTC);
+        List<Task> tasks = List.of(
+                new Task(UUID.randomUUID(), "Plain task", "A description", false, createdAt),
+                new Task(UUID.randomUUID(), "Quotes \" and \\ and \n newlines", null, true, createdAt.withNano(0)),
+                new Task(UUID.randomUUID(), "Unicode ✓ and \u0001 control", "Émoji 🚀", false,
+                        createdAt.withZoneSameInstant(ZoneId.of("Asia/Kolkata"))),
+                new Task(null, null, null, false, null));
+
+        // When
+        byte[] expected = reflective.writeValueAsBytes(tasks);
+        byte[] actual = handWritten.writeValueAsBytes(tasks);
+
+        // Then
+        assertThat(new String(actual)).isEqualTo(new String(expected));
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldFormatDateTimesLikeTheIsoOffsetFormatter() {
+        // Given
+        LocalDateTime local = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+        List<ZonedDateTime> dateTimes = List.of(
+                local.atZone(ZoneOffset.UTC),
+                local.withNano(1).atZone(ZoneOffset.UTC),
+                local.withNano(100_000_000).atZone(ZoneOffset.UTC),
+                local.withNano(123_456_789).atZone(ZoneOffset.UTC),
+                local.withNano(120_000).atZone(ZoneOffset.ofHoursMinutes(5, 30)),
+                local.atZone(ZoneOffset.ofHoursMinutesSeconds(-8, -15, -30)),
+                local.atZone(ZoneId.of("America/New_York")),
+                local.withYear(1).atZone(ZoneOffset.UTC),
+                local.withYear(9999).withHour(23).withMinute(59).withSecond(59).withNano(999_999_999).atZone(ZoneOffset.UTC));
+        char[] buffer = new char[64];
+
+        for (ZonedDateTime dateTime : dateTimes) {
+            // When
+            int length = TaskSerializer.formatDateTime(dateTime, buffer);
+
+            // Then
+            assertThat(new String(buffer, 0, length)).isEqualTo(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime));
+        }
+    }
+
+    @Test
+    void shouldFallBackToTheFormatterForYearsBeyondFourDigits() throws Exception {
+        // Given
+        Task task = new Task(UUID.randomUUID(), "Far future", null, false,
+                ZonedDateTime.of(12026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+
+        // When
+        String json = handWritten.writeValueAsString(task);
+
+        // Then
+        assertThat(TaskSerializer.formatDateTime(task.getCreatedAt(), new char[64])).isEqualTo(-1);
+        assertThat(json).isEqualTo(reflective.writeValueAsString(task)).contains("\"+12026-01-01T00:00:00Z\"");
+    }
+
+    @Test
+    void shouldWriteTheSameFieldsInCbor() throws Exception {
+        // Given
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json()
+                .factory(new CBORFactory())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializerByType(Task.class, new TaskSerializer())
+                .build();
+        Task task = new Task(UUID.randomUUID(), "Binary task", null, true,
+                ZonedDateTime.of(2026, 10, 17, 0, 1, 29, 219_738_000, ZoneOffset.UTC));
+
+        // When
+        byte[] bytes = cbor.writeValueAsBytes(task);
+
+        // Then
+        assertThat(cbor.readTree(bytes)).isEqualTo(reflective.readTree(reflective.writeValueAsBytes(task)));
+    }
+}
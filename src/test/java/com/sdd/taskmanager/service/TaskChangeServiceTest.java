@@ -0,0 +1,107 @@
+package com.sdd.taskmanager.service;
+
+import com.sdd.taskmanager.feed.TaskChangeFeed;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskChange;
+import com.sdd.taskmanager.model.TaskChangeBatch;
+import com.sdd.taskmanager.model.TaskChangeCursor;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import com.sdd.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskChangeServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskChangeFeed feed;
+    private TaskChangeServiceImpl taskChangeService;
+
+    @BeforeEach
+    void setUp() {
+        feed = new TaskChangeFeed(2, Executors.newVirtualThreadPerTaskExecutor());
+        taskChangeService = new TaskChangeServiceImpl(taskRepository, feed);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    @Test
+    void shouldFollowFeedFromNowWithoutCursor() {
+        // Given
+        feed.tasksCreated(List.of(task()));
+        TaskChangeBatch first = taskChangeService.readChanges(null, 10);
+        Task created = task();
+
+        // When
+        feed.tasksCreated(List.of(created));
+        TaskChangeBatch second = taskChangeService.readChanges(first.getNextCursor(), 10);
+
+        // Then
+        assertThat(first.getChanges()).isEmpty();
+        assertThat(second.getChanges()).extracting(TaskChange::getTask).containsExactly(created);
+        assertThat(second.getNextCursor()).isEqualTo(TaskChangeCursor.at(feed.getGeneration(), 2));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void shouldResyncFromStorageThenReplayChangesMadeMeanwhile() {
+        // Given: the consumer fell behind the two changes the feed keeps
+        TaskChangeCursor stale = TaskChangeCursor.at(feed.getGeneration(), 0);
+        feed.tasksCreated(List.of(task(), task(), task()));
+        Task stored1 = task();
+        Task stored2 = task();
+        when(taskRepository.findPage(TaskFilter.NONE, null, 2)).thenReturn(List.of(stored1, stored2));
+        when(taskRepository.findPage(TaskFilter.NONE, TaskCursor.after(stored2), 2)).thenReturn(List.of());
+
+        // When
+        TaskChangeBatch firstPage = taskChangeService.readChanges(stale, 2);
+        Task completedMeanwhile = task();
+        feed.tasksUpdated(List.of(completedMeanwhile));
+        TaskChangeBatch lastPage = taskChangeService.readChanges(firstPage.getNextCursor(), 2);
+        TaskChangeBatch replay = taskChangeService.readChanges(lastPage.getNextCursor(), 2);
+
+        // Then
+        assertThat(firstPage.getChanges()).extracting(TaskChange::getType).containsOnly(TaskChange.Type.SNAPSHOT);
+        assertThat(firstPage.getNextCursor().isResync()).isTrue();
+        assertThat(lastPage.getChanges()).isEmpty();
+        assertThat(lastPage.getNextCursor()).isEqualTo(TaskChangeCursor.at(feed.getGeneration(), 3));
+        assertThat(replay.getChanges()).extracting(TaskChange::getTask).containsExactly(completedMeanwhile);
+    }
+
+    @Test
+    void shouldResyncCursorOfEarlierRun() {
+        // Given
+        Task stored = task();
+        when(taskRepository.findPage(TaskFilter.NONE, null, 10)).thenReturn(List.of(stored));
+
+        // When
+        TaskChangeBatch batch = taskChangeService.readChanges(TaskChangeCursor.at(feed.getGeneration() - 1, 0), 10);
+
+        // Then
+        assertThat(batch.getChanges()).extracting(TaskChange::getTask).containsExactly(stored);
+        assertThat(batch.getNextCursor()).isEqualTo(TaskChangeCursor.at(feed.getGeneration(), 0));
+    }
+
+    private static Task task() {
+        return new Task(UUID.randomUUID(), "Task", null, false, ZonedDateTime.now());
+    }
+}
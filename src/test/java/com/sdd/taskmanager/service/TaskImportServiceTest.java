@@ -0,0 +1,161 @@
+package com.sdd.taskmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdd.taskmanager.dto.ImportFormat;
+import com.sdd.taskmanager.dto.ImportSummary;
+import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.repository.TaskRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<List<String>> insertedBatches = new ArrayList<>();
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void recordBatches() {
+        // The list passed to createAll is reused between batches, so copy titles at call time
+        lenient().when(taskRepository.createAll(anyList())).thenAnswer(invocation -> {
+            List<Task> batch = invocation.getArgument(0);
+            insertedBatches.add(batch.stream().map(Task::getTitle).toList());
+            return batch;
+        });
+    }
+
+    private TaskImportService importService(int batchSize, int maxErrors) {
+        return new TaskImportServiceImpl(taskRepository, transactionManager, validator, new ObjectMapper(), batchSize, maxErrors);
+    }
+
+    private static BufferedReader body(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+
+    @Test
+    void shouldImportNdjsonInBatchesAndReportInvalidLines() throws Exception {
+        // Given
+        String ndjson = """
+                {"title":"Task 1","description":"Description 1"}
+                {"title":""}
+                {"title":"Task 2"}
+
+                {not json}
+                {"title":"Task 3","description":"Description 3"}
+                """;
+
+        // When
+        ImportSummary summary = importService(2, 100).importTasks(body(ndjson), ImportFormat.NDJSON);
+
+        // Then
+        assertThat(summary.getAccepted()).isEqualTo(3);
+        assertThat(summary.getRejected()).isEqualTo(2);
+        assertThat(summary.isErrorsTruncated()).isFalse();
+        assertThat(summary.getErrors()).extracting("line").containsExactly(2L, 5L);
+        assertThat(summary.getErrors().get(0).getMessage()).isEqualTo("Title cannot be empty");
+        assertThat(summary.getErrors().get(1).getMessage()).startsWith("Malformed JSON");
+        assertThat(insertedBatches).containsExactly(List.of("Task 1", "Task 2"), List.of("Task 3"));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void shouldImportCsvWithHeaderAndQuotedFields() throws Exception {
+        // Given
+        String csv = """
+                title,description
+                Task 1,Description 1
+                "Task, with comma","He said ""hi""\"
+                Task 3
+                ,Missing title
+                a,b,c
+                """;
+
+        // When
+        ImportSummary summary = importService(10, 100).importTasks(body(csv), ImportFormat.CSV);
+
+        // Then
+        assertThat(summary.getAccepted()).isEqualTo(3);
+        assertThat(summary.getRejected()).isEqualTo(2);
+        assertThat(summary.getErrors()).extracting("line").containsExactly(5L, 6L);
+        assertThat(insertedBatches).containsExactly(List.of("Task 1", "Task, with comma", "Task 3"));
+    }
+
+    @Test
+    void shouldCapDetailedErrors() throws Exception {
+        // Given
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            ndjson.append("{\"title\":\"\"}\n");
+        }
+
+        // When
+        ImportSummary summary = importService(10, 2).importTasks(body(ndjson.toString()), ImportFormat.NDJSON);
+
+        // Then
+        assertThat(summary.getAccepted()).isZero();
+        assertThat(summary.getRejected()).isEqualTo(5);
+        assertThat(summary.getErrors()).hasSize(2);
+        assertThat(summary.isErrorsTruncated()).isTrue();
+        verify(taskRepository, never()).createAll(anyList());
+    }
+
+    @Test
+    void shouldRejectOverlongLineAndImportTheNextOnes() throws Exception {
+        // Given
+        String overlong = "{\"title\":\"" + "x".repeat(TaskImportServiceImpl.MAX_LINE_LENGTH) + "\"}";
+        String ndjson = "{\"title\":\"Before\"}\r\n" + overlong + "\r\n{\"title\":\"After\"}";
+
+        // When
+        ImportSummary summary = importService(10, 100).importTasks(body(ndjson), ImportFormat.NDJSON);
+
+        // Then
+        assertThat(summary.getAccepted()).isEqualTo(2);
+        assertThat(summary.getRejected()).isEqualTo(1);
+        assertThat(summary.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getMessage()).startsWith("Line exceeds");
+        });
+        assertThat(insertedBatches).containsExactly(List.of("Before", "After"));
+    }
+}
@@ -1,24 +1,36 @@
 package com.sdd.taskmanager.service;
 
 import com.sdd.taskmanager.exception.TaskNotFoundException;
+import com.sdd.taskmanager.model.CompletionResult;
+import com.sdd.taskmanager.model.DailyTaskCounts;
 import com.sdd.taskmanager.model.Task;
+import com.sdd.taskmanager.model.TaskCursor;
+import com.sdd.taskmanager.model.TaskFilter;
+import com.sdd.taskmanager.model.TaskPage;
+import com.sdd.taskmanager.repository.ReadReplicas;
 import com.sdd.taskmanager.repository.TaskRepository;
+import com.sdd.taskmanager.repository.TaskStatistics;
+import com.sdd.taskmanager.repository.TaskVersionTracker;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -31,6 +43,12 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskVersionTracker versionTracker;
+
+    @Mock
+    private TaskStatistics statistics;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -80,36 +98,138 @@ class TaskServiceTest {
     void shouldCompleteTask() {
         // Given
         UUID taskId = UUID.randomUUID();
-        Task existingTask = new Task(taskId, "Existing Task", "Description", false, ZonedDateTime.now());
-        Optional<Task> optionalTask = Optional.of(existingTask);
+        Task completedTask = new Task(taskId, "Existing Task", "Description", true, ZonedDateTime.now());
 
-        when(taskRepository.findById(taskId)).thenReturn(optionalTask);
-        doAnswer(invocation -> {
-            Task taskToUpdate = invocation.getArgument(0);
-            assertThat(taskToUpdate.isCompleted()).isTrue(); // Verify task is marked completed
-            return null; // void method returns null
-        }).when(taskRepository).update(any(Task.class));
+        when(taskRepository.complete(taskId)).thenReturn(Optional.of(completedTask));
+
+        // When
+        Task result = taskService.completeTask(taskId);
+
+        // Then
+        assertThat(result).isNotNull();
+        assertThat(result.getId()).isEqualTo(taskId);
+        assertThat(result.isCompleted()).isTrue();
+        verify(taskRepository, times(1)).complete(taskId);
+        verify(taskRepository, times(0)).findById(any(UUID.class)); // Single round trip
+        verify(taskRepository, times(0)).update(any(Task.class)); // No full-row rewrite
+    }
+
+    @Test
+    void shouldReturnAlreadyCompletedTaskWhenCompletingAgain() {
+        // Given
+        UUID taskId = UUID.randomUUID();
+        Task alreadyCompleted = new Task(taskId, "Done Task", "Description", true, ZonedDateTime.now());
+
+        when(taskRepository.complete(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(alreadyCompleted));
 
         // When
-        Task completedTask = taskService.completeTask(taskId);
+        Task result = taskService.completeTask(taskId);
 
         // Then
-        assertThat(completedTask).isNotNull();
-        assertThat(completedTask.getId()).isEqualTo(taskId);
-        assertThat(completedTask.isCompleted()).isTrue();
-        verify(taskRepository, times(1)).findById(taskId);
-        verify(taskRepository, times(1)).update(any(Task.class));
+        assertThat(result).isSameAs(alreadyCompleted);
     }
 
     @Test
     void shouldThrowExceptionWhenCompletingNonExistentTask() {
         // Given
         UUID nonExistentId = UUID.randomUUID();
+        when(taskRepository.complete(nonExistentId)).thenReturn(Optional.empty());
         when(taskRepository.findById(nonExistentId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(TaskNotFoundException.class, () -> taskService.completeTask(nonExistentId));
-        verify(taskRepository, times(1)).findById(nonExistentId);
+        verify(taskRepository, times(1)).complete(nonExistentId);
         verify(taskRepository, times(0)).update(any(Task.class)); // Ensure update is not called
     }
+
+    @Test
+    void shouldCompleteTasksInBulk() {
+        // Given
+        UUID existingId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Task completedTask = new Task(existingId, "Task", null, true, ZonedDateTime.now());
+        CompletionResult repositoryResult = new CompletionResult(List.of(completedTask), List.of(missingId));
+
+        when(taskRepository.completeAll(List.of(existingId, missingId))).thenReturn(repositoryResult);
+
+        // When
+        CompletionResult result = taskService.completeTasks(List.of(existingId, missingId));
+
+        // Then
+        assertThat(result.getCompleted()).containsExactly(completedTask);
+        assertThat(result.getNotFound()).containsExactly(missingId);
+    }
+
+    @Test
+    void shouldReturnPageWithNextCursorWhenMoreTasksRemain() {
+        // Given
+        Task task1 = new Task(UUID.randomUUID(), "Task 1", "Description 1", false, ZonedDateTime.now());
+        Task task2 = new Task(UUID.randomUUID(), "Task 2", "Description 2", false, ZonedDateTime.now());
+        Task task3 = new Task(UUID.randomUUID(), "Task 3", "Description 3", false, ZonedDateTime.now());
+        TaskCursor after = new TaskCursor(ZonedDateTime.now().minusDays(1), UUID.randomUUID());
+
+        when(taskRepository.findPage(eq(TaskFilter.NONE), eq(after), eq(3))).thenReturn(Arrays.asList(task1, task2, task3));
+
+        // When
+        TaskPage page = taskService.findTaskPage(TaskFilter.NONE, after, 2);
+
+        // Then
+        assertThat(page.getTasks()).containsExactly(task1, task2);
+        assertThat(page.getNextCursor()).contains(TaskCursor.after(task2));
+    }
+
+    @Test
+    void shouldReturnLastPageWithoutNextCursor() {
+        // Given
+        Task task1 = new Task(UUID.randomUUID(), "Task 1", "Description 1", false, ZonedDateTime.now());
+
+        when(taskRepository.findPage(TaskFilter.NONE, null, 3)).thenReturn(List.of(task1));
+
+        // When
+        TaskPage page = taskService.findTaskPage(TaskFilter.NONE, null, 2);
+
+        // Then
+        assertThat(page.getTasks()).containsExactly(task1);
+        assertThat(page.getNextCursor()).isEmpty();
+    }
+
+    @Test
+    void shouldExportTasksThroughRepositoryStream() {
+        // Given
+        Task task1 = new Task(UUID.randomUUID(), "Task 1", "Description 1", false, ZonedDateTime.now());
+        Task task2 = new Task(UUID.randomUUID(), "Task 2", "Description 2", true, ZonedDateTime.now());
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(0);
+            consumer.accept(task1);
+            consumer.accept(task2);
+            return null;
+        }).when(taskRepository).streamAll(any());
+
+        // When
+        List<Task> exported = new ArrayList<>();
+        taskService.exportTasks(exported::add);
+
+        // Then
+        assertThat(exported).containsExactly(task1, task2);
+        verify(taskRepository, times(0)).findAll(); // Never materializes the full list
+    }
+
+    @Test
+    void shouldReconcileStatisticsWithCountsStoredOnPrimary() {
+        // Given
+        List<DailyTaskCounts> stored = List.of(new DailyTaskCounts(LocalDate.of(2024, 5, 1), 3, 1));
+        List<Boolean> primaryRequired = new ArrayList<>();
+        when(taskRepository.countByCreationDay()).thenAnswer(invocation -> {
+            primaryRequired.add(ReadReplicas.isPrimaryRequired());
+            return stored;
+        });
+
+        // When
+        taskService.reconcileTaskStats();
+
+        // Then
+        verify(statistics).reconcile(stored);
+        assertThat(primaryRequired).containsExactly(true);
+    }
 }
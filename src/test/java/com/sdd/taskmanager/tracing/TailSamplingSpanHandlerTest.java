@@ -0,0 +1,117 @@
+package com.sdd.taskmanager.tracing;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TailSamplingSpanHandlerTest {
+
+    private final List<MutableSpan> reported = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private TraceSamplingPolicy policy;
+    private TailSamplingSpanHandler handler;
+    private Tracing tracing;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        policy = new TraceSamplingPolicy(0, Duration.ofMillis(100), Map.of(), meterRegistry);
+        // Stands in for the Zipkin reporter
+        SpanHandler reporter = new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                reported.add(span);
+                return true;
+            }
+        };
+        handler = new TailSamplingSpanHandler(policy, reporter, 100);
+        tracing = Tracing.newBuilder().sampler(policy).alwaysSampleLocal().addSpanHandler(handler).build();
+        tracer = tracing.tracer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+
+    @Test
+    void shouldDropFastSuccessfulTraces() {
+        // When
+        finishRequest("GET", "/api/v1/tasks", "200", 10);
+
+        // Then
+        assertThat(reported).isEmpty();
+        assertThat(handler.pendingTraces()).isZero();
+    }
+
+    @Test
+    void shouldKeepSlowTraceWithItsChildSpans() {
+        // Given
+        Span root = tracer.nextSpan().name("http get /api/v1/tasks").start(1_000);
+        tracer.newChild(root.context()).name("query").start(1_100).finish(1_200);
+
+        // When
+        root.tag("method", "GET").tag("uri", "/api/v1/tasks").tag("status", "200").finish(1_000 + 250_000);
+
+        // Then
+        assertThat(reported).extracting(MutableSpan::name).containsExactly("query", "http get /api/v1/tasks");
+        assertThat(meterRegistry.get(TraceSamplingPolicy.METRIC_NAME).tag("reason", "slow").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepTracesOfNotFoundTasks() {
+        // When
+        finishRequest("PATCH", "/api/v1/tasks/{id}/complete", "404", 10);
+
+        // Then
+        assertThat(reported).hasSize(1);
+        assertThat(meterRegistry.get(TraceSamplingPolicy.METRIC_NAME).tag("reason", "error").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyEndpointRateChangedAtRuntime() {
+        // Given
+        policy.setEndpointRate("POST /api/v1/tasks", 1.0);
+
+        // When
+        finishRequest("POST", "/api/v1/tasks", "201", 10);
+        finishRequest("GET", "/api/v1/tasks", "200", 10);
+
+        // Then
+        assertThat(reported).extracting(span -> span.tag("method")).containsExactly("POST");
+    }
+
+    @Test
+    void shouldLeaveTracesSampledAtStartToRegularReporter() {
+        // Given
+        policy.setTracesPerSecond(1000);
+
+        // When
+        finishRequest("GET", "/api/v1/tasks", "500", 10);
+
+        // Then
+        assertThat(reported).isEmpty();
+        assertThat(meterRegistry.get(TraceSamplingPolicy.METRIC_NAME).tag("reason", "rate").counter().count()).isEqualTo(1);
+    }
+
+    private void finishRequest(String method, String uri, String status, long durationMillis) {
+        tracer.nextSpan().name("http " + method.toLowerCase() + " " + uri).start(1_000)
+                .tag("method", method).tag("uri", uri).tag("status", status).tag("exception", "none")
+                .finish(1_000 + durationMillis * 1_000);
+    }
+}